@@ -76,9 +76,13 @@ public class BookingAdminController {
      * Get booking statistics for dashboard
      */
     @GetMapping("/bookings/statistics")
-    public ResponseEntity<Map<String, Object>> getBookingStatistics() {
+    public ResponseEntity<Map<String, Object>> getBookingStatistics(
+            @RequestParam(required = false) Long stationId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate) {
         log.info("Received request for booking statistics.");
-        Map<String, Object> statistics = bookingManagementService.getBookingStatistics();
+        Map<String, Object> statistics = bookingManagementService.getBookingStatistics(stationId, userId, startDate, endDate);
         return ResponseEntity.ok(statistics);
     }
 
@@ -7,6 +7,7 @@ import com.charginghive.admin.dto.BookingResponseDto;
 import com.charginghive.admin.model.AuditLog;
 import com.charginghive.admin.repository.AuditLogRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientResponseException;
@@ -15,6 +16,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 @Slf4j
@@ -135,28 +137,24 @@ public class BookingManagementService {
     }
 
     /**
-     * Get booking statistics for admin dashboard
+     * Get booking statistics for admin dashboard.
+     * Counts are aggregated by booking-service, optionally for one station,
+     * user or start time range.
      */
-    public Map<String, Object> getBookingStatistics() {
+    public Map<String, Object> getBookingStatistics(Long stationId, Long userId, String startDate, String endDate) {
         try {
-            // Get all bookings to calculate statistics
-            List<BookingResponseDto> allBookings = getAllBookings();
-
-            Map<String, Object> stats = new java.util.HashMap<>();
-            stats.put("totalBookings", allBookings.size());
-            stats.put("activeBookings", allBookings.stream()
-                    .filter(b-> b.getStatus().toString().equals("BOOKED"))
-                    .count());
-            stats.put("completedBookings", allBookings.stream()
-                    .filter(b -> "COMPLETED".equals(b.getStatus().toString()))
-                    .count());
-            stats.put("cancelledBookings", allBookings.stream()
-                    .filter(b -> "CANCELLED".equals(b.getStatus().toString()))
-                    .count());
-
-            return stats;
+            Map<String, Object> stats = bookingClient.get()
+                    .uri(uriBuilder -> uriBuilder.path("/bookings/admin/statistics")
+                            .queryParamIfPresent("stationId", Optional.ofNullable(stationId))
+                            .queryParamIfPresent("userId", Optional.ofNullable(userId))
+                            .queryParamIfPresent("startDate", Optional.ofNullable(startDate))
+                            .queryParamIfPresent("endDate", Optional.ofNullable(endDate))
+                            .build())
+                    .retrieve()
+                    .body(new ParameterizedTypeReference<>() {});
+            return stats != null ? stats : Collections.emptyMap();
         } catch (Exception e) {
-            log.error("Error calculating booking statistics", e);
+            log.error("Error fetching booking statistics", e);
             return Collections.emptyMap();
         }
     }
@@ -0,0 +1,218 @@
+package com.charginhive.apigateway.config;
+
+import org.springframework.http.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Route authorization rules compiled into one path trie per HTTP method.
+ * A rule is "METHOD PATTERN ACCESS": METHOD is a method name or * for any, PATTERN is a
+ * path whose segments are literals, * for exactly one segment or a trailing ** for the
+ * rest, and ACCESS is public, authenticated or role names joined with |.
+ * The most specific pattern wins (literal over * over **), and at the same pattern a
+ * method rule wins over a * rule. Lookups walk the path in place and allocate nothing.
+ */
+public final class AuthorizationTable {
+
+    public enum Access {
+        PUBLIC, AUTHENTICATED, ROLES
+    }
+
+    /**
+     * What a request needs; roles is a bitmask over the table's role bits
+     */
+    public record Rule(String method, String pattern, Access access, long roles) {
+
+        public boolean isPublic() {
+            return access == Access.PUBLIC;
+        }
+
+        public boolean allows(long granted) {
+            return switch (access) {
+                case PUBLIC -> true;
+                case AUTHENTICATED -> (granted & ANY_ROLE) != 0;
+                case ROLES -> (granted & roles) != 0;
+            };
+        }
+    }
+
+    // set for every caller with at least one authority; "authenticated" needs it, as the old role check did
+    private static final long ANY_ROLE = 1L;
+    private static final String ANY_METHOD = "*";
+    private static final Rule DEFAULT = new Rule(ANY_METHOD, "/**", Access.AUTHENTICATED, 0);
+
+    private final Map<String, Long> roleBits;
+    private final Map<HttpMethod, Node> tries;
+    private final Node anyMethodTrie;
+
+    private AuthorizationTable(Map<String, Long> roleBits, Map<HttpMethod, Node> tries, Node anyMethodTrie) {
+        this.roleBits = roleBits;
+        this.tries = tries;
+        this.anyMethodTrie = anyMethodTrie;
+    }
+
+    /**
+     * Compiles rules separated by ';'; fails on anything it cannot parse
+     */
+    public static AuthorizationTable compile(String rules) {
+        Map<String, Long> roleBits = new HashMap<>();
+        List<Rule> parsed = new ArrayList<>();
+        for (String line : rules.split(";")) {
+            if (!line.isBlank()) {
+                parsed.add(parse(line.trim(), roleBits));
+            }
+        }
+
+        Node anyMethodTrie = new Node();
+        parsed.stream().filter(rule -> rule.method().equals(ANY_METHOD)).forEach(anyMethodTrie::insert);
+        Map<HttpMethod, Node> tries = new HashMap<>();
+        for (HttpMethod method : HttpMethod.values()) {
+            Node trie = new Node();
+            // * rules first so a rule for this method at the same pattern replaces them
+            parsed.stream().filter(rule -> rule.method().equals(ANY_METHOD)).forEach(trie::insert);
+            parsed.stream().filter(rule -> rule.method().equals(method.name())).forEach(trie::insert);
+            tries.put(method, trie);
+        }
+        return new AuthorizationTable(Map.copyOf(roleBits), Map.copyOf(tries), anyMethodTrie);
+    }
+
+    /**
+     * The rule for a request; paths no rule matches need an authenticated caller
+     */
+    public Rule match(HttpMethod method, String path) {
+        Node trie = method == null ? anyMethodTrie : tries.getOrDefault(method, anyMethodTrie);
+        Rule rule = trie.match(path, 0);
+        return rule != null ? rule : DEFAULT;
+    }
+
+    /**
+     * The caller's authorities, a list of role names in the JWT, as a bitmask
+     */
+    public long roleMask(Object authorities) {
+        if (!(authorities instanceof List<?> names) || names.isEmpty()) {
+            return 0;
+        }
+        long mask = ANY_ROLE;
+        for (int i = 0; i < names.size(); i++) {
+            Long bit = roleBits.get(names.get(i));
+            if (bit != null) {
+                mask |= bit;
+            }
+        }
+        return mask;
+    }
+
+    private static Rule parse(String line, Map<String, Long> roleBits) {
+        String[] parts = line.split("\\s+");
+        if (parts.length != 3 || !parts[1].startsWith("/")) {
+            throw new IllegalArgumentException("Authorization rules look like 'GET /api/stations/** authenticated', got: " + line);
+        }
+        String method = parts[0].toUpperCase();
+        if (!method.equals(ANY_METHOD) && Arrays.stream(HttpMethod.values()).noneMatch(m -> m.name().equals(method))) {
+            throw new IllegalArgumentException("Unknown HTTP method in authorization rule: " + line);
+        }
+        return switch (parts[2]) {
+            case "public" -> new Rule(method, parts[1], Access.PUBLIC, 0);
+            case "authenticated" -> new Rule(method, parts[1], Access.AUTHENTICATED, 0);
+            default -> {
+                long roles = 0;
+                for (String role : parts[2].split("\\|")) {
+                    if (!roleBits.containsKey(role)) {
+                        // bit 0 is ANY_ROLE
+                        if (roleBits.size() == Long.SIZE - 2) {
+                            throw new IllegalArgumentException("Authorization rules name more than 62 roles");
+                        }
+                        roleBits.put(role, 1L << (roleBits.size() + 1));
+                    }
+                    roles |= roleBits.get(role);
+                }
+                yield new Rule(method, parts[1], Access.ROLES, roles);
+            }
+        };
+    }
+
+    private static final class Node {
+
+        // literal children, scanned in place so a lookup never cuts the path into substrings
+        private String[] segments = new String[0];
+        private Node[] children = new Node[0];
+        private Node wildcard;
+        private Rule rule;
+        private Rule rest;
+
+        void insert(Rule rule) {
+            String[] parts = rule.pattern().substring(1).split("/");
+            Node node = this;
+            for (int i = 0; i < parts.length; i++) {
+                String part = parts[i];
+                if (part.isEmpty()) {
+                    continue;
+                }
+                if (part.equals("**")) {
+                    if (i != parts.length - 1) {
+                        throw new IllegalArgumentException("** must be the last segment of " + rule.pattern());
+                    }
+                    node.rest = rule;
+                    return;
+                }
+                node = node.child(part);
+            }
+            node.rule = rule;
+        }
+
+        private Node child(String part) {
+            if (part.equals("*")) {
+                if (wildcard == null) {
+                    wildcard = new Node();
+                }
+                return wildcard;
+            }
+            for (int i = 0; i < segments.length; i++) {
+                if (segments[i].equals(part)) {
+                    return children[i];
+                }
+            }
+            segments = Arrays.copyOf(segments, segments.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            segments[segments.length - 1] = part;
+            children[children.length - 1] = new Node();
+            return children[children.length - 1];
+        }
+
+        // literal first, then *, then **; backtracks when a more specific branch has no rule
+        Rule match(String path, int from) {
+            int start = from;
+            while (start < path.length() && path.charAt(start) == '/') {
+                start++;
+            }
+            if (start == path.length()) {
+                return rule != null ? rule : rest;
+            }
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            int length = end - start;
+            for (int i = 0; i < segments.length; i++) {
+                if (segments[i].length() == length && path.regionMatches(start, segments[i], 0, length)) {
+                    Rule found = children[i].match(path, end);
+                    if (found != null) {
+                        return found;
+                    }
+                    break;
+                }
+            }
+            if (wildcard != null) {
+                Rule found = wildcard.match(path, end);
+                if (found != null) {
+                    return found;
+                }
+            }
+            return rest;
+        }
+    }
+}
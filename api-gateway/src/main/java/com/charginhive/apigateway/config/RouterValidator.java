@@ -1,26 +1,31 @@
 package com.charginhive.apigateway.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
 @Component
 public class RouterValidator {
 
-    //all public endpoints that do not require a JWT for access
-    public static final List<String> openApiEndpoints = List.of(
-            "/api/auth/register",
-            "/api/auth/login",
-            "/test/hello",
-            "/eureka"
-    );
+    // compiled once from gateway.authorization.rules, see AuthorizationTable for the format
+    private final AuthorizationTable authorizationTable;
+
+    public RouterValidator(@Value("${gateway.authorization.rules}") String rules) {
+        this.authorizationTable = AuthorizationTable.compile(rules);
+    }
+
+    public AuthorizationTable.Rule ruleFor(ServerHttpRequest request) {
+        return authorizationTable.match(request.getMethod(), request.getURI().getPath());
+    }
 
-    
     public boolean isSecured(ServerHttpRequest request) {
-        return openApiEndpoints
-                .stream()
-                .noneMatch(uri -> request.getURI().getPath().contains(uri));
+        return !ruleFor(request).isPublic();
     }
 
+    /**
+     * The authorities claim of a JWT as a role bitmask for {@link AuthorizationTable.Rule#allows}
+     */
+    public long roleMask(Object authorities) {
+        return authorizationTable.roleMask(authorities);
+    }
 }
@@ -0,0 +1,68 @@
+package com.charginhive.apigateway.filter;
+
+import com.charginhive.apigateway.ratelimit.RateLimiter;
+import com.charginhive.apigateway.util.JwtUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Limits failed authentication per client IP. Runs before AuthenticationFilter, so a
+ * client flooding invalid or forged tokens is turned away without a signature check
+ * once its failures exceed the auth-failures limit; every 401, from the gateway or a
+ * service behind it, takes a token from its bucket. A request whose token already
+ * verified on this gateway is let through, so users behind a shared NAT are not
+ * locked out by someone else's failures.
+ */
+@Component
+@Slf4j
+public class AuthFailureLimitFilter implements GlobalFilter, Ordered {
+
+    private final RateLimiter rateLimiter;
+    private final JwtUtil jwtUtil;
+
+    public AuthFailureLimitFilter(RateLimiter rateLimiter, JwtUtil jwtUtil) {
+        this.rateLimiter = rateLimiter;
+        this.jwtUtil = jwtUtil;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String clientIp = RateLimitFilter.clientIp(exchange);
+        // only missing and not yet verified tokens are gated
+        if (!jwtUtil.isVerified(bearerToken(exchange))) {
+            long waitNanos = rateLimiter.authFailureWait(clientIp);
+            if (waitNanos > 0) {
+                log.debug("Authentication failure limit hit by {}", clientIp);
+                return RateLimitFilter.tooManyRequests(exchange, waitNanos);
+            }
+        }
+        return chain.filter(exchange).then(Mono.fromRunnable(() -> {
+            if (exchange.getResponse().getStatusCode() == HttpStatus.UNAUTHORIZED) {
+                rateLimiter.recordAuthFailure(clientIp);
+            }
+        }));
+    }
+
+    private static String bearerToken(ServerWebExchange exchange) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        return null;
+    }
+
+    /**
+     * Before AuthenticationFilter
+     */
+    @Override
+    public int getOrder() {
+        return -2;
+    }
+}
@@ -1,6 +1,7 @@
 package com.charginhive.apigateway.filter;
 
 
+import com.charginhive.apigateway.config.AuthorizationTable;
 import com.charginhive.apigateway.config.RouterValidator;
 import com.charginhive.apigateway.util.JwtUtil;
 import io.jsonwebtoken.Claims;
@@ -9,7 +10,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
-import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
@@ -17,12 +17,13 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
-
 @Component
 @Slf4j
 public class AuthenticationFilter implements GlobalFilter, Ordered {
 
+    // exchange attribute with the verified user id, read by RateLimitFilter
+    public static final String USER_ID_ATTRIBUTE = AuthenticationFilter.class.getName() + ".userId";
+
     @Autowired
     private RouterValidator routerValidator;
 
@@ -33,8 +34,9 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
         log.warn("Request URI : {}", request.getURI());
-        // Check if the endpoint is secured
-        if (routerValidator.isSecured(request)) {
+        // One lookup in the compiled authorization table decides both whether a token is needed and which roles
+        AuthorizationTable.Rule rule = routerValidator.ruleFor(request);
+        if (!rule.isPublic()) {
             // Check for Authorization header
             if (this.isAuthMissing(request)) {
                 log.warn("Authorization header is missing for secured endpoint: {}", request.getURI());
@@ -43,24 +45,24 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
 
             final String token = this.getAuthHeader(request);
 
-            //Validate the JWT
+            //Validate the JWT, verified once and its claims reused below
+            Claims claims;
             try {
-                jwtUtil.validateToken(token);
+                claims = jwtUtil.getClaims(token);
             } catch (Exception e) {
                 log.error("Invalid authorization token. Error: {}", e.getMessage());
                 return this.onError(exchange, "Authorization failed: Invalid Token", HttpStatus.UNAUTHORIZED);
             }
 
-            Claims claims = jwtUtil.getClaims(token);
-
             //Check for required role
-            if (!hasRequiredRole(request, (List<String>) claims.get("authorities"))) {
+            if (!rule.allows(routerValidator.roleMask(claims.get("authorities")))) {
                 log.warn("User does not have required role to access {}. Authorities: {}", request.getURI().getPath(), claims.get("authorities"));
                 return this.onError(exchange, "Access Denied: Insufficient permissions", HttpStatus.FORBIDDEN);
             }
 
             Long userId = claims.get("user_id", Long.class);
             log.debug("Authenticated user: {}, forwarding request to: {}", userId, request.getURI());
+            exchange.getAttributes().put(USER_ID_ATTRIBUTE, userId);
 
             ServerHttpRequest modifiedRequest = exchange.getRequest().mutate()
                     .header("X-User-Id", userId.toString())
@@ -97,33 +99,4 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
     private boolean isAuthMissing(ServerHttpRequest request) {
         return !request.getHeaders().containsKey("Authorization");
     }
-
-    /**
-     * Checks if the user has the required role to access the requested path.
-     */
-    private boolean hasRequiredRole(ServerHttpRequest request, List<String> roles) {
-        String path = request.getURI().getPath();
-        if (roles == null || roles.isEmpty()) {
-            return false;
-        }
-
-        if (path.startsWith("/stations")) {
-
-            if (path.contains("/unapproved")) {
-                return roles.contains("ROLE_ADMIN");
-            }
-
-            if (request.getMethod() != HttpMethod.GET) {
-                return roles.contains("ROLE_ADMIN") || roles.contains("ROLE_OPERATOR");
-            }
-        }
-
-
-        if (path.startsWith("/admin")) {
-            return roles.contains("ROLE_ADMIN");
-        }
-
-        return true;
-    }
 }
-
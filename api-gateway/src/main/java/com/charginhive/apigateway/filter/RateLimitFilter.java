@@ -0,0 +1,72 @@
+package com.charginhive.apigateway.filter;
+
+import com.charginhive.apigateway.ratelimit.RateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits requests per route and caller. Runs after AuthenticationFilter so an
+ * authenticated caller is limited by its user id wherever it connects from; requests
+ * to open endpoints carry no verified user and are limited by client IP. Clients that
+ * fail authentication are held back earlier, by AuthFailureLimitFilter.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "*";
+        Long userId = exchange.getAttribute(AuthenticationFilter.USER_ID_ATTRIBUTE);
+        String caller = userId != null ? "user:" + userId : "ip:" + clientIp(exchange);
+
+        long waitNanos = rateLimiter.tryAcquire(routeId, caller);
+        if (waitNanos == 0) {
+            return chain.filter(exchange);
+        }
+        log.debug("Rate limit hit on route {} by {}", routeId, caller);
+        return tooManyRequests(exchange, waitNanos);
+    }
+
+    /**
+     * Right after AuthenticationFilter, which records the verified user id
+     */
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    static Mono<Void> tooManyRequests(ServerWebExchange exchange, long waitNanos) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        // whole seconds, rounded up so a client that waits as told gets through
+        long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        return response.setComplete();
+    }
+
+    static String clientIp(ServerWebExchange exchange) {
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        return remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : "unknown";
+    }
+}
@@ -0,0 +1,17 @@
+package com.charginhive.apigateway.ratelimit;
+
+/**
+ * Requests a caller may send to one route: a burst of capacity, refilled at perSecond
+ */
+public record RateLimit(int capacity, double perSecond) {
+
+    public RateLimit {
+        if (capacity <= 0 || perSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit capacity and refill rate must be positive");
+        }
+    }
+
+    long intervalNanos() {
+        return Math.max(1, (long) (1_000_000_000L / perSecond));
+    }
+}
@@ -0,0 +1,26 @@
+package com.charginhive.apigateway.ratelimit;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * /actuator/ratelimits: the limit of every route and how many requests it rejected
+ */
+@Component
+@Endpoint(id = "ratelimits")
+public class RateLimitEndpoint {
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitEndpoint(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> rateLimits() {
+        return rateLimiter.stats();
+    }
+}
@@ -0,0 +1,134 @@
+package com.charginhive.apigateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process rate limiting, one token bucket per (route, caller). Buckets live in a
+ * bounded map and are dropped once idle; an idle bucket has refilled anyway, so
+ * dropping it loses nothing as long as the idle expiry is longer than a full refill.
+ * Failed authentication attempts have their own per-IP bucket under the reserved
+ * route id auth-failures, checked before the token is verified.
+ * Each gateway instance limits on its own, there is no shared store.
+ */
+@Component
+@Slf4j
+public class RateLimiter {
+
+    private record Key(String routeId, String caller) {
+    }
+
+    private static final String DEFAULT_ROUTE = "*";
+    private static final String AUTH_FAILURES = "auth-failures";
+
+    private final Map<String, RateLimit> limits;
+    private final Cache<Key, TokenBucket> buckets;
+    private final Map<String, LongAdder> rejections = new ConcurrentHashMap<>();
+
+    public RateLimiter(@Value("${gateway.rate-limit.rules}") String rules,
+                       @Value("${gateway.rate-limit.max-keys:100000}") long maxKeys,
+                       @Value("${gateway.rate-limit.idle-expiry:10m}") Duration idleExpiry) {
+        this.limits = parse(rules);
+        if (!limits.containsKey(DEFAULT_ROUTE)) {
+            throw new IllegalArgumentException("gateway.rate-limit.rules needs a '*' entry for unlisted routes");
+        }
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleExpiry)
+                .build();
+        log.info("Rate limits per route: {}", limits);
+    }
+
+    /**
+     * Takes a token for the caller on the route
+     *
+     * @return 0 if the request may pass, otherwise the nanoseconds until it may be retried
+     */
+    public long tryAcquire(String routeId, String caller) {
+        long now = System.nanoTime();
+        long wait = bucket(routeId, caller, now).tryAcquire(now);
+        if (wait > 0) {
+            rejected(routeId);
+        }
+        return wait;
+    }
+
+    /**
+     * Whether the client IP may attempt to authenticate. Only failed attempts take
+     * tokens, but the wait applies to the whole IP, so clients sharing it are held back
+     * together; AuthFailureLimitFilter does not ask for requests with a verified token.
+     *
+     * @return 0 if it may, otherwise the nanoseconds until it may retry
+     */
+    public long authFailureWait(String clientIp) {
+        TokenBucket bucket = buckets.getIfPresent(new Key(AUTH_FAILURES, clientIp));
+        long wait = bucket != null ? bucket.waitNanos(System.nanoTime()) : 0;
+        if (wait > 0) {
+            rejected(AUTH_FAILURES);
+        }
+        return wait;
+    }
+
+    public void recordAuthFailure(String clientIp) {
+        long now = System.nanoTime();
+        bucket(AUTH_FAILURES, clientIp, now).tryAcquire(now);
+    }
+
+    /**
+     * Limit and rejected requests per route, for the ratelimits actuator endpoint
+     */
+    public Map<String, Map<String, Object>> stats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        limits.forEach((routeId, limit) -> stats.put(routeId, routeStats(limit, 0)));
+        rejections.forEach((routeId, rejected) -> stats.put(routeId, routeStats(limitFor(routeId), rejected.sum())));
+        return stats;
+    }
+
+    private TokenBucket bucket(String routeId, String caller, long now) {
+        RateLimit limit = limitFor(routeId);
+        return buckets.get(new Key(routeId, caller), key -> new TokenBucket(limit, now));
+    }
+
+    private void rejected(String routeId) {
+        rejections.computeIfAbsent(routeId, id -> new LongAdder()).increment();
+    }
+
+    private RateLimit limitFor(String routeId) {
+        RateLimit limit = limits.get(routeId);
+        return limit != null ? limit : limits.get(DEFAULT_ROUTE);
+    }
+
+    private Map<String, Object> routeStats(RateLimit limit, long rejected) {
+        Map<String, Object> route = new LinkedHashMap<>();
+        route.put("capacity", limit.capacity());
+        route.put("perSecond", limit.perSecond());
+        route.put("rejected", rejected);
+        return route;
+    }
+
+    // "booking-service 20 10;* 50 25": route id, burst capacity, tokens refilled per second
+    private static Map<String, RateLimit> parse(String rules) {
+        Map<String, RateLimit> limits = new HashMap<>();
+        for (String line : rules.split(";")) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] parts = line.trim().split("\\s+");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Rate limit rules look like 'booking-service 20 10', got: " + line);
+            }
+            limits.put(parts[0], new RateLimit(Integer.parseInt(parts[1]), Double.parseDouble(parts[2])));
+        }
+        return Map.copyOf(limits);
+    }
+}
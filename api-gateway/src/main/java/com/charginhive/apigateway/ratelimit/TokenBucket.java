@@ -0,0 +1,46 @@
+package com.charginhive.apigateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket kept as a single timestamp, the time at which it would be full again
+ * (GCRA). Taking a token is one compare-and-set, no lock and no refill bookkeeping:
+ * capacity tokens fit in the window before now, and each one moves the timestamp on by
+ * the refill interval.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(RateLimit limit, long now) {
+        this.intervalNanos = limit.intervalNanos();
+        this.burstNanos = limit.intervalNanos() * limit.capacity();
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise the nanoseconds until one is available
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return 0 if a token is available, otherwise the nanoseconds until one is; takes nothing
+     */
+    long waitNanos(long now) {
+        return Math.max(0, Math.max(fullAt.get(), now) + intervalNanos - now - burstNanos);
+    }
+}
@@ -1,7 +1,12 @@
 package com.charginhive.apigateway.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
@@ -9,6 +14,12 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
@@ -17,26 +28,83 @@ public class JwtUtil {
     @Value("${jwt.secret.key}")
     private String jwtSecret;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
     private SecretKey key;
 
+    // thread-safe once built, so one parser serves every request
+    private JwtParser parser;
+
+    // claims of tokens already verified, keyed by the token's SHA-256 so raw tokens are not kept;
+    // an entry expires with its token, so a cache hit is never accepted past exp
+    private Cache<ByteBuffer, Claims> verified;
+
     // must be same as in auth service for successful validation
     @PostConstruct
     public void init() {
         log.info("Initializing JWT secret key for validation.");
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-    }
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<ByteBuffer, Claims>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer digest, Claims claims, long currentTime) {
+                        long millis = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer digest, Claims claims, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
 
-    public void validateToken(final String token) {
-        log.debug("Validating token... {}", token);
-        Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
-        log.debug("Token validation successful.");
+                    @Override
+                    public long expireAfterRead(ByteBuffer digest, Claims claims, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
+    /**
+     * Verifies the token and returns its claims; throws a JwtException if it is invalid or expired.
+     * A token seen before skips the signature check and JSON decoding until it expires.
+     */
     public Claims getClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        if (token == null) {
+            throw new MalformedJwtException("Bearer token is missing");
+        }
+        ByteBuffer digest = digest(token);
+        Claims claims = verified.getIfPresent(digest);
+        if (claims != null) {
+            return claims;
+        }
+        claims = parser.parseSignedClaims(token).getPayload();
+        // tokens without exp never expire, so they are verified every time instead
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            verified.put(digest, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * Whether the token verified before and has not expired yet, answered from the cache
+     * alone; a token this gateway has not verified yet is reported as not verified.
+     */
+    public boolean isVerified(String token) {
+        return token != null && verified.getIfPresent(digest(token)) != null;
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
@@ -0,0 +1,171 @@
+package com.charginhive.apigateway.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.http.HttpMethod;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorizationTableTest {
+
+    private static final List<HttpMethod> METHODS =
+            List.of(HttpMethod.GET, HttpMethod.POST, HttpMethod.PUT, HttpMethod.DELETE, HttpMethod.PATCH);
+
+    private static final List<List<String>> CALLERS = Arrays.asList(
+            null,
+            List.of(),
+            List.of("ROLE_DRIVER"),
+            List.of("ROLE_OPERATOR"),
+            List.of("ROLE_ADMIN"),
+            List.of("ROLE_DRIVER", "ROLE_OPERATOR"),
+            List.of("ROLE_UNKNOWN"));
+
+    // one or more paths under every configured pattern
+    private static final List<String> PATHS = List.of(
+            "/api/auth/register",
+            "/api/auth/login",
+            "/test/hello",
+            "/eureka",
+            "/eureka/apps",
+            "/eureka/apps/STATION-SERVICE",
+            "/stations",
+            "/stations/7",
+            "/stations/7/ports",
+            "/stations/unapproved",
+            "/admin",
+            "/admin/users/3",
+            "/api/admin/users",
+            "/api/stations/7",
+            "/api/stations/search",
+            "/api/bookings",
+            "/api/bookings/12",
+            "/api/auth/me",
+            "/");
+
+    private final AuthorizationTable table = AuthorizationTable.compile(configuredRules());
+
+    @Test
+    void configuredRulesKeepTheOldDecisions() {
+        for (String path : PATHS) {
+            for (HttpMethod method : METHODS) {
+                for (List<String> authorities : CALLERS) {
+                    assertEquals(oldDecision(method, path, authorities), allowed(method, path, authorities),
+                            method + " " + path + " as " + authorities);
+                }
+            }
+        }
+    }
+
+    @Test
+    void adminOnlyServiceEndpoints() {
+        for (List<String> authorities : CALLERS) {
+            boolean admin = authorities != null && authorities.contains("ROLE_ADMIN");
+            assertEquals(admin, allowed(HttpMethod.GET, "/api/bookings/admin/all", authorities));
+            assertEquals(admin, allowed(HttpMethod.DELETE, "/api/stations/7/availability/cache", authorities));
+            assertEquals(authorities != null && !authorities.isEmpty(),
+                    allowed(HttpMethod.GET, "/api/stations/7/availability/cache", authorities));
+        }
+    }
+
+    @Test
+    void mostSpecificPatternWins() {
+        assertEquals("/stations/unapproved", table.match(HttpMethod.GET, "/stations/unapproved").pattern());
+        assertEquals("/stations/**", table.match(HttpMethod.GET, "/stations/unapproved/7").pattern());
+        assertEquals("/api/auth/login", table.match(HttpMethod.POST, "/api/auth/login").pattern());
+        assertEquals("/**", table.match(HttpMethod.POST, "/api/auth/login/x").pattern());
+        assertEquals("/**", table.match(HttpMethod.POST, "/api/auth").pattern());
+    }
+
+    @Test
+    void methodRuleWinsOverAnyMethodRuleAtTheSamePattern() {
+        AuthorizationTable rules = AuthorizationTable.compile("GET /a/** public; * /a/** ROLE_X; * /** authenticated");
+        assertTrue(rules.match(HttpMethod.GET, "/a/b").isPublic());
+        assertFalse(rules.match(HttpMethod.POST, "/a/b").isPublic());
+        assertEquals(AuthorizationTable.Access.ROLES, rules.match(HttpMethod.POST, "/a/b").access());
+        // a more specific * pattern still beats a method rule at a broader one
+        assertEquals(AuthorizationTable.Access.ROLES,
+                table.match(HttpMethod.GET, "/stations/unapproved").access());
+    }
+
+    @Test
+    void doubleWildcardCoversItsPrefix() {
+        assertTrue(table.match(HttpMethod.GET, "/eureka").isPublic());
+        assertTrue(table.match(HttpMethod.GET, "/eureka/").isPublic());
+        assertTrue(table.match(HttpMethod.GET, "/eureka/apps/X").isPublic());
+        assertFalse(table.match(HttpMethod.GET, "/eurekaX").isPublic());
+        assertFalse(table.match(HttpMethod.GET, "/api/eureka").isPublic());
+    }
+
+    @Test
+    void backtracksWhenALiteralBranchHasNoRule() {
+        AuthorizationTable rules = AuthorizationTable.compile("GET /a/b/c public; GET /a/*/d ROLE_X; GET /a/** ROLE_Y");
+        assertEquals("/a/b/c", rules.match(HttpMethod.GET, "/a/b/c").pattern());
+        assertEquals("/a/*/d", rules.match(HttpMethod.GET, "/a/b/d").pattern());
+        assertEquals("/a/**", rules.match(HttpMethod.GET, "/a/b/e").pattern());
+        assertEquals("/a/**", rules.match(HttpMethod.GET, "/a/b/c/d").pattern());
+        assertEquals("/**", rules.match(HttpMethod.GET, "/b").pattern());
+        assertEquals("/**", rules.match(HttpMethod.POST, "/a/b/c").pattern());
+    }
+
+    @Test
+    void callersWithoutAuthoritiesAreDenied() {
+        assertEquals(0, table.roleMask(null));
+        assertEquals(0, table.roleMask(List.of()));
+        assertEquals(0, table.roleMask("ROLE_ADMIN"));
+        AuthorizationTable.Rule authenticated = table.match(HttpMethod.GET, "/api/bookings");
+        assertFalse(authenticated.allows(0));
+        assertTrue(authenticated.allows(table.roleMask(List.of("ROLE_UNKNOWN"))));
+    }
+
+    @Test
+    void rejectsMalformedRules() {
+        assertThrows(IllegalArgumentException.class, () -> AuthorizationTable.compile("GET /a"));
+        assertThrows(IllegalArgumentException.class, () -> AuthorizationTable.compile("FETCH /a public"));
+        assertThrows(IllegalArgumentException.class, () -> AuthorizationTable.compile("GET a public"));
+        assertThrows(IllegalArgumentException.class, () -> AuthorizationTable.compile("GET /a/**/b public"));
+    }
+
+    private boolean allowed(HttpMethod method, String path, List<String> authorities) {
+        AuthorizationTable.Rule rule = table.match(method, path);
+        return rule.isPublic() || rule.allows(table.roleMask(authorities));
+    }
+
+    // RouterValidator.isSecured and AuthenticationFilter.hasRequiredRole before the table replaced them,
+    // for paths where the substring matches of the old checks meant the same as the patterns
+    private static boolean oldDecision(HttpMethod method, String path, List<String> roles) {
+        boolean secured = List.of("/api/auth/register", "/api/auth/login", "/test/hello", "/eureka")
+                .stream()
+                .noneMatch(path::contains);
+        if (!secured) {
+            return true;
+        }
+        if (roles == null || roles.isEmpty()) {
+            return false;
+        }
+        if (path.startsWith("/stations")) {
+            if (path.contains("/unapproved")) {
+                return roles.contains("ROLE_ADMIN");
+            }
+            if (method != HttpMethod.GET) {
+                return roles.contains("ROLE_ADMIN") || roles.contains("ROLE_OPERATOR");
+            }
+        }
+        if (path.startsWith("/admin")) {
+            return roles.contains("ROLE_ADMIN");
+        }
+        return true;
+    }
+
+    private static String configuredRules() {
+        try {
+            return PropertiesLoaderUtils.loadAllProperties("application.properties")
+                    .getProperty("gateway.authorization.rules");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
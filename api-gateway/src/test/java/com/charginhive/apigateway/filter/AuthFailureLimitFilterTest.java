@@ -0,0 +1,99 @@
+package com.charginhive.apigateway.filter;
+
+import com.charginhive.apigateway.ratelimit.RateLimiter;
+import com.charginhive.apigateway.util.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthFailureLimitFilterTest {
+
+    private static final String SECRET = "an-hmac-secret-of-at-least-thirty-two-bytes";
+    private static final String NAT_IP = "203.0.113.7";
+
+    private final RateLimiter rateLimiter = new RateLimiter("auth-failures 3 0.001; * 100 100", 1000, Duration.ofMinutes(10));
+    private final AtomicInteger forwarded = new AtomicInteger();
+    private JwtUtil jwtUtil;
+    private AuthFailureLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 100L);
+        jwtUtil.init();
+        filter = new AuthFailureLimitFilter(rateLimiter, jwtUtil);
+    }
+
+    @Test
+    void failuresLockOutAnIpForMissingAndUnknownTokens() {
+        failThreeTimes();
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, send(null, forwardAs(HttpStatus.OK)));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, send("forged", forwardAs(HttpStatus.OK)));
+        // signed correctly but never verified here, so it still takes the gate
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, send(token(1L), forwardAs(HttpStatus.OK)));
+        assertEquals(0, forwarded.get());
+    }
+
+    @Test
+    void verifiedTokensPassALockedOutIp() {
+        String token = token(1L);
+        jwtUtil.getClaims(token);
+        failThreeTimes();
+
+        assertEquals(HttpStatus.OK, send(token, forwardAs(HttpStatus.OK)));
+        assertEquals(1, forwarded.get());
+    }
+
+    private void failThreeTimes() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(HttpStatus.UNAUTHORIZED, send("forged", forwardAs(HttpStatus.UNAUTHORIZED)));
+        }
+        forwarded.set(0);
+    }
+
+    private HttpStatus send(String token, GatewayFilterChain chain) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/bookings")
+                .remoteAddress(new InetSocketAddress(NAT_IP, 40000));
+        if (token != null) {
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, chain).block();
+        return HttpStatus.valueOf(exchange.getResponse().getStatusCode().value());
+    }
+
+    // stands in for AuthenticationFilter and the routed service
+    private GatewayFilterChain forwardAs(HttpStatus status) {
+        return exchange -> {
+            forwarded.incrementAndGet();
+            exchange.getResponse().setStatusCode(status);
+            return Mono.empty();
+        };
+    }
+
+    private static String token(Long userId) {
+        return Jwts.builder()
+                .claim("user_id", userId)
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
@@ -0,0 +1,51 @@
+package com.charginhive.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final RateLimiter rateLimiter = new RateLimiter(
+            "auth-failures 3 0.001; booking-service 2 0.001; * 4 0.001", 1000, Duration.ofMinutes(10));
+
+    @Test
+    void limitsEachCallerOnEachRouteSeparately() {
+        assertEquals(0, rateLimiter.tryAcquire("booking-service", "user:1"));
+        assertEquals(0, rateLimiter.tryAcquire("booking-service", "user:1"));
+        assertTrue(rateLimiter.tryAcquire("booking-service", "user:1") > 0);
+        assertEquals(0, rateLimiter.tryAcquire("booking-service", "user:2"));
+        assertEquals(0, rateLimiter.tryAcquire("station-service", "user:1"));
+        assertEquals(1L, rateLimiter.stats().get("booking-service").get("rejected"));
+    }
+
+    @Test
+    void unlistedRoutesGetTheDefaultLimit() {
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("admin-service", "ip:10.0.0.1"));
+        }
+        assertTrue(rateLimiter.tryAcquire("admin-service", "ip:10.0.0.1") > 0);
+    }
+
+    @Test
+    void onlyFailedAuthenticationCountsAgainstAnIp() {
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, rateLimiter.authFailureWait("10.0.0.1"));
+        }
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.authFailureWait("10.0.0.1"));
+            rateLimiter.recordAuthFailure("10.0.0.1");
+        }
+        assertTrue(rateLimiter.authFailureWait("10.0.0.1") > 0);
+        assertEquals(0, rateLimiter.authFailureWait("10.0.0.2"));
+        assertEquals(1L, rateLimiter.stats().get("auth-failures").get("rejected"));
+    }
+
+    @Test
+    void rulesWithoutADefaultAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RateLimiter("booking-service 2 1", 1000, Duration.ofMinutes(10)));
+    }
+}
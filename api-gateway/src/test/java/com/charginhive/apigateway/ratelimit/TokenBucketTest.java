@@ -0,0 +1,101 @@
+package com.charginhive.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    // 5 tokens, one every 100 ms
+    private static final RateLimit LIMIT = new RateLimit(5, 10);
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long T0 = 1_000_000_000_000L;
+
+    @Test
+    void freshBucketAllowsABurstOfCapacity() {
+        TokenBucket bucket = new TokenBucket(LIMIT, T0);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(T0));
+        }
+        assertEquals(INTERVAL, bucket.tryAcquire(T0));
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        TokenBucket bucket = drained();
+        assertEquals(INTERVAL / 2, bucket.tryAcquire(T0 + INTERVAL / 2));
+        assertEquals(0, bucket.tryAcquire(T0 + INTERVAL));
+        assertEquals(INTERVAL, bucket.tryAcquire(T0 + INTERVAL));
+    }
+
+    @Test
+    void rejectedRequestsTakeNothing() {
+        TokenBucket bucket = drained();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(bucket.tryAcquire(T0) > 0);
+        }
+        assertEquals(0, bucket.tryAcquire(T0 + INTERVAL));
+    }
+
+    @Test
+    void idleTimeRefillsNoMoreThanCapacity() {
+        TokenBucket bucket = drained();
+        long later = T0 + TimeUnit.HOURS.toNanos(1);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(later));
+        }
+        assertEquals(INTERVAL, bucket.tryAcquire(later));
+    }
+
+    @Test
+    void waitNanosTakesNothing() {
+        TokenBucket bucket = new TokenBucket(LIMIT, T0);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.waitNanos(T0));
+            bucket.tryAcquire(T0);
+        }
+        assertEquals(INTERVAL, bucket.waitNanos(T0));
+        assertEquals(INTERVAL, bucket.waitNanos(T0));
+        assertEquals(0, bucket.waitNanos(T0 + INTERVAL));
+    }
+
+    @Test
+    void concurrentCallersShareTheCapacity() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(new RateLimit(1000, 1), T0);
+        AtomicInteger passed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryAcquire(T0) == 0) {
+                        passed.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1000, passed.get());
+    }
+
+    private static TokenBucket drained() {
+        TokenBucket bucket = new TokenBucket(LIMIT, T0);
+        for (int i = 0; i < 5; i++) {
+            bucket.tryAcquire(T0);
+        }
+        return bucket;
+    }
+}
@@ -1,8 +1,5 @@
 package com.charginghive.auth;
 
-import org.modelmapper.Conditions;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
@@ -18,18 +15,6 @@ public class AuthServiceApplication {
 		SpringApplication.run(AuthServiceApplication.class, args);
 	}
 
-	@Bean
-	ModelMapper modelMapper() {
-		System.out.println("creating model mapper");
-		ModelMapper mapper= new ModelMapper();
-		//to transfer only properties matching by name
-		mapper.getConfiguration()
-		.setMatchingStrategy(MatchingStrategies.STRICT)
-		//transfer not null props
-		.setPropertyCondition(Conditions.isNotNull());
-		return mapper;
-	}
-
 	@Bean
 	public PasswordEncoder passwordEncoder() {
 		return new BCryptPasswordEncoder();
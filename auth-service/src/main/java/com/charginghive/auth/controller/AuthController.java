@@ -3,8 +3,9 @@ package com.charginghive.auth.controller;
 import com.charginghive.auth.dto.*;
 import com.charginghive.auth.dto.AdminUserCreateRequest;
 import com.charginghive.auth.dto.AdminUserUpdateRequest;
+import com.charginghive.auth.entity.UserRegistration;
+import com.charginghive.auth.mapper.UserMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -30,7 +31,7 @@ public class AuthController {
 
 	private final UserService userService;
 	private final AuthenticationManager authenticationManager;
-	private final ModelMapper modelMapper;
+	private final UserMapper userMapper;
 
 	@PostMapping("/register")
 	public ResponseEntity<?> addNewUser(@RequestBody UserRegistrationReq credential){
@@ -51,10 +52,9 @@ public class AuthController {
 			log.info("Attempting sign-in for email: {}", signInReq.getEmail());
 			Authentication authToken = new UsernamePasswordAuthenticationToken(signInReq.getEmail(), signInReq.getPassword());
 			Authentication validAuth = authenticationManager.authenticate(authToken);
-			AuthResponse authResponse = AuthResponse.builder()
-					.user(modelMapper.map(validAuth.getPrincipal(), UserResDto.class))
-					.token(userService.generateToken(validAuth))
-					.build();
+			// the principal is the UserRegistration loaded by CustomUserDetailsService
+			AuthResponse authResponse = new AuthResponse(userService.generateToken(validAuth),
+					userMapper.toResDto((UserRegistration) validAuth.getPrincipal()));
 
 			return ResponseEntity.status(HttpStatus.CREATED).body(authResponse);
 		} catch (BadCredentialsException ex) {
@@ -0,0 +1,23 @@
+package com.charginghive.auth.mapper;
+
+import com.charginghive.auth.dto.UserDto;
+import com.charginghive.auth.dto.UserRegistrationReq;
+import com.charginghive.auth.dto.UserResDto;
+import com.charginghive.auth.entity.UserRegistration;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Maps users to their response DTOs and registration requests to users
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface UserMapper {
+
+	UserResDto toResDto(UserRegistration user);
+
+	UserDto toUserDto(UserRegistration user);
+
+	@Mapping(target = "id", ignore = true)
+	UserRegistration toEntity(UserRegistrationReq request);
+}
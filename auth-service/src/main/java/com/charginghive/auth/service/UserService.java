@@ -5,7 +5,7 @@ import com.charginghive.auth.dto.*;
 import com.charginghive.auth.dto.AdminUserCreateRequest;
 import com.charginghive.auth.dto.AdminUserUpdateRequest;
 import com.charginghive.auth.entity.UserRole;
-import org.modelmapper.ModelMapper;
+import com.charginghive.auth.mapper.UserMapper;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -28,7 +28,7 @@ public class UserService {
 
 	private final UserRepository repository;
 	private final PasswordEncoder passwordEncoder;
-	private final ModelMapper modelMapper;
+	private final UserMapper userMapper;
 	private final JwtUtils jwtUtils;
 
 	/**
@@ -38,9 +38,9 @@ public class UserService {
 	public UserResDto saveUserDetails(UserRegistrationReq credential) {
 		try {
 			credential.setPassword(passwordEncoder.encode(credential.getPassword()));
-			UserRegistration userEntity = modelMapper.map(credential, UserRegistration.class);
+			UserRegistration userEntity = userMapper.toEntity(credential);
 			UserRegistration savedUser = repository.save(userEntity);
-			return modelMapper.map(savedUser, UserResDto.class);
+			return userMapper.toResDto(savedUser);
 		} catch (Exception ex) {
 			System.out.println("Error occurred while registering user: " + ex.getMessage());
 			throw new RuntimeException("User registration failed");
@@ -106,18 +106,11 @@ public class UserService {
 
 	public UserResDto getById(Long id) {
 		UserRegistration user = repository.findById(id).orElseThrow(() -> new NotFoundException("User not found with ID: " + id)); // edited
-		return modelMapper.map(user, UserResDto.class);
+		return userMapper.toResDto(user);
 	}
 
 	public UserResDto mapToDto(UserRegistration user) {
-		return UserResDto.builder()
-				.email(user.getEmail())
-				.id(user.getId())
-				.firstName(user.getFirstName())
-                .phoneNumber(user.getPhoneNumber())
-				.lastName(user.getLastName())
-				.userRole(user.getUserRole())
-				.build();
+		return userMapper.toResDto(user);
 	}
 
 	// ================== Admin operations (used by Admin service) ==================
@@ -136,7 +129,7 @@ public class UserService {
 		}
 		user.setUserRole(role);
 		UserRegistration saved = repository.save(user);
-		return modelMapper.map(saved, UserDto.class);
+		return userMapper.toUserDto(saved);
 	}
 
 	// admin update user with optional fields
@@ -153,7 +146,7 @@ public class UserService {
 			try { user.setUserRole(req.getUserRole()); } catch (IllegalArgumentException ignored) {}
 		}
 		UserRegistration saved = repository.save(user);
-		return modelMapper.map(saved, UserDto.class);
+		return userMapper.toUserDto(saved);
 	}
 
 	// admin delete user
@@ -0,0 +1,85 @@
+package com.charginghive.booking.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Compares a JMH JSON result file against the committed baseline.
+ * A benchmark counts as regressed when it is slower by more than the threshold
+ * and by more than the two error margins combined; the exit code is 1 if any did.
+ *
+ * Usage: BaselineComparison baseline.json results.json [threshold-percent, default 10]
+ */
+public final class BaselineComparison {
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <results.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-80s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue().get("primaryMetric");
+            JsonNode before = baseline.containsKey(entry.getKey()) ? baseline.get(entry.getKey()).get("primaryMetric") : null;
+            String unit = now.get("scoreUnit").asText();
+            if (before == null) {
+                System.out.printf("%-80s %14s %14.3f %9s  %s%n", entry.getKey(), "-", score(now), "new", unit);
+                continue;
+            }
+            double change = (score(now) - score(before)) / score(before) * 100;
+            // lower is better for time per op, higher for throughput
+            boolean timePerOp = unit.endsWith("/op");
+            double worse = timePerOp ? score(now) - score(before) : score(before) - score(now);
+            boolean regressed = Math.abs(change) > threshold && worse > error(now) + error(before);
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-80s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), score(before), score(now),
+                    change, unit, regressed ? "  REGRESSED" : "");
+        }
+        baseline.keySet().stream()
+                .filter(key -> !current.containsKey(key))
+                .forEach(key -> System.out.printf("%-80s %14s%n", key, "missing"));
+
+        System.out.printf("%d regression(s) beyond %.0f%%%n", regressions, threshold);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    // keyed by benchmark name plus its parameters, e.g. "...BookingJsonBenchmark.typedListWriter size=100"
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringJoiner key = new StringJoiner(" ");
+            key.add(result.get("benchmark").asText());
+            JsonNode params = result.get("params");
+            if (params != null) {
+                params.properties().forEach(param -> key.add(param.getKey() + "=" + param.getValue().asText()));
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static double score(JsonNode metric) {
+        return metric.get("score").asDouble();
+    }
+
+    private static double error(JsonNode metric) {
+        double error = metric.get("scoreError").asDouble();
+        return Double.isNaN(error) ? 0 : error;
+    }
+}
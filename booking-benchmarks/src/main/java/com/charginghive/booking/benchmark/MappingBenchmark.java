@@ -0,0 +1,73 @@
+package com.charginghive.booking.benchmark;
+
+import com.charginghive.booking.dto.BookingResponseDto;
+import com.charginghive.booking.entity.Booking;
+import com.charginghive.booking.entity.Status;
+import com.charginghive.booking.mapper.BookingMapper;
+import com.charginghive.booking.mapper.BookingMapperImpl;
+import org.modelmapper.Conditions;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-object cost of mapping a Booking to a BookingResponseDto, with the reflective
+ * ModelMapper setup booking-service used before (STRICT, non-null properties only)
+ * against the generated BookingMapper
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private ModelMapper modelMapper;
+    private BookingMapper bookingMapper;
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setPropertyCondition(Conditions.isNotNull());
+        bookingMapper = new BookingMapperImpl();
+
+        LocalDateTime start = LocalDateTime.of(2025, 6, 1, 10, 0);
+        booking = Booking.builder()
+                .id(42L)
+                .userId(7L)
+                .stationId(3L)
+                .portId(11L)
+                .startTime(start)
+                .endTime(start.plusMinutes(90))
+                .totalCost(412.5)
+                .status(Status.BOOKED)
+                .createdAt(start.minusDays(1))
+                .build();
+    }
+
+    @Benchmark
+    public BookingResponseDto modelMapper() {
+        return modelMapper.map(booking, BookingResponseDto.class);
+    }
+
+    @Benchmark
+    public BookingResponseDto generatedMapper() {
+        return bookingMapper.toResponseDto(booking);
+    }
+}
@@ -0,0 +1,78 @@
+package com.charginghive.booking.benchmark;
+
+import com.charginghive.booking.dto.BookingResponseDto;
+import com.charginghive.booking.entity.Booking;
+import com.charginghive.booking.entity.Status;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic booking data shared by the benchmarks. Bookings are spread over
+ * stations with PORTS_PER_STATION ports each and never overlap on the same port.
+ */
+public final class SyntheticBookings {
+
+    public static final int PORTS_PER_STATION = 4;
+    public static final LocalDateTime EPOCH = LocalDateTime.of(2025, 6, 1, 0, 0);
+
+    private static final long SEED = 42;
+
+    private SyntheticBookings() {
+    }
+
+    /**
+     * Back-to-back bookings with 30-120 minute durations and 0-60 minute gaps, laid out per port
+     */
+    public static List<Booking> bookings(int ports, int bookingsPerPort) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Booking> bookings = new ArrayList<>(ports * bookingsPerPort);
+        long id = 1;
+        for (long portId = 1; portId <= ports; portId++) {
+            LocalDateTime cursor = EPOCH;
+            for (int i = 0; i < bookingsPerPort; i++) {
+                LocalDateTime start = cursor.plusMinutes(random.nextInt(0, 61));
+                LocalDateTime end = start.plusMinutes(random.nextInt(30, 121));
+                bookings.add(booking(id++, portId, start, end));
+                cursor = end;
+            }
+        }
+        return bookings;
+    }
+
+    public static Booking booking(long id, long portId, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .id(id)
+                .userId(1 + id % 500)
+                .stationId(stationOf(portId))
+                .portId(portId)
+                .startTime(start)
+                .endTime(end)
+                .totalCost(12.5 * Duration.between(start, end).toMinutes() / 60.0)
+                .status(Status.BOOKED)
+                .createdAt(start.minusDays(1))
+                .build();
+    }
+
+    public static long stationOf(long portId) {
+        return 1 + (portId - 1) / PORTS_PER_STATION;
+    }
+
+    /**
+     * Fully enriched response DTOs, as the controllers return them
+     */
+    public static List<BookingResponseDto> responses(int count) {
+        List<BookingResponseDto> responses = new ArrayList<>(count);
+        for (Booking booking : bookings((count + 9) / 10, 10).subList(0, count)) {
+            responses.add(new BookingResponseDto(booking.getId(), booking.getUserId(), booking.getStationId(),
+                    booking.getPortId(), booking.getStartTime(), booking.getEndTime(), booking.getDuration(),
+                    booking.getTotalCost(), booking.getStatus(), booking.getCreatedAt(),
+                    "Station " + booking.getStationId(), booking.getStationId() + " Main Street, Pune",
+                    "CCS2", 60.0));
+        }
+        return responses;
+    }
+}
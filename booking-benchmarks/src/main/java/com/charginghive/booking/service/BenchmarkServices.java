@@ -0,0 +1,29 @@
+package com.charginghive.booking.service;
+
+import com.charginghive.booking.mapper.BookingMapper;
+
+/**
+ * Services wired with only the collaborators the benchmarked helpers use; the rest
+ * stay null, so a benchmark reaching for them fails loudly instead of measuring a mock
+ */
+final class BenchmarkServices {
+
+    private BenchmarkServices() {
+    }
+
+    static BookingService bookingService(ExternalService externalService, BookingMapper bookingMapper,
+                                         SlotReservationService slotReservationService) {
+        return new BookingService(
+                null,                   // bookingRepository
+                externalService,
+                bookingMapper,
+                null,                   // portScheduleIndex
+                null,                   // virtualThreadExecutor
+                null,                   // portLocks
+                slotReservationService,
+                null,                   // bookingExpiryEngine
+                null,                   // earningsLedger
+                null,                   // availabilityNotifier
+                null);                  // entityManager
+    }
+}
@@ -0,0 +1,123 @@
+package com.charginghive.booking.service;
+
+import com.charginghive.booking.benchmark.SyntheticBookings;
+import com.charginghive.booking.dto.BookingRequestDto;
+import com.charginghive.booking.dto.BookingResponseDto;
+import com.charginghive.booking.dto.StationInfoDto;
+import com.charginghive.booking.entity.Booking;
+import com.charginghive.booking.exception.BookingException;
+import com.charginghive.booking.mapper.BookingMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * BookingService helpers on the create and read paths: request validation, cost
+ * calculation and response enrichment with a stubbed ExternalService, on a service
+ * wired with only the collaborators these helpers use.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingServiceBenchmark {
+
+    private static final int PORTS = 400;
+
+    private BookingService bookingService;
+    private BookingRequestDto validRequest;
+    private LocalDateTime validEnd;
+    private BookingRequestDto shortRequest;
+    private LocalDateTime shortEnd;
+    private StationInfoDto.PortInfo portInfo;
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        bookingService = newBookingService();
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        validRequest = new BookingRequestDto(1L, 1L, start, 90);
+        validEnd = start.plusMinutes(90);
+        // 15 minutes, rejected by the minimum duration rule
+        shortRequest = new BookingRequestDto(1L, 1L, start, 15);
+        shortEnd = start.plusMinutes(15);
+
+        portInfo = new StationInfoDto.PortInfo(1L, 1L, "CCS2", 60.0, 12.5);
+        booking = SyntheticBookings.bookings(1, 1).get(0);
+    }
+
+    private static BookingService newBookingService() {
+        return BenchmarkServices.bookingService(new StubExternalService(PORTS), new BookingMapperImpl(),
+                new SlotReservationService(null, null, null, 15));
+    }
+
+    @Benchmark
+    public LocalDateTime validateBookingRequest() {
+        bookingService.validateBookingRequest(validRequest, 7L, validEnd);
+        return validEnd;
+    }
+
+    @Benchmark
+    public String validateBookingRequestRejected() {
+        try {
+            bookingService.validateBookingRequest(shortRequest, 7L, shortEnd);
+            return null;
+        } catch (BookingException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public double calculateBookingCost() {
+        return bookingService.calculateBookingCost(portInfo, 1L, 1L, validRequest.getDuration());
+    }
+
+    @Benchmark
+    public BookingResponseDto convertToResponseDto() {
+        return bookingService.convertToResponseDto(booking);
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> convertToResponseDtos(Page page) {
+        return bookingService.convertToResponseDtos(page.bookings);
+    }
+
+    /**
+     * A page of bookings spread over PORTS ports, as the list endpoints convert them
+     */
+    @State(Scope.Benchmark)
+    public static class Page {
+
+        @Param({"10", "100", "500"})
+        public int size;
+
+        List<Booking> bookings;
+
+        @Setup
+        public void setUp() {
+            int perPort = (size + PORTS - 1) / PORTS;
+            List<Booking> all = SyntheticBookings.bookings(PORTS, perPort);
+            // round-robin over the ports, so a page touches min(size, PORTS) of them
+            bookings = IntStream.range(0, size)
+                    .mapToObj(i -> all.get((i % PORTS) * perPort + i / PORTS))
+                    .toList();
+        }
+    }
+}
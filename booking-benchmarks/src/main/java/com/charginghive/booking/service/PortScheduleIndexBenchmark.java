@@ -0,0 +1,78 @@
+package com.charginghive.booking.service;
+
+import com.charginghive.booking.benchmark.SyntheticBookings;
+import com.charginghive.booking.entity.Booking;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overlap check behind BookingService.isPortBooked, against a PortScheduleIndex
+ * filled with synthetic BOOKED intervals. Queries are random 30-120 minute windows
+ * across the booked span of a random port, so roughly half of them collide.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PortScheduleIndexBenchmark {
+
+    private static final int PORTS = 100;
+    private static final int QUERIES = 4096;
+
+    @Param({"10", "100", "1000"})
+    public int bookingsPerPort;
+
+    private PortScheduleIndex index;
+    private long[] queryPorts;
+    private LocalDateTime[] queryStarts;
+    private LocalDateTime[] queryEnds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        // no transaction is active, so update() applies straight away and the repository is never used
+        index = new PortScheduleIndex(null);
+        List<Booking> bookings = SyntheticBookings.bookings(PORTS, bookingsPerPort);
+        bookings.forEach(index::update);
+
+        // each port's bookings average ~105 minutes including the gap before them
+        long spanMinutes = bookingsPerPort * 105L;
+        SplittableRandom random = new SplittableRandom(7);
+        queryPorts = new long[QUERIES];
+        queryStarts = new LocalDateTime[QUERIES];
+        queryEnds = new LocalDateTime[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queryPorts[i] = random.nextLong(1, PORTS + 1);
+            queryStarts[i] = SyntheticBookings.EPOCH.plusMinutes(random.nextLong(spanMinutes));
+            queryEnds[i] = queryStarts[i].plusMinutes(random.nextInt(30, 121));
+        }
+    }
+
+    @Benchmark
+    public boolean isPortAvailable() {
+        int i = next++ & (QUERIES - 1);
+        return index.isPortAvailable(queryPorts[i], queryStarts[i], queryEnds[i]);
+    }
+
+    @Benchmark
+    public int findOverlappingBookings() {
+        int i = next++ & (QUERIES - 1);
+        return index.findOverlappingBookings(queryPorts[i], queryStarts[i], queryEnds[i]).size();
+    }
+}
@@ -0,0 +1,55 @@
+package com.charginghive.booking.service;
+
+import com.charginghive.booking.benchmark.SyntheticBookings;
+import com.charginghive.booking.dto.PortRefDto;
+import com.charginghive.booking.dto.StationInfoDto;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ExternalService answering from prebuilt maps, so the benchmarks measure the
+ * booking-service side of enrichment and not the network
+ */
+class StubExternalService extends ExternalService {
+
+    private final Map<Long, StationInfoDto> stations = new HashMap<>();
+    private final Map<Long, StationInfoDto.PortInfo> ports = new HashMap<>();
+
+    StubExternalService(int portCount) {
+        super(RestClient.builder(), 1, Duration.ofMinutes(5), Duration.ofMinutes(30));
+        for (long portId = 1; portId <= portCount; portId++) {
+            long stationId = SyntheticBookings.stationOf(portId);
+            stations.computeIfAbsent(stationId, id -> new StationInfoDto(id, "Station " + id, id + " Main Street",
+                    "Pune", "MH", "411001", 18.52, 73.85, true, 1L));
+            ports.put(portId, new StationInfoDto.PortInfo(portId, stationId, "CCS2", 60.0, 12.5));
+        }
+    }
+
+    @Override
+    public StationInfoDto getStationInfo(Long stationId) {
+        return stations.get(stationId);
+    }
+
+    @Override
+    public StationInfoDto.PortInfo getPortInfo(Long stationId, Long portId) {
+        return ports.get(portId);
+    }
+
+    @Override
+    public Map<Long, StationInfoDto> getStationInfos(Collection<Long> stationIds) {
+        Map<Long, StationInfoDto> result = new HashMap<>();
+        stationIds.forEach(id -> result.put(id, stations.get(id)));
+        return result;
+    }
+
+    @Override
+    public Map<Long, StationInfoDto.PortInfo> getPortInfos(Collection<PortRefDto> portRefs) {
+        Map<Long, StationInfoDto.PortInfo> result = new HashMap<>();
+        portRefs.forEach(ref -> result.put(ref.getPortId(), ports.get(ref.getPortId())));
+        return result;
+    }
+}
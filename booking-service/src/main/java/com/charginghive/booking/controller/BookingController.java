@@ -1,22 +1,36 @@
 package com.charginghive.booking.controller;
 
+import com.charginghive.booking.dto.BookedIntervalDto;
+import com.charginghive.booking.dto.BookingPageDto;
 import com.charginghive.booking.dto.BookingRequestDto;
 import com.charginghive.booking.dto.BookingResponseDto;
 import com.charginghive.booking.dto.BookingUpdateDto;
+import com.charginghive.booking.dto.DailyEarningDto;
 import com.charginghive.booking.dto.EarningResponseDto;
 import com.charginghive.booking.entity.Status;
+import com.charginghive.booking.repository.BookingSpecifications;
+import com.charginghive.booking.service.BookingExpiryEngine;
 import com.charginghive.booking.service.BookingService;
+import com.charginghive.booking.service.EarningsLedger;
+import com.charginghive.booking.service.ExternalService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/bookings")
@@ -25,7 +39,14 @@ import java.util.List;
 @Validated
 public class BookingController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String NDJSON = "application/x-ndjson";
+
     private final BookingService bookingService;
+    private final ExternalService externalService;
+    private final BookingExpiryEngine bookingExpiryEngine;
+    private final EarningsLedger earningsLedger;
+    private final ObjectMapper objectMapper;
 
     /**
      * Create a new booking
@@ -51,8 +72,13 @@ public class BookingController {
      * Get all bookings for a user
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<BookingResponseDto>> getUserBookings(@PathVariable Long userId) {
+    public ResponseEntity<List<BookingResponseDto>> getUserBookings(@PathVariable Long userId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
         log.info("Fetching all bookings for user: {}", userId);
+        if (limit != null || cursor != null) {
+            return page(bookingService.getUserBookingsPage(userId, limit, cursor));
+        }
         List<BookingResponseDto> response = bookingService.getUserBookings(userId);
         return ResponseEntity.ok(response);
     }
@@ -62,8 +88,13 @@ public class BookingController {
      * can be accessed by admin and owner only
      */
     @GetMapping("/station/{stationId}")
-    public ResponseEntity<List<BookingResponseDto>> getStationBookings(@PathVariable Long stationId) {
+    public ResponseEntity<List<BookingResponseDto>> getStationBookings(@PathVariable Long stationId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
         log.info("Fetching all bookings for station: {}", stationId);
+        if (limit != null || cursor != null) {
+            return page(bookingService.getStationBookingsPage(stationId, limit, cursor));
+        }
         List<BookingResponseDto> response = bookingService.getStationBookings(stationId);
         return ResponseEntity.ok(response);
     }
@@ -72,8 +103,13 @@ public class BookingController {
      * Get all bookings (admin only)
      */
     @GetMapping
-    public ResponseEntity<List<BookingResponseDto>> getAllBookings() {
+    public ResponseEntity<List<BookingResponseDto>> getAllBookings(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
         log.info("Fetching all bookings");
+        if (limit != null || cursor != null) {
+            return page(bookingService.getAllBookingsPage(limit, cursor));
+        }
         List<BookingResponseDto> response = bookingService.getAllBookings();
         return ResponseEntity.ok(response);
     }
@@ -83,8 +119,13 @@ public class BookingController {
      *
      */
     @GetMapping("/admin/status/{status}")
-    public ResponseEntity<List<BookingResponseDto>> getBookingsByStatus(@PathVariable Status status) {
+    public ResponseEntity<List<BookingResponseDto>> getBookingsByStatus(@PathVariable Status status,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
         log.info("Fetching bookings with status: {}", status);
+        if (limit != null || cursor != null) {
+            return page(bookingService.getBookingsByStatusPage(status, limit, cursor));
+        }
         List<BookingResponseDto> response = bookingService.getBookingsByStatus(status);
         return ResponseEntity.ok(response);
     }
@@ -93,8 +134,13 @@ public class BookingController {
      * Get active bookings
      */
     @GetMapping("/admin/active")
-    public ResponseEntity<List<BookingResponseDto>> getActiveBookings() {
+    public ResponseEntity<List<BookingResponseDto>> getActiveBookings(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
         log.info("Fetching active bookings");
+        if (limit != null || cursor != null) {
+            return page(bookingService.getActiveBookingsPage(limit, cursor));
+        }
         List<BookingResponseDto> response = bookingService.getActiveBookings();
         return ResponseEntity.ok(response);
     }
@@ -135,8 +181,13 @@ public class BookingController {
      * Get upcoming bookings for a user
      */
     @GetMapping("/user/{userId}/upcoming")
-    public ResponseEntity<List<BookingResponseDto>> getUpcomingUserBookings(@PathVariable Long userId) {
+    public ResponseEntity<List<BookingResponseDto>> getUpcomingUserBookings(@PathVariable Long userId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
         log.info("Fetching upcoming bookings for user: {}", userId);
+        if (limit != null || cursor != null) {
+            return page(bookingService.getUpcomingUserBookingsPage(userId, limit, cursor));
+        }
         List<BookingResponseDto> response = bookingService.getUpcomingUserBookings(userId);
         return ResponseEntity.ok(response);
     }
@@ -145,8 +196,13 @@ public class BookingController {
      * Get completed bookings for a user
      */
     @GetMapping("/user/{userId}/completed")
-    public ResponseEntity<List<BookingResponseDto>> getCompletedUserBookings(@PathVariable Long userId) {
+    public ResponseEntity<List<BookingResponseDto>> getCompletedUserBookings(@PathVariable Long userId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
         log.info("Fetching completed bookings for user: {}", userId);
+        if (limit != null || cursor != null) {
+            return page(bookingService.getCompletedUserBookingsPage(userId, limit, cursor));
+        }
         List<BookingResponseDto> response = bookingService.getCompletedUserBookings(userId);
         return ResponseEntity.ok(response);
     }
@@ -157,8 +213,13 @@ public class BookingController {
     @GetMapping("/admin/date-range")
     public ResponseEntity<List<BookingResponseDto>> getBookingsInDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
         log.info("Fetching bookings between {} and {}", startDate, endDate);
+        if (limit != null || cursor != null) {
+            return page(bookingService.getBookingsInDateRangePage(startDate, endDate, limit, cursor));
+        }
         List<BookingResponseDto> response = bookingService.getBookingsInDateRange(startDate, endDate);
         return ResponseEntity.ok(response);
     }
@@ -170,12 +231,28 @@ public class BookingController {
     public ResponseEntity<List<BookingResponseDto>> getUserBookingsInDateRange(
             @PathVariable Long userId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
         log.info("Fetching bookings for user {} between {} and {}", userId, startDate, endDate);
+        if (limit != null || cursor != null) {
+            return page(bookingService.getUserBookingsInDateRangePage(userId, startDate, endDate, limit, cursor));
+        }
         List<BookingResponseDto> response = bookingService.getUserBookingsInDateRange(userId, startDate, endDate);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * BOOKED intervals of all ports of a station in a time window - used by station service
+     */
+    @GetMapping("/station/{stationId}/booked-intervals")
+    public ResponseEntity<List<BookedIntervalDto>> getBookedIntervals(
+            @PathVariable Long stationId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(bookingService.getBookedIntervals(stationId, from, to));
+    }
+
     /**
      * Check if port is available
      */
@@ -209,4 +286,135 @@ public class BookingController {
         log.info("fetching all bookings froma station and calculating totl earning!");
         return ResponseEntity.ok(bookingService.getTotalEarningForAStationById(stationId));
     }
+
+    /*
+    * per-day earnings of a station between two days (inclusive)
+    * access only by admin
+     */
+
+    @GetMapping("/admin/earnings/{stationId}/daily")
+    public ResponseEntity<List<DailyEarningDto>> getDailyEarningsForAStation(
+            @PathVariable Long stationId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("Fetching daily earnings for station {} from {} to {}", stationId, from, to);
+        return ResponseEntity.ok(bookingService.getDailyEarningsForAStation(stationId, from, to));
+    }
+
+    /*
+    * outcome of the latest earnings ledger reconciliation
+    * access only by admin
+     */
+
+    @GetMapping("/admin/earnings/reconciliation")
+    public ResponseEntity<EarningsLedger.ReconciliationRun> getLastReconciliation() {
+        EarningsLedger.ReconciliationRun run = earningsLedger.getLastReconciliation();
+        return run == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(run);
+    }
+
+    /*
+    * reconcile the earnings ledger against the bookings table now
+    * access only by admin
+     */
+
+    @PostMapping("/admin/earnings/reconciliation")
+    public ResponseEntity<EarningsLedger.ReconciliationRun> reconcileEarnings() {
+        log.info("Reconciling earnings ledger on demand");
+        return ResponseEntity.ok(earningsLedger.reconcile());
+    }
+
+    /*
+    * export bookings as newline-delimited JSON, streamed in chunks
+    * access only by admin
+     */
+
+    @GetMapping(value = "/admin/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long stationId,
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        log.info("Exporting bookings user={} station={} status={} between {} and {}", userId, stationId, status, startDate, endDate);
+        StreamingResponseBody body = out -> bookingService.streamBookings(
+                BookingSpecifications.matching(userId, stationId, status, startDate, endDate),
+                chunk -> {
+                    try {
+                        for (BookingResponseDto booking : chunk) {
+                            objectMapper.writeValue(out, booking);
+                            out.write('\n');
+                        }
+                        out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    /*
+    * booking counts per status, optionally for one station, user or start time range
+    * access only by admin
+     */
+
+    @GetMapping("/admin/statistics")
+    public ResponseEntity<BookingService.BookingStatistics> getBookingStatistics(
+            @RequestParam(required = false) Long stationId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        log.info("Fetching booking statistics station={} user={} between {} and {}", stationId, userId, startDate, endDate);
+        return ResponseEntity.ok(bookingService.getBookingStatistics(stationId, userId, startDate, endDate));
+    }
+
+    /*
+    * outcome of the latest expiry pass (rows completed, elapsed time)
+    * access only by admin
+     */
+
+    @GetMapping("/admin/expiry/last-run")
+    public ResponseEntity<BookingExpiryEngine.ExpiryRun> getLastExpiryRun() {
+        BookingExpiryEngine.ExpiryRun run = bookingExpiryEngine.getLastRun();
+        return run == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(run);
+    }
+
+    /*
+    * station/port metadata cache statistics and invalidation
+    * access only by admin
+     */
+
+    @GetMapping("/admin/cache/stats")
+    public ResponseEntity<Map<String, Map<String, Object>>> getCacheStats() {
+        return ResponseEntity.ok(externalService.getCacheStats());
+    }
+
+    @DeleteMapping("/admin/cache/stations/{stationId}")
+    public ResponseEntity<Void> evictStation(@PathVariable Long stationId) {
+        log.info("Evicting cached metadata for station: {}", stationId);
+        externalService.evictStation(stationId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/admin/cache/stations/{stationId}/ports/{portId}")
+    public ResponseEntity<Void> evictPort(@PathVariable Long stationId, @PathVariable Long portId) {
+        log.info("Evicting cached metadata for port {} of station {}", portId, stationId);
+        externalService.evictPort(stationId, portId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/admin/cache")
+    public ResponseEntity<Void> evictAll() {
+        log.info("Evicting all cached station metadata");
+        externalService.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    // keyset page: items in the body, cursor of the next page in a header
+    private ResponseEntity<List<BookingResponseDto>> page(BookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
 }
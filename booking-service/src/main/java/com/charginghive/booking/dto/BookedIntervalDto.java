@@ -0,0 +1,20 @@
+package com.charginghive.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Time a port is held by a BOOKED booking, as needed by the station availability matrix
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookedIntervalDto {
+
+    private Long portId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+}
@@ -0,0 +1,21 @@
+package com.charginghive.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DailyEarningDto {
+
+    private LocalDate day;
+    private double bookedAmount;
+    private long bookedCount;
+    private double completedAmount;
+    private long completedCount;
+}
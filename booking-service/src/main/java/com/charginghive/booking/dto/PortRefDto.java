@@ -0,0 +1,16 @@
+package com.charginghive.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * (stationId, portId) pair used for bulk port lookups against station-service
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortRefDto {
+    private Long stationId;
+    private Long portId;
+}
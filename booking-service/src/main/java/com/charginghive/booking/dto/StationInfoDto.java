@@ -24,6 +24,7 @@ public class StationInfoDto {
     @AllArgsConstructor
     public static class PortInfo {
         private Long id;
+        private Long stationId;
         private String connectorType;
         private Double maxPowerKw;
         private Double pricePerHour;
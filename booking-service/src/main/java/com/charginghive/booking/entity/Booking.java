@@ -15,7 +15,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = @Index(name = "idx_bookings_station_start", columnList = "stationId, startTime"))
 @Builder
 public class Booking {
 
@@ -0,0 +1,38 @@
+package com.charginghive.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One reserved time bucket of a port held by a BOOKED booking.
+ * The unique (port_id, slot_start) key makes the database reject a second
+ * booking for the same bucket atomically, even across service instances.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@Table(name = "slot_reservations",
+        uniqueConstraints = @UniqueConstraint(name = "uk_slot_port_start", columnNames = {"port_id", "slot_start"}),
+        indexes = @Index(name = "idx_slot_booking", columnList = "booking_id"))
+public class SlotReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "port_id", nullable = false)
+    private Long portId;
+
+    @Column(name = "slot_start", nullable = false)
+    private LocalDateTime slotStart;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+}
@@ -0,0 +1,45 @@
+package com.charginghive.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Earnings of one station for one day, bookings being attributed to the day
+ * they start on
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@Table(name = "station_daily_earnings",
+        uniqueConstraints = @UniqueConstraint(name = "uk_daily_station_day", columnNames = {"station_id", "earning_day"}))
+public class StationDailyEarnings {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "station_id", nullable = false)
+    private Long stationId;
+
+    @Column(name = "earning_day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "booked_amount", nullable = false)
+    private double bookedAmount;
+
+    @Column(name = "booked_count", nullable = false)
+    private long bookedCount;
+
+    @Column(name = "completed_amount", nullable = false)
+    private double completedAmount;
+
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+}
@@ -0,0 +1,37 @@
+package com.charginghive.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running earnings totals of one station.
+ * Amounts are moved between the BOOKED and COMPLETED columns as bookings change
+ * status, in the same transaction as the booking itself.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@Table(name = "station_earnings")
+public class StationEarnings {
+
+    @Id
+    @Column(name = "station_id")
+    private Long stationId;
+
+    @Column(name = "booked_amount", nullable = false)
+    private double bookedAmount;
+
+    @Column(name = "booked_count", nullable = false)
+    private long bookedCount;
+
+    @Column(name = "completed_amount", nullable = false)
+    private double completedAmount;
+
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+}
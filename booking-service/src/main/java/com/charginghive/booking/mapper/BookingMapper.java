@@ -0,0 +1,21 @@
+package com.charginghive.booking.mapper;
+
+import com.charginghive.booking.dto.BookingResponseDto;
+import com.charginghive.booking.entity.Booking;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Maps bookings to their response DTO
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface BookingMapper {
+
+    // station and port details are filled in from station-service afterwards
+    @Mapping(target = "stationName", ignore = true)
+    @Mapping(target = "stationAddress", ignore = true)
+    @Mapping(target = "connectorType", ignore = true)
+    @Mapping(target = "maxPowerKw", ignore = true)
+    BookingResponseDto toResponseDto(Booking booking);
+}
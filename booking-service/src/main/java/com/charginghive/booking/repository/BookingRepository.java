@@ -1,19 +1,27 @@
 package com.charginghive.booking.repository;
 
+import com.charginghive.booking.dto.BookedIntervalDto;
 import com.charginghive.booking.dto.EarningResponseDto;
 import com.charginghive.booking.entity.Booking;
 import com.charginghive.booking.entity.Status;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
     
     // Find all bookings for a specific user
     List<Booking> findByUserIdOrderByCreatedAtDesc(Long userId);
@@ -58,6 +66,14 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findOverlappingBookings(@Param("portId") Long portId, 
                                          @Param("startTime") LocalDateTime startTime, 
                                          @Param("endTime") LocalDateTime endTime);
+
+    // BOOKED intervals of every port of a station overlapping [from, to), projected straight into DTOs
+    @Query("SELECT new com.charginghive.booking.dto.BookedIntervalDto(b.portId, b.startTime, b.endTime) " +
+           "FROM Booking b WHERE b.stationId = :stationId AND b.status = 'BOOKED' " +
+           "AND b.startTime < :to AND b.endTime > :from")
+    List<BookedIntervalDto> findBookedIntervals(@Param("stationId") Long stationId,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to);
     
     // Find bookings within a date range
     @Query("SELECT b FROM Booking b WHERE b.startTime >= :startDate AND b.startTime <= :endDate " +
@@ -102,10 +118,77 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findByStatus(Status status);
 
+    // Chunk of BOOKED bookings that ended before the given time, oldest first, locked until commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id AS id, b.portId AS portId, b.stationId AS stationId, " +
+           "b.startTime AS startTime, b.totalCost AS totalCost FROM Booking b " +
+           "WHERE b.status = 'BOOKED' AND b.endTime < :now ORDER BY b.endTime, b.id")
+    List<BookingRef> findExpiredBookingRefs(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Set-based status transition, guarded by the expected current status
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :to WHERE b.id IN :ids AND b.status = :from")
+    int transitionStatus(@Param("ids") Collection<Long> ids, @Param("from") Status from, @Param("to") Status to);
+
+    @Query("SELECT MIN(b.endTime) FROM Booking b WHERE b.status = 'BOOKED'")
+    LocalDateTime findEarliestBookedEndTime();
+
+    // BOOKED bookings that do not hold slot reservations yet
+    @Query("SELECT b FROM Booking b WHERE b.status = 'BOOKED' " +
+           "AND NOT EXISTS (SELECT r.id FROM SlotReservation r WHERE r.bookingId = b.id)")
+    List<Booking> findBookedWithoutReservations();
+
     @Query("SELECT COALESCE(SUM(b.totalCost), 0) " +
             "FROM Booking b " +
             "WHERE b.stationId = :stationId AND b.status = :status")
     Double sumTotalCostByStationIdAndStatus(@Param("stationId") Long stationId,
                                             @Param("status") Status status);
 
+    // Booking counts per status, each filter applies only when given
+    @Query("SELECT b.status AS status, COUNT(b) AS count FROM Booking b " +
+           "WHERE (:stationId IS NULL OR b.stationId = :stationId) " +
+           "AND (:userId IS NULL OR b.userId = :userId) " +
+           "AND (:startDate IS NULL OR b.startTime >= :startDate) " +
+           "AND (:endDate IS NULL OR b.startTime <= :endDate) " +
+           "GROUP BY b.status")
+    List<StatusCount> countByStatus(@Param("stationId") Long stationId,
+                                    @Param("userId") Long userId,
+                                    @Param("startDate") LocalDateTime startDate,
+                                    @Param("endDate") LocalDateTime endDate);
+
+    interface StatusCount {
+        Status getStatus();
+        long getCount();
+    }
+
+    // Earned amounts per station, day and status; all stations when stationId is null
+    @Query("SELECT b.stationId AS stationId, CAST(b.startTime AS LocalDate) AS day, b.status AS status, " +
+           "COUNT(b) AS count, COALESCE(SUM(b.totalCost), 0) AS amount FROM Booking b " +
+           "WHERE b.status IN ('BOOKED', 'COMPLETED') AND (:stationId IS NULL OR b.stationId = :stationId) " +
+           "GROUP BY b.stationId, CAST(b.startTime AS LocalDate), b.status")
+    List<EarningsRow> sumEarningsByStationDayAndStatus(@Param("stationId") Long stationId);
+
+    // Earned amounts per station and status
+    @Query("SELECT b.stationId AS stationId, b.status AS status, " +
+           "COUNT(b) AS count, COALESCE(SUM(b.totalCost), 0) AS amount FROM Booking b " +
+           "WHERE b.status IN ('BOOKED', 'COMPLETED') GROUP BY b.stationId, b.status")
+    List<EarningsRow> sumEarningsByStationAndStatus();
+
+    // Minimal view of a booking used by bulk jobs
+    interface BookingRef {
+        Long getId();
+        Long getPortId();
+        Long getStationId();
+        LocalDateTime getStartTime();
+        Double getTotalCost();
+    }
+
+    // Aggregated earnings, day is null when not grouped by day
+    interface EarningsRow {
+        Long getStationId();
+        LocalDate getDay();
+        Status getStatus();
+        long getCount();
+        Double getAmount();
+    }
 }
@@ -0,0 +1,64 @@
+package com.charginghive.booking.repository;
+
+import com.charginghive.booking.entity.Booking;
+import com.charginghive.booking.entity.Status;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reusable booking filters for paginated and streamed list queries
+ */
+public final class BookingSpecifications {
+
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> all() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+
+    public static Specification<Booking> forUser(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("userId"), userId);
+    }
+
+    public static Specification<Booking> forStation(Long stationId) {
+        return (root, query, cb) -> cb.equal(root.get("stationId"), stationId);
+    }
+
+    public static Specification<Booking> withStatus(Status status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Booking> startingBetween(LocalDateTime startDate, LocalDateTime endDate) {
+        return (root, query, cb) -> cb.between(root.get("startTime"), startDate, endDate);
+    }
+
+    public static Specification<Booking> startingFrom(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("startTime"), from);
+    }
+
+    /**
+     * Combine optional filters, null arguments are ignored
+     */
+    public static Specification<Booking> matching(Long userId, Long stationId, Status status,
+                                                  LocalDateTime startDate, LocalDateTime endDate) {
+        Specification<Booking> spec = all();
+        if (userId != null) {
+            spec = spec.and(forUser(userId));
+        }
+        if (stationId != null) {
+            spec = spec.and(forStation(stationId));
+        }
+        if (status != null) {
+            spec = spec.and(withStatus(status));
+        }
+        if (startDate != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("startTime"), startDate));
+        }
+        if (endDate != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("startTime"), endDate));
+        }
+        return spec;
+    }
+}
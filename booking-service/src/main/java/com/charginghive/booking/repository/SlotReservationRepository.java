@@ -0,0 +1,19 @@
+package com.charginghive.booking.repository;
+
+import com.charginghive.booking.entity.SlotReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface SlotReservationRepository extends JpaRepository<SlotReservation, Long> {
+
+    // Release every bucket held by the given bookings
+    @Modifying
+    @Query("DELETE FROM SlotReservation r WHERE r.bookingId IN :bookingIds")
+    int deleteByBookingIdIn(@Param("bookingIds") Collection<Long> bookingIds);
+}
@@ -0,0 +1,38 @@
+package com.charginghive.booking.repository;
+
+import com.charginghive.booking.entity.StationDailyEarnings;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface StationDailyEarningsRepository extends JpaRepository<StationDailyEarnings, Long> {
+
+    List<StationDailyEarnings> findByStationIdAndDayBetweenOrderByDay(Long stationId, LocalDate from, LocalDate to);
+
+    // Atomic increment of one station day, creating the row on the day's first booking
+    @Modifying
+    @Query(value = "INSERT INTO station_daily_earnings (station_id, earning_day, booked_amount, booked_count, " +
+                   "completed_amount, completed_count) " +
+                   "VALUES (:stationId, :day, :bookedAmount, :bookedCount, :completedAmount, :completedCount) " +
+                   "ON DUPLICATE KEY UPDATE booked_amount = booked_amount + :bookedAmount, " +
+                   "booked_count = booked_count + :bookedCount, " +
+                   "completed_amount = completed_amount + :completedAmount, " +
+                   "completed_count = completed_count + :completedCount",
+           nativeQuery = true)
+    int applyDelta(@Param("stationId") Long stationId,
+                   @Param("day") LocalDate day,
+                   @Param("bookedAmount") double bookedAmount,
+                   @Param("bookedCount") long bookedCount,
+                   @Param("completedAmount") double completedAmount,
+                   @Param("completedCount") long completedCount);
+
+    @Modifying
+    @Query("DELETE FROM StationDailyEarnings e WHERE e.stationId = :stationId")
+    int deleteByStationId(@Param("stationId") Long stationId);
+}
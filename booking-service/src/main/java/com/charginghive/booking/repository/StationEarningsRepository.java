@@ -0,0 +1,27 @@
+package com.charginghive.booking.repository;
+
+import com.charginghive.booking.entity.StationEarnings;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StationEarningsRepository extends JpaRepository<StationEarnings, Long> {
+
+    // Atomic increment of a station's totals, creating the row on the station's first booking
+    @Modifying
+    @Query(value = "INSERT INTO station_earnings (station_id, booked_amount, booked_count, completed_amount, completed_count) " +
+                   "VALUES (:stationId, :bookedAmount, :bookedCount, :completedAmount, :completedCount) " +
+                   "ON DUPLICATE KEY UPDATE booked_amount = booked_amount + :bookedAmount, " +
+                   "booked_count = booked_count + :bookedCount, " +
+                   "completed_amount = completed_amount + :completedAmount, " +
+                   "completed_count = completed_count + :completedCount",
+           nativeQuery = true)
+    int applyDelta(@Param("stationId") Long stationId,
+                   @Param("bookedAmount") double bookedAmount,
+                   @Param("bookedCount") long bookedCount,
+                   @Param("completedAmount") double completedAmount,
+                   @Param("completedCount") long completedCount);
+}
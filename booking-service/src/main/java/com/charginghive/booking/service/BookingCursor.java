@@ -0,0 +1,61 @@
+package com.charginghive.booking.service;
+
+import com.charginghive.booking.exception.BookingException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque keyset cursor of the form base64url("sortProperty=isoDateTime;id=123").
+ * Clients pass it back unchanged to fetch the next page.
+ */
+final class BookingCursor {
+
+    private static final String ID = "id";
+
+    private BookingCursor() {
+    }
+
+    static String encode(ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalArgumentException("Only keyset positions can be encoded");
+        }
+        StringBuilder raw = new StringBuilder();
+        keyset.getKeys().forEach((property, value) -> {
+            if (!raw.isEmpty()) {
+                raw.append(';');
+            }
+            raw.append(property).append('=').append(value);
+        });
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ScrollPosition decode(String cursor, String sortProperty) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (String part : raw.split(";")) {
+                String[] kv = part.split("=", 2);
+                if (sortProperty.equals(kv[0])) {
+                    keys.put(sortProperty, LocalDateTime.parse(kv[1]));
+                } else if (ID.equals(kv[0])) {
+                    keys.put(ID, Long.valueOf(kv[1]));
+                }
+            }
+            if (keys.size() != 2) {
+                throw new IllegalArgumentException("cursor does not match this listing");
+            }
+            return ScrollPosition.forward(keys);
+        } catch (RuntimeException e) {
+            throw new BookingException("Invalid cursor: " + cursor);
+        }
+    }
+}
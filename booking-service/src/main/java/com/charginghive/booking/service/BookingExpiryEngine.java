@@ -0,0 +1,134 @@
+package com.charginghive.booking.service;
+
+import com.charginghive.booking.entity.Status;
+import com.charginghive.booking.repository.BookingRepository;
+import com.charginghive.booking.repository.BookingRepository.BookingRef;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Moves BOOKED bookings whose end time has passed to COMPLETED.
+ * Works in chunks of set-based UPDATE statements, each in its own transaction,
+ * and stays off the read path. The earliest known end time is tracked so a tick
+ * only touches the database when a booking is actually due.
+ */
+@Component
+@Slf4j
+public class BookingExpiryEngine {
+
+    private final BookingRepository bookingRepository;
+    private final SlotReservationService slotReservationService;
+    private final PortScheduleIndex portScheduleIndex;
+    private final EarningsLedger earningsLedger;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Duration maxIdle;
+
+    // earliest end time of a BOOKED booking, null when unknown
+    private final AtomicReference<LocalDateTime> nextDue = new AtomicReference<>();
+    private volatile LocalDateTime lastScan = LocalDateTime.MIN;
+    private volatile ExpiryRun lastRun;
+
+    public BookingExpiryEngine(BookingRepository bookingRepository,
+                               SlotReservationService slotReservationService,
+                               PortScheduleIndex portScheduleIndex,
+                               EarningsLedger earningsLedger,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${booking.expiry.chunk-size:500}") int chunkSize,
+                               @Value("${booking.expiry.max-idle:5m}") Duration maxIdle) {
+        this.bookingRepository = bookingRepository;
+        this.slotReservationService = slotReservationService;
+        this.portScheduleIndex = portScheduleIndex;
+        this.earningsLedger = earningsLedger;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Let the engine know a booking ending at the given time is BOOKED
+     */
+    public void onBooked(LocalDateTime endTime) {
+        nextDue.accumulateAndGet(endTime, (current, candidate) ->
+                current == null || candidate.isBefore(current) ? candidate : current);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.expiry.tick-ms:15000}")
+    public void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime due = nextDue.get();
+        // bookings created by other instances are picked up by the periodic full scan
+        boolean idleTooLong = lastScan.plus(maxIdle).isBefore(now);
+        if (due != null && due.isAfter(now) && !idleTooLong) {
+            return;
+        }
+        expireUntil(now);
+    }
+
+    /**
+     * Complete every BOOKED booking that ended before the given time
+     */
+    public ExpiryRun expireUntil(LocalDateTime now) {
+        long started = System.nanoTime();
+        int transitioned = 0;
+        int chunks = 0;
+        while (true) {
+            Integer updated = transactionTemplate.execute(status -> expireChunk(now));
+            if (updated == null || updated < 0) {
+                break;
+            }
+            transitioned += updated;
+            chunks++;
+        }
+        lastScan = now;
+        nextDue.set(bookingRepository.findEarliestBookedEndTime());
+
+        ExpiryRun run = new ExpiryRun(now, transitioned, chunks, Duration.ofNanos(System.nanoTime() - started).toMillis());
+        lastRun = run;
+        if (transitioned > 0) {
+            log.info("Auto-completed {} expired bookings in {} chunks ({} ms)", run.transitioned(), run.chunks(), run.elapsedMs());
+        }
+        return run;
+    }
+
+    public ExpiryRun getLastRun() {
+        return lastRun;
+    }
+
+    // returns the number of rows moved, or -1 when nothing is left to expire
+    private int expireChunk(LocalDateTime now) {
+        List<BookingRef> refs = bookingRepository.findExpiredBookingRefs(now, PageRequest.of(0, chunkSize));
+        if (refs.isEmpty()) {
+            return -1;
+        }
+        List<Long> ids = refs.stream().map(BookingRef::getId).toList();
+        int updated = bookingRepository.transitionStatus(ids, Status.BOOKED, Status.COMPLETED);
+        if (updated != ids.size()) {
+            // rows are locked by the select, so this only happens if something bypassed the lock
+            log.warn("Expected to complete {} bookings but updated {}", ids.size(), updated);
+        }
+        slotReservationService.release(ids);
+        earningsLedger.recordCompleted(refs.stream()
+                .map(ref -> new EarningsLedger.Entry(ref.getStationId(), ref.getStartTime().toLocalDate(),
+                        ref.getTotalCost(), Status.COMPLETED))
+                .toList());
+        refs.forEach(ref -> portScheduleIndex.remove(ref.getPortId(), ref.getId()));
+        return updated;
+    }
+
+    /**
+     * Outcome of one expiry pass
+     */
+    public record ExpiryRun(LocalDateTime cutoff, int transitioned, int chunks, long elapsedMs) {
+    }
+}
@@ -2,22 +2,49 @@ package com.charginghive.booking.service;
 
 import com.charginghive.booking.dto.*;
 import com.charginghive.booking.entity.Booking;
+import com.charginghive.booking.entity.StationEarnings;
 import com.charginghive.booking.entity.Status;
 import com.charginghive.booking.exception.BookingException;
 import com.charginghive.booking.exception.ResourceNotFoundException;
+import com.charginghive.booking.mapper.BookingMapper;
 import com.charginghive.booking.repository.BookingRepository;
+import com.charginghive.booking.repository.BookingSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.io.Console;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,7 +55,27 @@ public class BookingService {
 
     private final BookingRepository bookingRepository;
     private final ExternalService externalService;
-    private final ModelMapper modelMapper;
+    private final BookingMapper bookingMapper;
+    private final PortScheduleIndex portScheduleIndex;
+    private final ExecutorService virtualThreadExecutor;
+    private final PortLocks portLocks;
+    private final SlotReservationService slotReservationService;
+    private final BookingExpiryEngine bookingExpiryEngine;
+    private final EarningsLedger earningsLedger;
+    private final StationAvailabilityNotifier availabilityNotifier;
+    private final EntityManager entityManager;
+
+    @Value("${booking.preflight.timeout:3s}")
+    private Duration preflightTimeout;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_CHUNK_SIZE = 500;
+    private static final int MAX_INTERVAL_WINDOW_DAYS = 31;
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+    private static final Sort SOONEST_FIRST = Sort.by(Sort.Order.asc("startTime"), Sort.Order.asc("id"));
+    private static final Sort LATEST_ENDED_FIRST = Sort.by(Sort.Order.desc("endTime"), Sort.Order.desc("id"));
 
     // Constants for pricing
 //    private static final double BASE_RATE_PER_HOUR = 2.50; // $2.50 per hour
@@ -46,14 +93,18 @@ public class BookingService {
         // Validate request
         validateBookingRequest(requestDto,userId,endTime);
 
-        // Check if port is available
+        // Fast rejection before the remote lookups
         if (isPortBooked(requestDto.getPortId(), requestDto.getStartTime(), endTime)) {
             throw new BookingException("Port is not available for the specified time range");
         }
 
+        // Validate user/station and fetch port pricing and the response details concurrently
+        PreflightResult preflight = runPreflightLookups(requestDto, userId);
+        StationInfoDto.PortInfo portInfo = preflight.portInfo();
+
         // Calculate cost
 //        double totalCost = calculateBookingCost(requestDto);
-        double totalCost = calculateBookingCost(requestDto.getStationId(),requestDto.getPortId(),requestDto.getDuration());
+        double totalCost = calculateBookingCost(portInfo, requestDto.getStationId(), requestDto.getPortId(), requestDto.getDuration());
 
         // Create booking entity
         Booking booking = Booking.builder().userId(userId).stationId(requestDto.getStationId()).
@@ -64,11 +115,25 @@ public class BookingService {
                 totalCost(totalCost).
                 status(Status.BOOKED).build();
 
-        // Save booking
+        // Serialize admission per port until commit; other ports are not blocked
+        portLocks.lockUntilCompletion(requestDto.getPortId());
+
+        // Database stays the final arbiter before the booking is written
+        if (bookingRepository.isPortBooked(requestDto.getPortId(), requestDto.getStartTime(), endTime)) {
+            throw new BookingException("Port is not available for the specified time range");
+        }
+
+        // Save booking, the unique slot keys reject a concurrent duplicate from any instance
         Booking savedBooking = bookingRepository.save(booking);
+        slotReservationService.reserve(savedBooking);
+        earningsLedger.recordTransition(null, EarningsLedger.Entry.of(savedBooking));
+        portScheduleIndex.update(savedBooking);
+        availabilityNotifier.bookingChanged(savedBooking.getStationId(), savedBooking.getStartTime(), savedBooking.getEndTime());
+        bookingExpiryEngine.onBooked(savedBooking.getEndTime());
         log.info("Booking created successfully with ID: {}", savedBooking.getId());
 
-        return convertToResponseDto(savedBooking);
+        // from the preflight lookups, so no remote call runs under the port lock
+        return toResponseDto(savedBooking, preflight.stationInfo(), portInfo);
     }
 
     /**
@@ -85,9 +150,7 @@ public class BookingService {
      */
     public List<BookingResponseDto> getUserBookings(Long userId) {
         List<Booking> bookings = bookingRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        return bookings.stream()
-                .map(this::convertToResponseDto)
-                .toList();
+        return convertToResponseDtos(bookings);
     }
 
     /**
@@ -95,21 +158,15 @@ public class BookingService {
      */
     public List<BookingResponseDto> getStationBookings(Long stationId) {
         List<Booking> bookings = bookingRepository.findByStationIdOrderByCreatedAtDesc(stationId);
-        return bookings.stream()
-                .map(this::convertToResponseDto)
-                .toList();
+        return convertToResponseDtos(bookings);
     }
 
     /**
      * Get all bookings
      */
     public List<BookingResponseDto> getAllBookings() {
-//        completeExpiredBookingsOnFetch();
-        autoCompleteExpiredBookings();
         List<Booking> bookings = bookingRepository.findAll();
-        return bookings.stream()
-                .map(this::convertToResponseDto)
-                .toList();
+        return convertToResponseDtos(bookings);
     }
 
     /**
@@ -117,9 +174,7 @@ public class BookingService {
      */
     public List<BookingResponseDto> getBookingsByStatus(Status status) {
         List<Booking> bookings = bookingRepository.findByStatusOrderByCreatedAtDesc(status);
-        return bookings.stream()
-                .map(this::convertToResponseDto)
-                .toList();
+        return convertToResponseDtos(bookings);
     }
 
     /**
@@ -127,9 +182,95 @@ public class BookingService {
      */
     public List<BookingResponseDto> getActiveBookings() {
         List<Booking> bookings = bookingRepository.findActiveBookings();
-        return bookings.stream()
-                .map(this::convertToResponseDto)
-                .toList();
+        return convertToResponseDtos(bookings);
+    }
+
+    // --- Keyset pagination (seek on (createdAt, id), (startTime, id) or (endTime, id)) ---
+
+    public BookingPageDto getUserBookingsPage(Long userId, Integer limit, String cursor) {
+        return page(BookingSpecifications.forUser(userId), NEWEST_FIRST, limit, cursor);
+    }
+
+    public BookingPageDto getStationBookingsPage(Long stationId, Integer limit, String cursor) {
+        return page(BookingSpecifications.forStation(stationId), NEWEST_FIRST, limit, cursor);
+    }
+
+    public BookingPageDto getAllBookingsPage(Integer limit, String cursor) {
+        return page(BookingSpecifications.all(), NEWEST_FIRST, limit, cursor);
+    }
+
+    public BookingPageDto getBookingsByStatusPage(Status status, Integer limit, String cursor) {
+        return page(BookingSpecifications.withStatus(status), NEWEST_FIRST, limit, cursor);
+    }
+
+    public BookingPageDto getActiveBookingsPage(Integer limit, String cursor) {
+        return page(BookingSpecifications.withStatus(Status.BOOKED), NEWEST_FIRST, limit, cursor);
+    }
+
+    public BookingPageDto getUpcomingUserBookingsPage(Long userId, Integer limit, String cursor) {
+        return page(BookingSpecifications.forUser(userId)
+                        .and(BookingSpecifications.withStatus(Status.BOOKED))
+                        .and(BookingSpecifications.startingFrom(LocalDateTime.now())),
+                SOONEST_FIRST, limit, cursor);
+    }
+
+    public BookingPageDto getCompletedUserBookingsPage(Long userId, Integer limit, String cursor) {
+        return page(BookingSpecifications.forUser(userId).and(BookingSpecifications.withStatus(Status.COMPLETED)),
+                LATEST_ENDED_FIRST, limit, cursor);
+    }
+
+    public BookingPageDto getBookingsInDateRangePage(LocalDateTime startDate, LocalDateTime endDate, Integer limit, String cursor) {
+        return page(BookingSpecifications.startingBetween(startDate, endDate), SOONEST_FIRST, limit, cursor);
+    }
+
+    public BookingPageDto getUserBookingsInDateRangePage(Long userId, LocalDateTime startDate, LocalDateTime endDate,
+                                                         Integer limit, String cursor) {
+        return page(BookingSpecifications.forUser(userId).and(BookingSpecifications.startingBetween(startDate, endDate)),
+                SOONEST_FIRST, limit, cursor);
+    }
+
+    /**
+     * Stream every booking matching the filters in chunks, oldest first.
+     * Rows are read through a forward-only cursor and detached after each chunk,
+     * so an export never holds the full result in memory.
+     */
+    public void streamBookings(Specification<Booking> spec, Consumer<List<BookingResponseDto>> chunkConsumer) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> root = query.from(Booking.class);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("createdAt")), cb.asc(root.get("id")));
+
+        try (Stream<Booking> rows = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_CHUNK_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            List<Booking> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            Iterator<Booking> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == STREAM_CHUNK_SIZE || !iterator.hasNext()) {
+                    chunkConsumer.accept(convertToResponseDtos(chunk));
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    private BookingPageDto page(Specification<Booking> spec, Sort sort, Integer limit, String cursor) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        String sortProperty = sort.iterator().next().getProperty();
+        ScrollPosition position = BookingCursor.decode(cursor, sortProperty);
+
+        Window<Booking> window = bookingRepository.findBy(spec, q -> q.sortBy(sort).limit(size).scroll(position));
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? BookingCursor.encode(window.positionAt(window.size() - 1))
+                : null;
+        return new BookingPageDto(convertToResponseDtos(window.getContent()), nextCursor);
     }
 
     /**
@@ -147,6 +288,9 @@ public class BookingService {
         if (booking.getStatus() == Status.COMPLETED) {
             throw new BookingException("Cannot update a completed booking");
         }
+        EarningsLedger.Entry before = EarningsLedger.Entry.of(booking);
+        LocalDateTime previousStart = booking.getStartTime();
+        LocalDateTime previousEnd = booking.getEndTime();
 
         // Update fields if provided
         if (updateDto.getStartTime() != null) {
@@ -167,14 +311,33 @@ public class BookingService {
 
         // Recalculate cost if time changed
         if (updateDto.getStartTime() != null || updateDto.getEndTime() != null || updateDto.getDuration() != null) {
+            validateWholeSlots(booking.getStartTime(), booking.getEndTime());
             double newCost = calculateBookingCost(booking.getStationId(),booking.getPortId(),booking.getDuration());
             booking.setTotalCost(newCost);
         }
 
+        // Remote lookups for the response run before the port lock is taken
+        StationInfoDto stationInfo = lookupStationInfo(booking.getStationId());
+        StationInfoDto.PortInfo portInfo = lookupPortInfo(booking.getStationId(), booking.getPortId());
+
+        // Serialize with admissions on the port before its slots change hands
+        if (booking.getStatus() == Status.BOOKED) {
+            portLocks.lockUntilCompletion(booking.getPortId());
+        }
         Booking updatedBooking = bookingRepository.save(booking);
+        // Re-reserve the slots for the new time range
+        slotReservationService.release(updatedBooking.getId());
+        if (updatedBooking.getStatus() == Status.BOOKED) {
+            slotReservationService.reserve(updatedBooking);
+            bookingExpiryEngine.onBooked(updatedBooking.getEndTime());
+        }
+        earningsLedger.recordTransition(before, EarningsLedger.Entry.of(updatedBooking));
+        portScheduleIndex.update(updatedBooking);
+        availabilityNotifier.bookingChanged(updatedBooking.getStationId(), previousStart, previousEnd);
+        availabilityNotifier.bookingChanged(updatedBooking.getStationId(), updatedBooking.getStartTime(), updatedBooking.getEndTime());
         log.info("Booking updated successfully with ID: {}", updatedBooking.getId());
 
-        return convertToResponseDto(updatedBooking);
+        return toResponseDto(updatedBooking, stationInfo, portInfo);
     }
 
     /**
@@ -197,8 +360,13 @@ public class BookingService {
             throw new BookingException("Cannot cancel a booking that has already started");
         }
 
+        EarningsLedger.Entry before = EarningsLedger.Entry.of(booking);
         booking.setStatus(Status.CANCELLED);
         Booking cancelledBooking = bookingRepository.save(booking);
+        slotReservationService.release(cancelledBooking.getId());
+        earningsLedger.recordTransition(before, EarningsLedger.Entry.of(cancelledBooking));
+        portScheduleIndex.update(cancelledBooking);
+        availabilityNotifier.bookingChanged(cancelledBooking.getStationId(), cancelledBooking.getStartTime(), cancelledBooking.getEndTime());
         log.info("Booking cancelled successfully with ID: {}", cancelledBooking.getId());
 
         return convertToResponseDto(cancelledBooking);
@@ -219,8 +387,13 @@ public class BookingService {
             throw new BookingException("Cannot complete a cancelled booking");
         }
 
+        EarningsLedger.Entry before = EarningsLedger.Entry.of(booking);
         booking.setStatus(Status.COMPLETED);
         Booking completedBooking = bookingRepository.save(booking);
+        slotReservationService.release(completedBooking.getId());
+        earningsLedger.recordTransition(before, EarningsLedger.Entry.of(completedBooking));
+        portScheduleIndex.update(completedBooking);
+        availabilityNotifier.bookingChanged(completedBooking.getStationId(), completedBooking.getStartTime(), completedBooking.getEndTime());
         log.info("Booking completed successfully with ID: {}", completedBooking.getId());
 
         return convertToResponseDto(completedBooking);
@@ -231,9 +404,7 @@ public class BookingService {
      */
     public List<BookingResponseDto> getUpcomingUserBookings(Long userId) {
         List<Booking> bookings = bookingRepository.findUpcomingUserBookings(userId, LocalDateTime.now());
-        return bookings.stream()
-                .map(this::convertToResponseDto)
-                .toList();
+        return convertToResponseDtos(bookings);
     }
 
     /**
@@ -241,9 +412,7 @@ public class BookingService {
      */
     public List<BookingResponseDto> getCompletedUserBookings(Long userId) {
         List<Booking> bookings = bookingRepository.findCompletedUserBookings(userId);
-        return bookings.stream()
-                .map(this::convertToResponseDto)
-                .toList();
+        return convertToResponseDtos(bookings);
     }
 
     /**
@@ -251,9 +420,7 @@ public class BookingService {
      */
     public List<BookingResponseDto> getBookingsInDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         List<Booking> bookings = bookingRepository.findBookingsInDateRange(startDate, endDate);
-        return bookings.stream()
-                .map(this::convertToResponseDto)
-                .toList();
+        return convertToResponseDtos(bookings);
     }
 
     /**
@@ -261,9 +428,20 @@ public class BookingService {
      */
     public List<BookingResponseDto> getUserBookingsInDateRange(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
         List<Booking> bookings = bookingRepository.findUserBookingsInDateRange(userId, startDate, endDate);
-        return bookings.stream()
-                .map(this::convertToResponseDto)
-                .toList();
+        return convertToResponseDtos(bookings);
+    }
+
+    /**
+     * BOOKED intervals of all ports of a station overlapping [from, to), for station-service
+     */
+    public List<BookedIntervalDto> getBookedIntervals(Long stationId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BookingException("From must be before to");
+        }
+        if (Duration.between(from, to).toDays() > MAX_INTERVAL_WINDOW_DAYS) {
+            throw new BookingException("Window must not be longer than " + MAX_INTERVAL_WINDOW_DAYS + " days");
+        }
+        return bookingRepository.findBookedIntervals(stationId, from, to);
     }
 
     /**
@@ -274,9 +452,9 @@ public class BookingService {
     }
 
 
-    // Private helper methods
+    // Helper methods
 
-    private void validateBookingRequest(BookingRequestDto requestDto,Long userId,LocalDateTime endTime) {
+    void validateBookingRequest(BookingRequestDto requestDto,Long userId,LocalDateTime endTime) {
         // Validate time constraints
         if (requestDto.getStartTime().isBefore(LocalDateTime.now())) {
             throw new BookingException("Start time cannot be in the past");
@@ -306,18 +484,82 @@ public class BookingService {
             throw new BookingException("Maximum booking duration is 24 hours");
         }
 
-        // Validate user exists
-        if (!externalService.validateUserExists(userId)) {
-            throw new BookingException("User does not exist");
+        validateWholeSlots(requestDto.getStartTime(), endTime);
+    }
+
+    // bookings take whole slots, so the slot keys of bookings that do not overlap never collide
+    private void validateWholeSlots(LocalDateTime startTime, LocalDateTime endTime) {
+        if (!slotReservationService.coversWholeSlots(startTime, endTime)) {
+            long slotMinutes = slotReservationService.getSlotMinutes();
+            throw new BookingException("Bookings must start on a " + slotMinutes
+                    + "-minute slot boundary and last a multiple of " + slotMinutes + " minutes");
         }
+    }
+
+    private record PreflightResult(StationInfoDto stationInfo, StationInfoDto.PortInfo portInfo) {
+    }
 
+    /**
+     * Run the independent remote lookups of a booking request on virtual threads:
+     * user exists, station exists, port pricing and the station details of the response.
+     * They share one deadline and the first failure cancels the others, so latency is
+     * roughly the slowest single call.
+     */
+    private PreflightResult runPreflightLookups(BookingRequestDto requestDto, Long userId) {
+        CompletionService<Object> completionService = new ExecutorCompletionService<>(virtualThreadExecutor);
+        List<Future<Object>> futures = new ArrayList<>();
+        // Validate user exists
+        futures.add(completionService.submit(() -> {
+            if (!externalService.validateUserExists(userId)) {
+                throw new BookingException("User does not exist");
+            }
+            return Boolean.TRUE;
+        }));
         // Validate station exists
-        if (!externalService.validateStationExists(requestDto.getStationId())) {
-            throw new BookingException("Station does not exist");
+        futures.add(completionService.submit(() -> {
+            if (!externalService.validateStationExists(requestDto.getStationId())) {
+                throw new BookingException("Station does not exist");
+            }
+            return Boolean.TRUE;
+        }));
+        // Port information for the cost calculation
+        Future<Object> portFuture = completionService.submit(
+                () -> externalService.getPortInfo(requestDto.getStationId(), requestDto.getPortId()));
+        futures.add(portFuture);
+        // Station details for the response; optional like in convertToResponseDto
+        Future<Object> stationFuture = completionService.submit(() -> lookupStationInfo(requestDto.getStationId()));
+        futures.add(stationFuture);
+
+        long deadline = System.nanoTime() + preflightTimeout.toNanos();
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                Future<Object> done = completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    throw new BookingException("Booking validation timed out");
+                }
+                done.get();
+            }
+            return new PreflightResult((StationInfoDto) stationFuture.get(), (StationInfoDto.PortInfo) portFuture.get());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new BookingException("Booking validation failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BookingException("Booking validation was interrupted", e);
+        } finally {
+            // no-op for completed lookups, cancels the rest on failure or timeout
+            futures.forEach(f -> f.cancel(true));
         }
     }
 
+    // a free port in the index skips the query; a conflict may be stale, e.g. a booking another
+    // instance cancelled, so the database confirms it
     private boolean isPortBooked(Long portId, LocalDateTime startTime, LocalDateTime endTime) {
+        if (portScheduleIndex.isReady() && portScheduleIndex.isPortAvailable(portId, startTime, endTime)) {
+            return false;
+        }
         return bookingRepository.isPortBooked(portId, startTime, endTime);
     }
 
@@ -337,7 +579,10 @@ public class BookingService {
        private double calculateBookingCost(Long stationId, Long portId,Integer duration) {
 
            StationInfoDto.PortInfo portInfo = externalService.getPortInfo(stationId,portId);
+           return calculateBookingCost(portInfo, stationId, portId, duration);
+       }
 
+       double calculateBookingCost(StationInfoDto.PortInfo portInfo, Long stationId, Long portId, Integer duration) {
 
            if (portInfo == null || portInfo.getPricePerHour() == null) {
                log.error("Could not retrieve price information for port {} at station {}",
@@ -366,24 +611,72 @@ public class BookingService {
 //        return baseCost + powerCost;
 //    }
 
-    private BookingResponseDto convertToResponseDto(Booking booking) {
-        BookingResponseDto responseDto = modelMapper.map(booking, BookingResponseDto.class);
+    BookingResponseDto convertToResponseDto(Booking booking) {
+        return toResponseDto(booking, lookupStationInfo(booking.getStationId()), lookupPortInfo(booking.getStationId(), booking.getPortId()));
+    }
+
+    private BookingResponseDto toResponseDto(Booking booking, StationInfoDto stationInfo, StationInfoDto.PortInfo portInfo) {
+        BookingResponseDto responseDto = bookingMapper.toResponseDto(booking);
+        enrich(responseDto, stationInfo, portInfo);
+        return responseDto;
+    }
 
+    // station and port details are optional in a response, a failed lookup leaves them out
+    private StationInfoDto lookupStationInfo(Long stationId) {
         try {
-            // Add station information
-            StationInfoDto stationInfo = externalService.getStationInfo(booking.getStationId());
+            return externalService.getStationInfo(stationId);
+        } catch (Exception e) {
+            log.warn("Could not fetch station information for station: {}", stationId, e);
+            return null;
+        }
+    }
+
+    private StationInfoDto.PortInfo lookupPortInfo(Long stationId, Long portId) {
+        try {
+            return externalService.getPortInfo(stationId, portId);
+        } catch (Exception e) {
+            log.warn("Could not fetch port information for station: {} and port: {}", stationId, portId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Convert a page of bookings, resolving the distinct stations and ports
+     * with one bulk call each instead of two remote calls per row
+     */
+    List<BookingResponseDto> convertToResponseDtos(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> stationIds = new LinkedHashSet<>();
+        Set<PortRefDto> portRefs = new LinkedHashSet<>();
+        for (Booking booking : bookings) {
+            stationIds.add(booking.getStationId());
+            portRefs.add(new PortRefDto(booking.getStationId(), booking.getPortId()));
+        }
+
+        Map<Long, StationInfoDto> stations = externalService.getStationInfos(stationIds);
+        Map<Long, StationInfoDto.PortInfo> ports = externalService.getPortInfos(portRefs);
+
+        return bookings.stream()
+                .map(booking -> {
+                    BookingResponseDto responseDto = bookingMapper.toResponseDto(booking);
+                    enrich(responseDto, stations.get(booking.getStationId()), ports.get(booking.getPortId()));
+                    return responseDto;
+                })
+                .toList();
+    }
+
+    private void enrich(BookingResponseDto responseDto, StationInfoDto stationInfo, StationInfoDto.PortInfo portInfo) {
+        if (stationInfo != null) {
             responseDto.setStationName(stationInfo.getName());
             responseDto.setStationAddress(stationInfo.getAddress());
-
-            // Add port information
-            StationInfoDto.PortInfo portInfo = externalService.getPortInfo(booking.getStationId(), booking.getPortId());
+        }
+        if (portInfo != null) {
             responseDto.setConnectorType(portInfo.getConnectorType());
             responseDto.setMaxPowerKw(portInfo.getMaxPowerKw());
-        } catch (Exception e) {
-            log.warn("Could not fetch external information for booking: {}", booking.getId(), e);
         }
-
-        return responseDto;
     }
 
     public List<BookingResponseDto> getAllBookingsByUserId(Long userId) {
@@ -391,7 +684,7 @@ public class BookingService {
         try{
             responseDtos = bookingRepository.findTop10ByUserIdOrderByCreatedAtDesc(userId)
                     .stream()
-                    .map(b -> modelMapper.map(b, BookingResponseDto.class))
+                    .map(b -> bookingMapper.toResponseDto(b))
                     .toList();
         }
         catch (Exception e){
@@ -403,6 +696,26 @@ public class BookingService {
 
 
     // Statistics class
+    /**
+     * Booking counts per status computed in the database, optionally sliced by
+     * station, user and start time range
+     */
+    public BookingStatistics getBookingStatistics(Long stationId, Long userId,
+                                                  LocalDateTime startDate, LocalDateTime endDate) {
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new BookingException("Start date must be before end date");
+        }
+        Map<Status, Long> counts = new EnumMap<>(Status.class);
+        for (BookingRepository.StatusCount row : bookingRepository.countByStatus(stationId, userId, startDate, endDate)) {
+            counts.put(row.getStatus(), row.getCount());
+        }
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        return new BookingStatistics(total,
+                counts.getOrDefault(Status.BOOKED, 0L),
+                counts.getOrDefault(Status.COMPLETED, 0L),
+                counts.getOrDefault(Status.CANCELLED, 0L));
+    }
+
     public static class BookingStatistics {
         private final long totalBookings;
         private final long activeBookings;
@@ -424,53 +737,28 @@ public class BookingService {
     }
 
     /**
-     * Auto-complete expired bookings (runs every 1 minute)
+     * Earnings of a station from BOOKED bookings, read from the earnings ledger
      */
-    @Scheduled(fixedRate = 60000)
-    public void autoCompleteExpiredBookings() {
-        System.out.println("Scheduler triggered: " + LocalDateTime.now());
-        List<Booking> expiredBookings = bookingRepository
-                .findByStatusAndEndTimeBefore(Status.BOOKED, LocalDateTime.now());
-        System.out.println("Found " + expiredBookings.size() + " expired bookings");
-
-        //TO check timezone
-        LocalDateTime now = LocalDateTime.now();
-        System.out.println("Current time in app: " + now);
-
-        // For debugging: fetch all BOOKED bookings and print their endTime
-        List<Booking> bookedBookings = bookingRepository.findByStatus(Status.BOOKED);
-        bookedBookings.forEach(b -> System.out.println("Booking id=" + b.getId() + ", endTime=" + b.getEndTime()));
-
-
-        if (!expiredBookings.isEmpty()) {
-            System.out.println("changing bookied status to Completed status!");
-            expiredBookings.forEach(b -> b.setStatus(Status.COMPLETED));
-            bookingRepository.saveAll(expiredBookings);
-            log.info("Auto-completed {} expired bookings", expiredBookings.size());
-        }
+    public EarningResponseDto getTotalEarningForAStationById(Long stationId) {
+        StationEarnings earnings = earningsLedger.getStationEarnings(stationId);
+        return EarningResponseDto.builder().totalEarning(earnings.getBookedAmount()).build();
     }
 
     /**
-     * Call this before returning booking lists to ensure statuses are fresh
+     * Per-day earnings of a station between two days, both inclusive
      */
-    private void completeExpiredBookingsOnFetch() {
-        autoCompleteExpiredBookings();
-    }
-
-
-    public EarningResponseDto getTotalEarningForAStationById(Long stationId) {
-
-        EarningResponseDto earningResponseDto = null;
-        try{
-//            int count = Math.toIntExact(bookingRepository.countByStationId(stationId));
-            Double sum = bookingRepository.sumTotalCostByStationIdAndStatus(stationId, Status.BOOKED);
-//            earningResponseDto = bookingRepository.countBookingsAndSumTotalCostByStationIdAndStatus(stationId, Status.BOOKED);
-            log.info("got the total earning of booked ports: "+sum);
-            earningResponseDto = EarningResponseDto.builder().totalEarning(sum).build();
+    public List<DailyEarningDto> getDailyEarningsForAStation(Long stationId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BookingException("Start date must be before end date");
         }
-        catch (Exception e){
-            log.warn("could not fetch bookings due to invalid stationId: {}", stationId, e);
-        }
-        return earningResponseDto;
+        return earningsLedger.getDailyEarnings(stationId, from, to).stream()
+                .map(day -> DailyEarningDto.builder()
+                        .day(day.getDay())
+                        .bookedAmount(day.getBookedAmount())
+                        .bookedCount(day.getBookedCount())
+                        .completedAmount(day.getCompletedAmount())
+                        .completedCount(day.getCompletedCount())
+                        .build())
+                .toList();
     }
 }
\ No newline at end of file
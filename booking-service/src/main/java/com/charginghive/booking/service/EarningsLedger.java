@@ -0,0 +1,296 @@
+package com.charginghive.booking.service;
+
+import com.charginghive.booking.entity.Booking;
+import com.charginghive.booking.entity.StationDailyEarnings;
+import com.charginghive.booking.entity.StationEarnings;
+import com.charginghive.booking.entity.Status;
+import com.charginghive.booking.repository.BookingRepository;
+import com.charginghive.booking.repository.BookingRepository.EarningsRow;
+import com.charginghive.booking.repository.StationDailyEarningsRepository;
+import com.charginghive.booking.repository.StationEarningsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Per-station and per-day earnings kept up to date on every booking status change.
+ * Callers report transitions inside their own transaction, so the ledger commits
+ * or rolls back together with the booking. Only BOOKED and COMPLETED bookings
+ * count; a booking is attributed to the day it starts on.
+ * A periodic reconciliation compares the station totals against the raw sums.
+ */
+@Service
+@Slf4j
+public class EarningsLedger {
+
+    private static final double TOLERANCE = 0.005;
+
+    private final BookingRepository bookingRepository;
+    private final StationEarningsRepository stationEarningsRepository;
+    private final StationDailyEarningsRepository dailyEarningsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean repair;
+
+    private volatile ReconciliationRun lastReconciliation;
+
+    public EarningsLedger(BookingRepository bookingRepository,
+                          StationEarningsRepository stationEarningsRepository,
+                          StationDailyEarningsRepository dailyEarningsRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${booking.earnings.reconcile.repair:true}") boolean repair) {
+        this.bookingRepository = bookingRepository;
+        this.stationEarningsRepository = stationEarningsRepository;
+        this.dailyEarningsRepository = dailyEarningsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.repair = repair;
+    }
+
+    /**
+     * Snapshot of the fields of a booking that decide where its amount is counted
+     */
+    public record Entry(Long stationId, LocalDate day, Double amount, Status status) {
+        public static Entry of(Booking booking) {
+            LocalDate day = booking.getStartTime() == null ? null : booking.getStartTime().toLocalDate();
+            return new Entry(booking.getStationId(), day, booking.getTotalCost(), booking.getStatus());
+        }
+    }
+
+    /**
+     * Move a booking's amount from its previous state to its current one.
+     * Either side may be null for a booking that is created or removed.
+     */
+    public void recordTransition(Entry before, Entry after) {
+        Deltas deltas = new Deltas();
+        deltas.add(before, -1);
+        deltas.add(after, 1);
+        apply(deltas);
+    }
+
+    /**
+     * Record a batch of BOOKED bookings that were completed together
+     */
+    public void recordCompleted(List<Entry> completed) {
+        Deltas deltas = new Deltas();
+        for (Entry entry : completed) {
+            deltas.add(new Entry(entry.stationId(), entry.day(), entry.amount(), Status.BOOKED), -1);
+            deltas.add(new Entry(entry.stationId(), entry.day(), entry.amount(), Status.COMPLETED), 1);
+        }
+        apply(deltas);
+    }
+
+    public StationEarnings getStationEarnings(Long stationId) {
+        return stationEarningsRepository.findById(stationId)
+                .orElseGet(() -> StationEarnings.builder().stationId(stationId).build());
+    }
+
+    public List<StationDailyEarnings> getDailyEarnings(Long stationId, LocalDate from, LocalDate to) {
+        return dailyEarningsRepository.findByStationIdAndDayBetweenOrderByDay(stationId, from, to);
+    }
+
+    public ReconciliationRun getLastReconciliation() {
+        return lastReconciliation;
+    }
+
+    /**
+     * Build the ledger from the bookings table on first start
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (stationEarningsRepository.count() > 0) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        Integer stations = transactionTemplate.execute(status -> rebuild(null));
+        log.info("Earnings ledger built for {} stations in {} ms", stations, System.currentTimeMillis() - started);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.earnings.reconcile-ms:3600000}",
+            initialDelayString = "${booking.earnings.reconcile-ms:3600000}")
+    public void tick() {
+        reconcile();
+    }
+
+    /**
+     * Compare station totals with SUM(totalCost) over the bookings table and,
+     * when enabled, rebuild the rows of stations that drifted
+     */
+    public ReconciliationRun reconcile() {
+        long started = System.nanoTime();
+        Map<Long, StationEarnings> expected = new HashMap<>();
+        for (EarningsRow row : bookingRepository.sumEarningsByStationAndStatus()) {
+            StationEarnings totals = expected.computeIfAbsent(row.getStationId(),
+                    id -> StationEarnings.builder().stationId(id).build());
+            add(totals, row.getStatus(), amountOf(row), row.getCount());
+        }
+        Map<Long, StationEarnings> actual = new HashMap<>();
+        stationEarningsRepository.findAll().forEach(totals -> actual.put(totals.getStationId(), totals));
+
+        Set<Long> stationIds = new HashSet<>(expected.keySet());
+        stationIds.addAll(actual.keySet());
+        List<Long> drifted = new ArrayList<>();
+        for (Long stationId : stationIds) {
+            StationEarnings want = expected.getOrDefault(stationId, StationEarnings.builder().stationId(stationId).build());
+            StationEarnings have = actual.getOrDefault(stationId, StationEarnings.builder().stationId(stationId).build());
+            if (!matches(want, have)) {
+                log.warn("Earnings ledger drift for station {}: ledger booked={}/{} completed={}/{}, bookings booked={}/{} completed={}/{}",
+                        stationId, have.getBookedAmount(), have.getBookedCount(), have.getCompletedAmount(), have.getCompletedCount(),
+                        want.getBookedAmount(), want.getBookedCount(), want.getCompletedAmount(), want.getCompletedCount());
+                drifted.add(stationId);
+            }
+        }
+        if (repair) {
+            // drift seen here may be a booking committed between the two reads, rebuilding from the table is safe either way
+            drifted.forEach(stationId -> transactionTemplate.executeWithoutResult(status -> rebuild(stationId)));
+        }
+
+        ReconciliationRun run = new ReconciliationRun(LocalDateTime.now(), stationIds.size(), drifted.size(),
+                repair ? drifted.size() : 0, Duration.ofNanos(System.nanoTime() - started).toMillis());
+        lastReconciliation = run;
+        log.info("Earnings ledger reconciled {} stations, {} drifted ({} ms)", run.stations(), run.drifted(), run.elapsedMs());
+        return run;
+    }
+
+    // replace the ledger rows of one station, or of all stations when stationId is null
+    private int rebuild(Long stationId) {
+        if (stationId == null) {
+            dailyEarningsRepository.deleteAllInBatch();
+            stationEarningsRepository.deleteAllInBatch();
+        } else {
+            dailyEarningsRepository.deleteByStationId(stationId);
+            stationEarningsRepository.deleteById(stationId);
+            stationEarningsRepository.flush();
+        }
+        Map<Long, StationEarnings> totals = new LinkedHashMap<>();
+        Map<DayKey, StationDailyEarnings> days = new LinkedHashMap<>();
+        for (EarningsRow row : bookingRepository.sumEarningsByStationDayAndStatus(stationId)) {
+            double amount = amountOf(row);
+            add(totals.computeIfAbsent(row.getStationId(), id -> StationEarnings.builder().stationId(id).build()),
+                    row.getStatus(), amount, row.getCount());
+            StationDailyEarnings day = days.computeIfAbsent(new DayKey(row.getStationId(), row.getDay()),
+                    key -> StationDailyEarnings.builder().stationId(key.stationId()).day(key.day()).build());
+            switch (row.getStatus()) {
+                case BOOKED -> {
+                    day.setBookedAmount(day.getBookedAmount() + amount);
+                    day.setBookedCount(day.getBookedCount() + row.getCount());
+                }
+                case COMPLETED -> {
+                    day.setCompletedAmount(day.getCompletedAmount() + amount);
+                    day.setCompletedCount(day.getCompletedCount() + row.getCount());
+                }
+                default -> { }
+            }
+        }
+        stationEarningsRepository.saveAll(totals.values());
+        dailyEarningsRepository.saveAll(days.values());
+        return totals.size();
+    }
+
+    // upserts, so the first booking of a station or day creates its row in the booking's own transaction
+    private void apply(Deltas deltas) {
+        deltas.stations.forEach((stationId, delta) -> {
+            if (!delta.isZero()) {
+                stationEarningsRepository.applyDelta(stationId, delta.bookedAmount, delta.bookedCount,
+                        delta.completedAmount, delta.completedCount);
+            }
+        });
+        deltas.days.forEach((key, delta) -> {
+            if (!delta.isZero()) {
+                dailyEarningsRepository.applyDelta(key.stationId(), key.day(), delta.bookedAmount, delta.bookedCount,
+                        delta.completedAmount, delta.completedCount);
+            }
+        });
+    }
+
+    private static void add(StationEarnings totals, Status status, double amount, long count) {
+        switch (status) {
+            case BOOKED -> {
+                totals.setBookedAmount(totals.getBookedAmount() + amount);
+                totals.setBookedCount(totals.getBookedCount() + count);
+            }
+            case COMPLETED -> {
+                totals.setCompletedAmount(totals.getCompletedAmount() + amount);
+                totals.setCompletedCount(totals.getCompletedCount() + count);
+            }
+            default -> { }
+        }
+    }
+
+    private static boolean matches(StationEarnings want, StationEarnings have) {
+        return want.getBookedCount() == have.getBookedCount()
+                && want.getCompletedCount() == have.getCompletedCount()
+                && Math.abs(want.getBookedAmount() - have.getBookedAmount()) < TOLERANCE
+                && Math.abs(want.getCompletedAmount() - have.getCompletedAmount()) < TOLERANCE;
+    }
+
+    private static double amountOf(EarningsRow row) {
+        return row.getAmount() == null ? 0.0 : row.getAmount();
+    }
+
+    private record DayKey(Long stationId, LocalDate day) {
+    }
+
+    /**
+     * Changes collected per station and per station day before they are written
+     */
+    private static final class Deltas {
+
+        private final Map<Long, Delta> stations = new LinkedHashMap<>();
+        private final Map<DayKey, Delta> days = new LinkedHashMap<>();
+
+        void add(Entry entry, int sign) {
+            if (entry == null || entry.stationId() == null || entry.day() == null) {
+                return;
+            }
+            if (entry.status() != Status.BOOKED && entry.status() != Status.COMPLETED) {
+                return;
+            }
+            double amount = Objects.requireNonNullElse(entry.amount(), 0.0) * sign;
+            stations.computeIfAbsent(entry.stationId(), id -> new Delta()).add(entry.status(), amount, sign);
+            days.computeIfAbsent(new DayKey(entry.stationId(), entry.day()), key -> new Delta()).add(entry.status(), amount, sign);
+        }
+    }
+
+    private static final class Delta {
+        private double bookedAmount;
+        private long bookedCount;
+        private double completedAmount;
+        private long completedCount;
+
+        void add(Status status, double amount, long count) {
+            if (status == Status.BOOKED) {
+                bookedAmount += amount;
+                bookedCount += count;
+            } else {
+                completedAmount += amount;
+                completedCount += count;
+            }
+        }
+
+        boolean isZero() {
+            return bookedCount == 0 && completedCount == 0 && bookedAmount == 0 && completedAmount == 0;
+        }
+    }
+
+    /**
+     * Outcome of one reconciliation pass
+     */
+    public record ReconciliationRun(LocalDateTime checkedAt, int stations, int drifted, int repaired, long elapsedMs) {
+    }
+}
@@ -1,8 +1,13 @@
 package com.charginghive.booking.service;
 
+import com.charginghive.booking.dto.PortRefDto;
 import com.charginghive.booking.dto.StationInfoDto;
 import com.charginghive.booking.dto.UserInfoDto;
 import com.charginghive.booking.exception.BookingException;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
@@ -12,19 +17,147 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Service
 @Slf4j
 public class ExternalService {
 
+    private static final int MAX_LOOKUP_SIZE = 1000;
+
     private final RestClient stationClient;
     private final RestClient userClient;
-    public ExternalService(RestClient.Builder restClientBuilder) {
+
+    // station names and port prices rarely change, so they are served from a local cache;
+    // entries older than refresh-after are returned as-is while a reload runs in the background
+    private final LoadingCache<Long, StationInfoDto> stationCache;
+    private final LoadingCache<PortRefDto, StationInfoDto.PortInfo> portCache;
+
+    public ExternalService(RestClient.Builder restClientBuilder,
+                           @Value("${booking.cache.station.max-size:10000}") long maxSize,
+                           @Value("${booking.cache.station.refresh-after:5m}") Duration refreshAfter,
+                           @Value("${booking.cache.station.expire-after:30m}") Duration expireAfter) {
         this.userClient = restClientBuilder.baseUrl("http://AUTH-SERVICE").build();
         this.stationClient = restClientBuilder.baseUrl("http://STATION-SERVICE").build();
+        this.stationCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(refreshAfter)
+                .expireAfterWrite(expireAfter)
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public StationInfoDto load(Long stationId) {
+                        return fetchStationInfo(stationId);
+                    }
+
+                    @Override
+                    public Map<Long, StationInfoDto> loadAll(Set<? extends Long> stationIds) {
+                        return fetchStationInfos(stationIds);
+                    }
+                });
+        this.portCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(refreshAfter)
+                .expireAfterWrite(expireAfter)
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public StationInfoDto.PortInfo load(PortRefDto ref) {
+                        return fetchPortInfo(ref.getStationId(), ref.getPortId());
+                    }
+
+                    @Override
+                    public Map<PortRefDto, StationInfoDto.PortInfo> loadAll(Set<? extends PortRefDto> refs) {
+                        return fetchPortInfos(refs);
+                    }
+                });
     }
 
-    
     public StationInfoDto getStationInfo(Long stationId) {
+        return stationCache.get(stationId);
+    }
+
+    public StationInfoDto.PortInfo getPortInfo(Long stationId, Long portId) {
+        return portCache.get(new PortRefDto(stationId, portId));
+    }
+
+    /**
+     * Resolve many stations, keyed by station id.
+     * Cached entries are served locally and the rest are fetched with bulk calls of at
+     * most MAX_LOOKUP_SIZE ids, one at a time when a bulk call fails; unknown ids are
+     * simply absent from the result.
+     */
+    public Map<Long, StationInfoDto> getStationInfos(Collection<Long> stationIds) {
+        if (stationIds.isEmpty()) {
+            return Map.of();
+        }
+        return stationCache.getAll(stationIds);
+    }
+
+    /**
+     * Resolve many ports, keyed by port id.
+     * Cached entries are served locally and the rest are fetched with bulk calls of at
+     * most MAX_LOOKUP_SIZE ports, one at a time when a bulk call fails; ports that do not
+     * belong to the requested station are absent from the result.
+     */
+    public Map<Long, StationInfoDto.PortInfo> getPortInfos(Collection<PortRefDto> portRefs) {
+        if (portRefs.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, StationInfoDto.PortInfo> result = new HashMap<>();
+        portCache.getAll(portRefs).forEach((ref, port) -> result.put(ref.getPortId(), port));
+        return result;
+    }
+
+    /**
+     * Drop a station and all of its ports from the local cache
+     */
+    public void evictStation(Long stationId) {
+        stationCache.invalidate(stationId);
+        portCache.asMap().keySet().removeIf(ref -> stationId.equals(ref.getStationId()));
+    }
+
+    /**
+     * Drop a single port from the local cache
+     */
+    public void evictPort(Long stationId, Long portId) {
+        portCache.invalidate(new PortRefDto(stationId, portId));
+    }
+
+    public void evictAll() {
+        stationCache.invalidateAll();
+        portCache.invalidateAll();
+    }
+
+    /**
+     * Hit/miss/eviction counters of the station and port caches
+     */
+    public Map<String, Map<String, Object>> getCacheStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        stats.put("stations", toMap(stationCache.stats(), stationCache.estimatedSize()));
+        stats.put("ports", toMap(portCache.stats(), portCache.estimatedSize()));
+        return stats;
+    }
+
+    private Map<String, Object> toMap(CacheStats cacheStats, long size) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("size", size);
+        map.put("hitCount", cacheStats.hitCount());
+        map.put("missCount", cacheStats.missCount());
+        map.put("hitRate", cacheStats.hitRate());
+        map.put("evictionCount", cacheStats.evictionCount());
+        map.put("loadFailureCount", cacheStats.loadFailureCount());
+        map.put("averageLoadPenaltyMs", cacheStats.averageLoadPenalty() / 1_000_000.0);
+        return map;
+    }
+
+    private StationInfoDto fetchStationInfo(Long stationId) {
         try {
             String url = "/stations/" + stationId;
             StationInfoDto stationInfo = stationClient.get().uri(url)
@@ -39,8 +172,8 @@ public class ExternalService {
             throw new BookingException("Failed to fetch station information: " + e.getMessage());
         }
     }
-    
-    public StationInfoDto.PortInfo getPortInfo(Long stationId, Long portId) {
+
+    private StationInfoDto.PortInfo fetchPortInfo(Long stationId, Long portId) {
         try {
             String url = "/stations/" + stationId + "/ports/" + portId;
             StationInfoDto.PortInfo portInfo = stationClient.get().uri(url)
@@ -55,7 +188,67 @@ public class ExternalService {
             throw new BookingException("Failed to fetch port information: " + e.getMessage());
         }
     }
-    
+
+    private Map<Long, StationInfoDto> fetchStationInfos(Collection<? extends Long> stationIds) {
+        Map<Long, StationInfoDto> result = new HashMap<>();
+        List<? extends Long> ids = List.copyOf(stationIds);
+        // station-service rejects lookups of more than MAX_LOOKUP_SIZE ids
+        for (int i = 0; i < ids.size(); i += MAX_LOOKUP_SIZE) {
+            List<? extends Long> batch = ids.subList(i, Math.min(i + MAX_LOOKUP_SIZE, ids.size()));
+            try {
+                StationInfoDto[] stations = stationClient.post().uri("/stations/lookup")
+                        .body(batch)
+                        .retrieve()
+                        .body(StationInfoDto[].class);
+                if (stations != null) {
+                    for (StationInfoDto station : stations) {
+                        result.put(station.getId(), station);
+                    }
+                }
+            } catch (Exception e) {
+                // e.g. a station-service without the lookup endpoints
+                log.warn("Bulk station lookup of {} ids failed, fetching them one by one: {}", batch.size(), e.getMessage());
+                for (Long stationId : batch) {
+                    try {
+                        result.put(stationId, fetchStationInfo(stationId));
+                    } catch (BookingException ignored) {
+                        // already logged, the station stays absent
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private Map<PortRefDto, StationInfoDto.PortInfo> fetchPortInfos(Collection<? extends PortRefDto> portRefs) {
+        Map<PortRefDto, StationInfoDto.PortInfo> result = new HashMap<>();
+        List<? extends PortRefDto> refs = List.copyOf(portRefs);
+        for (int i = 0; i < refs.size(); i += MAX_LOOKUP_SIZE) {
+            List<? extends PortRefDto> batch = refs.subList(i, Math.min(i + MAX_LOOKUP_SIZE, refs.size()));
+            try {
+                StationInfoDto.PortInfo[] ports = stationClient.post().uri("/stations/ports/lookup")
+                        .body(batch)
+                        .retrieve()
+                        .body(StationInfoDto.PortInfo[].class);
+                if (ports != null) {
+                    for (StationInfoDto.PortInfo port : ports) {
+                        result.put(new PortRefDto(port.getStationId(), port.getId()), port);
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("Bulk port lookup of {} ports failed, fetching them one by one: {}", batch.size(), e.getMessage());
+                for (PortRefDto ref : batch) {
+                    try {
+                        result.put(ref, fetchPortInfo(ref.getStationId(), ref.getPortId()));
+                    } catch (BookingException ignored) {
+                        // already logged, the port stays absent
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
     public UserInfoDto getUserInfo(Long userId) {
         try {
             String url = "/api/users/" + userId;
@@ -86,6 +279,10 @@ public class ExternalService {
     }
     
     public boolean validateStationExists(Long stationId) {
+        // a cached station is known to exist
+        if (stationCache.getIfPresent(stationId) != null) {
+            return true;
+        }
         try {
             String url = "/stations/" + stationId + "/exists";
             Boolean exists = stationClient.get().uri(url)
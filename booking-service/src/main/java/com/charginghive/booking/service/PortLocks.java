@@ -0,0 +1,66 @@
+package com.charginghive.booking.service;
+
+import com.charginghive.booking.exception.BookingException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped per-port locks serializing booking admission for the same port
+ * inside this instance, while different ports proceed in parallel.
+ */
+@Component
+public class PortLocks {
+
+    private final ReentrantLock[] stripes;
+    private final long waitMillis;
+
+    public PortLocks(@Value("${booking.port-locks.stripes:0}") int stripes,
+                     @Value("${booking.port-locks.wait:2s}") Duration wait) {
+        int size = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors() * 16;
+        // power of two so the stripe can be picked with a mask
+        int capacity = Integer.highestOneBit(Math.max(size - 1, 1)) << 1;
+        this.stripes = new ReentrantLock[capacity];
+        for (int i = 0; i < capacity; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.waitMillis = wait.toMillis();
+    }
+
+    /**
+     * Lock the stripe of a port until the surrounding transaction completes,
+     * so the lock covers the availability check, the insert and the commit
+     */
+    public void lockUntilCompletion(Long portId) {
+        ReentrantLock lock = stripeFor(portId);
+        try {
+            if (!lock.tryLock(waitMillis, TimeUnit.MILLISECONDS)) {
+                throw new BookingException("Port is busy, please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BookingException("Interrupted while waiting for port " + portId, e);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lock.unlock();
+            throw new IllegalStateException("Port locks must be taken inside a transaction");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private ReentrantLock stripeFor(Long portId) {
+        int h = portId.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & (stripes.length - 1)];
+    }
+}
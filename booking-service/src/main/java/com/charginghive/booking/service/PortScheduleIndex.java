@@ -0,0 +1,210 @@
+package com.charginghive.booking.service;
+
+import com.charginghive.booking.entity.Booking;
+import com.charginghive.booking.entity.Status;
+import com.charginghive.booking.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory index of BOOKED intervals per port.
+ * Answers overlap checks without a database round trip; the database stays the
+ * final arbiter when a booking is written. Changes made inside a transaction are
+ * applied only after it commits so a rolled back booking never shows up here.
+ * Only this instance's writes reach the index between the periodic reloads, so a
+ * conflict it reports may be stale and must be confirmed against the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PortScheduleIndex {
+
+    private final BookingRepository bookingRepository;
+
+    private volatile Map<Long, PortTimeline> timelines = new ConcurrentHashMap<>();
+
+    // changes committed while a load runs, replayed onto the loaded map before it is swapped in;
+    // null when no load is running, guarded by this
+    private List<Consumer<Map<Long, PortTimeline>>> pending;
+
+    private volatile boolean ready = false;
+
+    /**
+     * Load all BOOKED bookings once the application is up; repeated periodically to
+     * pick up writes made by other instances
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${booking.schedule-index.refresh-ms:300000}",
+            initialDelayString = "${booking.schedule-index.refresh-ms:300000}")
+    public void load() {
+        long started = System.currentTimeMillis();
+        // start recording before the query so a change the query misses is replayed
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+        Map<Long, PortTimeline> loaded = new ConcurrentHashMap<>();
+        List<Booking> booked;
+        try {
+            booked = bookingRepository.findByStatus(Status.BOOKED);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pending = null;
+            }
+            throw e;
+        }
+        booked.forEach(booking -> put(loaded, BookedSlot.of(booking)));
+        synchronized (this) {
+            pending.forEach(change -> change.accept(loaded));
+            pending = null;
+            timelines = loaded;
+        }
+        ready = true;
+        log.info("Port schedule index loaded {} bookings for {} ports in {} ms",
+                booked.size(), loaded.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Whether the index has been loaded and can be trusted for lookups
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean isPortAvailable(Long portId, LocalDateTime startTime, LocalDateTime endTime) {
+        PortTimeline timeline = timelines.get(portId);
+        return timeline == null || !timeline.overlaps(startTime, endTime);
+    }
+
+    public List<BookedSlot> findOverlappingBookings(Long portId, LocalDateTime startTime, LocalDateTime endTime) {
+        PortTimeline timeline = timelines.get(portId);
+        return timeline == null ? List.of() : timeline.overlapping(startTime, endTime);
+    }
+
+    /**
+     * Record the current state of a booking: indexed while BOOKED, dropped otherwise
+     */
+    public void update(Booking booking) {
+        BookedSlot slot = BookedSlot.of(booking);
+        boolean booked = booking.getStatus() == Status.BOOKED;
+        AfterCommit.run(() -> apply(map -> {
+            removeById(map, slot.portId(), slot.bookingId());
+            if (booked) {
+                put(map, slot);
+            }
+        }));
+    }
+
+    /**
+     * Drop a booking that left the BOOKED state through a bulk update
+     */
+    public void remove(Long portId, Long bookingId) {
+        AfterCommit.run(() -> apply(map -> removeById(map, portId, bookingId)));
+    }
+
+    private synchronized void apply(Consumer<Map<Long, PortTimeline>> change) {
+        change.accept(timelines);
+        if (pending != null) {
+            pending.add(change);
+        }
+    }
+
+    private static void put(Map<Long, PortTimeline> map, BookedSlot slot) {
+        if (slot.portId() == null || slot.startTime() == null || slot.endTime() == null) {
+            return;
+        }
+        map.computeIfAbsent(slot.portId(), id -> new PortTimeline()).add(slot);
+    }
+
+    private static void removeById(Map<Long, PortTimeline> map, Long portId, Long bookingId) {
+        PortTimeline timeline = map.get(portId);
+        if (timeline != null) {
+            timeline.remove(bookingId);
+        }
+    }
+
+    /**
+     * Compact view of an indexed booking
+     */
+    public record BookedSlot(Long bookingId, Long portId, LocalDateTime startTime, LocalDateTime endTime) {
+        static BookedSlot of(Booking booking) {
+            return new BookedSlot(booking.getId(), booking.getPortId(), booking.getStartTime(), booking.getEndTime());
+        }
+    }
+
+    /**
+     * Sorted intervals of a single port keyed by (startTime, bookingId).
+     * The longest indexed interval bounds how far back an overlap can start, so
+     * a lookup is a floor search plus a walk over the few neighbouring slots.
+     */
+    private static final class PortTimeline {
+
+        private static final Comparator<BookedSlot> ORDER = Comparator
+                .comparing(BookedSlot::startTime)
+                .thenComparing(BookedSlot::bookingId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        private final NavigableMap<BookedSlot, BookedSlot> slots = new TreeMap<>(ORDER);
+        private final Map<Long, BookedSlot> byId = new HashMap<>();
+        private Duration longest = Duration.ZERO;
+
+        synchronized void add(BookedSlot slot) {
+            BookedSlot previous = slot.bookingId() == null ? null : byId.put(slot.bookingId(), slot);
+            if (previous != null) {
+                slots.remove(previous);
+            }
+            slots.put(slot, slot);
+            Duration length = Duration.between(slot.startTime(), slot.endTime());
+            if (length.compareTo(longest) > 0) {
+                longest = length;
+            }
+        }
+
+        synchronized void remove(Long bookingId) {
+            BookedSlot slot = byId.remove(bookingId);
+            if (slot != null) {
+                slots.remove(slot);
+            }
+        }
+
+        synchronized boolean overlaps(LocalDateTime startTime, LocalDateTime endTime) {
+            for (BookedSlot slot : candidates(startTime, endTime)) {
+                if (slot.endTime().isAfter(startTime)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized List<BookedSlot> overlapping(LocalDateTime startTime, LocalDateTime endTime) {
+            List<BookedSlot> result = new ArrayList<>();
+            for (BookedSlot slot : candidates(startTime, endTime)) {
+                if (slot.endTime().isAfter(startTime)) {
+                    result.add(slot);
+                }
+            }
+            return result;
+        }
+
+        // slots starting in [startTime - longest, endTime) are the only ones that can overlap
+        private Iterable<BookedSlot> candidates(LocalDateTime startTime, LocalDateTime endTime) {
+            BookedSlot from = new BookedSlot(null, null, startTime.minus(longest), null);
+            BookedSlot to = new BookedSlot(null, null, endTime, null);
+            return slots.subMap(from, true, to, false).keySet();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.charginghive.booking.service;
+
+import com.charginghive.booking.entity.Booking;
+import com.charginghive.booking.entity.SlotReservation;
+import com.charginghive.booking.exception.BookingException;
+import com.charginghive.booking.repository.BookingRepository;
+import com.charginghive.booking.repository.SlotReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Persists the (port, time bucket) keys held by BOOKED bookings.
+ * New bookings must cover whole buckets, so two of them share a key exactly when they
+ * overlap. A booking reserves every bucket its [startTime, endTime) range touches,
+ * which keeps older unaligned bookings conflicting with everything that overlaps them.
+ */
+@Service
+@Slf4j
+public class SlotReservationService {
+
+    private final SlotReservationRepository slotReservationRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long slotMinutes;
+
+    public SlotReservationService(SlotReservationRepository slotReservationRepository,
+                                  BookingRepository bookingRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${booking.slot.minutes:15}") long slotMinutes) {
+        if (slotMinutes <= 0) {
+            throw new IllegalArgumentException("booking.slot.minutes must be positive");
+        }
+        this.slotReservationRepository = slotReservationRepository;
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.slotMinutes = slotMinutes;
+    }
+
+    public long getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    /**
+     * Whether [startTime, endTime) starts and ends on bucket boundaries
+     */
+    public boolean coversWholeSlots(LocalDateTime startTime, LocalDateTime endTime) {
+        long slotSeconds = slotMinutes * 60;
+        return startTime.getNano() == 0 && endTime.getNano() == 0
+                && Math.floorMod(startTime.toEpochSecond(ZoneOffset.UTC), slotSeconds) == 0
+                && Math.floorMod(endTime.toEpochSecond(ZoneOffset.UTC), slotSeconds) == 0;
+    }
+
+    /**
+     * Reserve all buckets of a saved booking; fails if any of them is already held
+     */
+    public void reserve(Booking booking) {
+        List<SlotReservation> reservations = new ArrayList<>();
+        for (LocalDateTime slotStart : buckets(booking.getStartTime(), booking.getEndTime())) {
+            reservations.add(SlotReservation.builder()
+                    .portId(booking.getPortId())
+                    .slotStart(slotStart)
+                    .bookingId(booking.getId())
+                    .build());
+        }
+        try {
+            slotReservationRepository.saveAllAndFlush(reservations);
+        } catch (DataIntegrityViolationException e) {
+            log.info("Slot reservation rejected for port {} between {} and {}",
+                    booking.getPortId(), booking.getStartTime(), booking.getEndTime());
+            throw new BookingException("Port is not available for the specified time range");
+        }
+    }
+
+    public void release(Long bookingId) {
+        release(List.of(bookingId));
+    }
+
+    public void release(Collection<Long> bookingIds) {
+        if (!bookingIds.isEmpty()) {
+            slotReservationRepository.deleteByBookingIdIn(bookingIds);
+        }
+    }
+
+    /**
+     * Give BOOKED bookings created before slot reservations existed their keys
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        List<Booking> missing = bookingRepository.findBookedWithoutReservations();
+        int conflicts = 0;
+        for (Booking booking : missing) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> reserve(booking));
+            } catch (BookingException e) {
+                conflicts++;
+                log.warn("Booking {} overlaps an existing reservation on port {}", booking.getId(), booking.getPortId());
+            }
+        }
+        if (!missing.isEmpty()) {
+            log.info("Backfilled slot reservations for {} bookings ({} conflicts)", missing.size() - conflicts, conflicts);
+        }
+    }
+
+    // bucket starts aligned to the epoch so every instance derives the same keys
+    private List<LocalDateTime> buckets(LocalDateTime startTime, LocalDateTime endTime) {
+        List<LocalDateTime> buckets = new ArrayList<>();
+        long startMinute = startTime.toEpochSecond(ZoneOffset.UTC) / 60;
+        long bucket = Math.floorDiv(startMinute, slotMinutes) * slotMinutes;
+        LocalDateTime slotStart = LocalDateTime.ofEpochSecond(bucket * 60, 0, ZoneOffset.UTC);
+        while (slotStart.isBefore(endTime)) {
+            buckets.add(slotStart);
+            slotStart = slotStart.plusMinutes(slotMinutes);
+        }
+        return buckets;
+    }
+}
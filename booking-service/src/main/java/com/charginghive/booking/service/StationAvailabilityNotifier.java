@@ -0,0 +1,55 @@
+package com.charginghive.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Tells station-service which (station, day) availability matrices a booking change
+ * made stale. The call is made after commit on a virtual thread and is best effort:
+ * station-service also expires its cached matrices on its own.
+ */
+@Component
+@Slf4j
+public class StationAvailabilityNotifier {
+
+    private final RestClient stationClient;
+    private final ExecutorService virtualThreadExecutor;
+
+    public StationAvailabilityNotifier(RestClient.Builder restClientBuilder, ExecutorService virtualThreadExecutor) {
+        this.stationClient = restClientBuilder.baseUrl("http://STATION-SERVICE").build();
+        this.virtualThreadExecutor = virtualThreadExecutor;
+    }
+
+    /**
+     * Record that the port occupancy of a station changed between startTime and endTime
+     */
+    public void bookingChanged(Long stationId, LocalDateTime startTime, LocalDateTime endTime) {
+        if (stationId == null || startTime == null || endTime == null) {
+            return;
+        }
+        AfterCommit.run(() -> virtualThreadExecutor.execute(() -> {
+            // a booking running past midnight touches every day it spans
+            for (LocalDate day = startTime.toLocalDate(); !day.isAfter(endTime.toLocalDate()); day = day.plusDays(1)) {
+                evict(stationId, day);
+            }
+        }));
+    }
+
+    private void evict(Long stationId, LocalDate day) {
+        try {
+            stationClient.delete()
+                    .uri(uriBuilder -> uriBuilder.path("/stations/{stationId}/availability/cache")
+                            .queryParam("date", day)
+                            .build(stationId))
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (Exception e) {
+            log.warn("Could not invalidate availability of station {} on {}: {}", stationId, day, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.charginghive.booking.service;
+
+import com.charginghive.booking.dto.BookingRequestDto;
+import com.charginghive.booking.dto.StationInfoDto;
+import com.charginghive.booking.entity.Status;
+import com.charginghive.booking.exception.BookingException;
+import com.charginghive.booking.repository.BookingRepository;
+import com.charginghive.booking.repository.SlotReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * createBooking racing on a real database: the port lock, the database check and
+ * the slot keys together must admit exactly one booking per port and time range
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingAdmissionConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final long STATION_ID = 1L;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private SlotReservationRepository slotReservationRepository;
+
+    @MockitoBean
+    private ExternalService externalService;
+
+    @MockitoBean
+    private StationAvailabilityNotifier availabilityNotifier;
+
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        when(externalService.validateUserExists(anyLong())).thenReturn(true);
+        when(externalService.validateStationExists(anyLong())).thenReturn(true);
+        when(externalService.getStationInfo(anyLong())).thenAnswer(invocation -> new StationInfoDto(
+                invocation.getArgument(0), "Station", "Main Street", "Pune", "MH", "411001", 18.52, 73.85, true, 1L));
+        when(externalService.getPortInfo(anyLong(), anyLong())).thenAnswer(invocation -> new StationInfoDto.PortInfo(
+                invocation.getArgument(1), invocation.getArgument(0), "CCS2", 60.0, 12.5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        slotReservationRepository.deleteAllInBatch();
+        bookingRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void onlyOneOfConcurrentBookingsOfTheSamePortWins() throws Exception {
+        List<Future<?>> results = race(thread -> 7L);
+
+        assertEquals(1, successes(results));
+        assertEquals(1, bookingRepository.findByStatus(Status.BOOKED).size());
+    }
+
+    @Test
+    void concurrentBookingsOfDifferentPortsAllWin() throws Exception {
+        List<Future<?>> results = race(thread -> 100L + thread);
+
+        assertEquals(THREADS, successes(results));
+        assertEquals(THREADS, bookingRepository.findByStatus(Status.BOOKED).size());
+    }
+
+    // every thread books the same hour on the port picked for it, all released at once
+    private List<Future<?>> race(LongUnaryOperator portOfThread) throws InterruptedException {
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int thread = 0; thread < THREADS; thread++) {
+                BookingRequestDto request = new BookingRequestDto(STATION_ID, portOfThread.applyAsLong(thread), start, 60);
+                long userId = 1000L + thread;
+                results.add(executor.submit(() -> {
+                    go.await();
+                    return bookingService.createBooking(request, userId);
+                }));
+            }
+            go.countDown();
+        }
+        return results;
+    }
+
+    // losers are turned away as unavailable or by the slot keys, never with another error
+    private static int successes(List<Future<?>> results) throws InterruptedException {
+        int successes = 0;
+        for (Future<?> result : results) {
+            try {
+                result.get();
+                successes++;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                assertTrue(cause instanceof BookingException || cause instanceof DataIntegrityViolationException,
+                        () -> "unexpected failure: " + cause);
+            }
+        }
+        return successes;
+    }
+}
@@ -0,0 +1,72 @@
+package com.charginghive.booking.service;
+
+import com.charginghive.booking.exception.BookingException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingCursorTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2030, 1, 15, 10, 0, 5, 123_000_000);
+
+    @Test
+    void roundTripsAKeysetPosition() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("createdAt", CREATED);
+        keys.put("id", 42L);
+
+        String cursor = BookingCursor.encode(ScrollPosition.forward(keys));
+        ScrollPosition decoded = BookingCursor.decode(cursor, "createdAt");
+
+        KeysetScrollPosition keyset = assertInstanceOf(KeysetScrollPosition.class, decoded);
+        assertEquals(keys, keyset.getKeys());
+        assertTrue(keyset.scrollsForward());
+        // safe to pass in a query string as is
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void missingCursorStartsFromTheFirstPage() {
+        assertTrue(BookingCursor.decode(null, "createdAt").isInitial());
+        assertTrue(BookingCursor.decode(" ", "createdAt").isInitial());
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertInvalid("not base64!");
+        assertInvalid(encode("createdAt=yesterday;id=1"));
+        assertInvalid(encode("createdAt=2030-01-15T10:00;id=one"));
+        assertInvalid(encode("createdAt=2030-01-15T10:00"));
+        assertInvalid(encode("id=1"));
+        assertInvalid(encode("garbage"));
+    }
+
+    @Test
+    void rejectsACursorOfAnotherListing() {
+        String cursor = encode("startTime=2030-01-15T10:00;id=1");
+        assertDoesNotThrow(() -> BookingCursor.decode(cursor, "startTime"));
+        BookingException e = assertThrows(BookingException.class, () -> BookingCursor.decode(cursor, "createdAt"));
+        assertTrue(e.getMessage().startsWith("Invalid cursor"));
+    }
+
+    @Test
+    void onlyKeysetPositionsCanBeEncoded() {
+        assertThrows(IllegalArgumentException.class, () -> BookingCursor.encode(ScrollPosition.offset(10)));
+    }
+
+    private static void assertInvalid(String cursor) {
+        assertThrows(BookingException.class, () -> BookingCursor.decode(cursor, "createdAt"), cursor);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
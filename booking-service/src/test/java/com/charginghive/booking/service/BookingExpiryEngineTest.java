@@ -0,0 +1,158 @@
+package com.charginghive.booking.service;
+
+import com.charginghive.booking.entity.Status;
+import com.charginghive.booking.repository.BookingRepository;
+import com.charginghive.booking.repository.BookingRepository.BookingRef;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BookingExpiryEngineTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 15, 10, 0);
+
+    private BookingRepository repository;
+    private SlotReservationService slotReservationService;
+    private PortScheduleIndex portScheduleIndex;
+    private EarningsLedger earningsLedger;
+    private PlatformTransactionManager transactionManager;
+    private BookingExpiryEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(BookingRepository.class);
+        slotReservationService = mock(SlotReservationService.class);
+        portScheduleIndex = mock(PortScheduleIndex.class);
+        earningsLedger = mock(EarningsLedger.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        engine = new BookingExpiryEngine(repository, slotReservationService, portScheduleIndex, earningsLedger,
+                transactionManager, 2, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void expiresInChunksEachInItsOwnTransaction() {
+        when(repository.findExpiredBookingRefs(eq(NOW), any(Pageable.class)))
+                .thenReturn(List.of(ref(1L, 7L, 3L, 10.0), ref(2L, 8L, 3L, 20.0)))
+                .thenReturn(List.of(ref(3L, 9L, 4L, 30.0)))
+                .thenReturn(List.of());
+        when(repository.transitionStatus(anyList(), eq(Status.BOOKED), eq(Status.COMPLETED)))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+        when(repository.findEarliestBookedEndTime()).thenReturn(NOW.plusHours(1));
+
+        BookingExpiryEngine.ExpiryRun run = engine.expireUntil(NOW);
+
+        assertEquals(3, run.transitioned());
+        assertEquals(2, run.chunks());
+        verify(transactionManager, times(3)).commit(any());
+        verify(repository).transitionStatus(List.of(1L, 2L), Status.BOOKED, Status.COMPLETED);
+        verify(repository).transitionStatus(List.of(3L), Status.BOOKED, Status.COMPLETED);
+        verify(slotReservationService).release(List.of(1L, 2L));
+        verify(slotReservationService).release(List.of(3L));
+        verify(portScheduleIndex).remove(7L, 1L);
+        verify(portScheduleIndex).remove(8L, 2L);
+        verify(portScheduleIndex).remove(9L, 3L);
+        assertSame(run, engine.getLastRun());
+    }
+
+    @Test
+    void completedBookingsMoveTheirAmountInTheLedger() {
+        when(repository.findExpiredBookingRefs(eq(NOW), any(Pageable.class)))
+                .thenReturn(List.of(ref(1L, 7L, 3L, 10.0)))
+                .thenReturn(List.of());
+        when(repository.transitionStatus(anyList(), any(), any())).thenReturn(1);
+
+        engine.expireUntil(NOW);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<EarningsLedger.Entry>> completed = ArgumentCaptor.forClass(List.class);
+        verify(earningsLedger).recordCompleted(completed.capture());
+        assertEquals(List.of(new EarningsLedger.Entry(3L, NOW.minusHours(2).toLocalDate(), 10.0, Status.COMPLETED)),
+                completed.getValue());
+        // the rows move before the side effects of the same chunk
+        InOrder order = inOrder(repository, slotReservationService, portScheduleIndex);
+        order.verify(repository).transitionStatus(List.of(1L), Status.BOOKED, Status.COMPLETED);
+        order.verify(slotReservationService).release(List.of(1L));
+        order.verify(portScheduleIndex).remove(7L, 1L);
+    }
+
+    @Test
+    void tickSkipsTheDatabaseUntilABookingIsDue() {
+        when(repository.findExpiredBookingRefs(any(), any(Pageable.class))).thenReturn(List.of());
+        when(repository.findEarliestBookedEndTime()).thenReturn(LocalDateTime.now().plusHours(1));
+        engine.tick();
+        verify(repository).findExpiredBookingRefs(any(), any(Pageable.class));
+
+        engine.tick();
+        verify(repository, times(1)).findExpiredBookingRefs(any(), any(Pageable.class));
+
+        // an earlier booking made on this instance brings the next pass forward
+        engine.onBooked(LocalDateTime.now().minusSeconds(1));
+        engine.tick();
+        verify(repository, times(2)).findExpiredBookingRefs(any(), any(Pageable.class));
+    }
+
+    @Test
+    void tickScansWhenIdleForTooLong() {
+        engine = new BookingExpiryEngine(repository, slotReservationService, portScheduleIndex, earningsLedger,
+                transactionManager, 2, Duration.ZERO);
+        when(repository.findExpiredBookingRefs(any(), any(Pageable.class))).thenReturn(List.of());
+        when(repository.findEarliestBookedEndTime()).thenReturn(LocalDateTime.now().plusHours(1));
+        engine.tick();
+        engine.tick();
+        verify(repository, times(2)).findExpiredBookingRefs(any(), any(Pageable.class));
+    }
+
+    @Test
+    void onBookedKeepsTheEarliestEndTime() {
+        when(repository.findExpiredBookingRefs(any(), any(Pageable.class))).thenReturn(List.of());
+        when(repository.findEarliestBookedEndTime()).thenReturn(null);
+        engine.tick();
+        engine.onBooked(LocalDateTime.now().plusHours(2));
+        engine.onBooked(LocalDateTime.now().minusSeconds(1));
+        engine.onBooked(LocalDateTime.now().plusHours(1));
+        engine.tick();
+        verify(repository, times(2)).findExpiredBookingRefs(any(), any(Pageable.class));
+    }
+
+    private static BookingRef ref(Long id, Long portId, Long stationId, Double totalCost) {
+        return new BookingRef() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getPortId() {
+                return portId;
+            }
+
+            @Override
+            public Long getStationId() {
+                return stationId;
+            }
+
+            @Override
+            public LocalDateTime getStartTime() {
+                return NOW.minusHours(2);
+            }
+
+            @Override
+            public Double getTotalCost() {
+                return totalCost;
+            }
+        };
+    }
+}
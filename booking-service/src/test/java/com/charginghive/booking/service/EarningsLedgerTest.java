@@ -0,0 +1,234 @@
+package com.charginghive.booking.service;
+
+import com.charginghive.booking.entity.StationDailyEarnings;
+import com.charginghive.booking.entity.StationEarnings;
+import com.charginghive.booking.entity.Status;
+import com.charginghive.booking.repository.BookingRepository;
+import com.charginghive.booking.repository.BookingRepository.EarningsRow;
+import com.charginghive.booking.repository.StationDailyEarningsRepository;
+import com.charginghive.booking.repository.StationEarningsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class EarningsLedgerTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 14);
+    private static final LocalDate TUESDAY = MONDAY.plusDays(1);
+
+    private BookingRepository bookingRepository;
+    private StationEarningsRepository stationEarningsRepository;
+    private StationDailyEarningsRepository dailyEarningsRepository;
+    private PlatformTransactionManager transactionManager;
+    private EarningsLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        stationEarningsRepository = mock(StationEarningsRepository.class);
+        dailyEarningsRepository = mock(StationDailyEarningsRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        ledger = newLedger(true);
+    }
+
+    @Test
+    void newBookingIsCountedAsBooked() {
+        ledger.recordTransition(null, entry(3L, MONDAY, 10.0, Status.BOOKED));
+        verify(stationEarningsRepository).applyDelta(3L, 10.0, 1, 0.0, 0);
+        verify(dailyEarningsRepository).applyDelta(3L, MONDAY, 10.0, 1, 0.0, 0);
+    }
+
+    @Test
+    void cancellingTakesTheAmountBack() {
+        ledger.recordTransition(entry(3L, MONDAY, 10.0, Status.BOOKED), entry(3L, MONDAY, 10.0, Status.CANCELLED));
+        verify(stationEarningsRepository).applyDelta(3L, -10.0, -1, 0.0, 0);
+        verify(dailyEarningsRepository).applyDelta(3L, MONDAY, -10.0, -1, 0.0, 0);
+    }
+
+    @Test
+    void completingMovesTheAmountBetweenColumns() {
+        ledger.recordTransition(entry(3L, MONDAY, 10.0, Status.BOOKED), entry(3L, MONDAY, 10.0, Status.COMPLETED));
+        verify(stationEarningsRepository).applyDelta(3L, -10.0, -1, 10.0, 1);
+        verify(dailyEarningsRepository).applyDelta(3L, MONDAY, -10.0, -1, 10.0, 1);
+    }
+
+    @Test
+    void movingABookingToAnotherDayLeavesTheStationTotalsAlone() {
+        ledger.recordTransition(entry(3L, MONDAY, 10.0, Status.BOOKED), entry(3L, TUESDAY, 10.0, Status.BOOKED));
+        verify(stationEarningsRepository, never()).applyDelta(anyLong(), anyDouble(), anyLong(), anyDouble(), anyLong());
+        verify(dailyEarningsRepository).applyDelta(3L, MONDAY, -10.0, -1, 0.0, 0);
+        verify(dailyEarningsRepository).applyDelta(3L, TUESDAY, 10.0, 1, 0.0, 0);
+    }
+
+    @Test
+    void repricingMovesOnlyTheDifference() {
+        ledger.recordTransition(entry(3L, MONDAY, 10.0, Status.BOOKED), entry(3L, MONDAY, 15.0, Status.BOOKED));
+        verify(stationEarningsRepository).applyDelta(3L, 5.0, 0, 0.0, 0);
+        verify(dailyEarningsRepository).applyDelta(3L, MONDAY, 5.0, 0, 0.0, 0);
+    }
+
+    @Test
+    void cancelledBookingsAreNeverCounted() {
+        ledger.recordTransition(entry(3L, MONDAY, 10.0, Status.CANCELLED), entry(3L, MONDAY, 10.0, Status.CANCELLED));
+        ledger.recordTransition(null, entry(3L, null, 10.0, Status.BOOKED));
+        verifyNoInteractions(stationEarningsRepository, dailyEarningsRepository);
+    }
+
+    @Test
+    void completedBatchIsSummedPerStationAndDay() {
+        ledger.recordCompleted(List.of(
+                entry(3L, MONDAY, 10.0, Status.COMPLETED),
+                entry(3L, MONDAY, 20.0, Status.COMPLETED),
+                entry(3L, TUESDAY, 5.0, Status.COMPLETED),
+                entry(4L, MONDAY, 1.0, Status.COMPLETED)));
+        verify(stationEarningsRepository).applyDelta(3L, -35.0, -3, 35.0, 3);
+        verify(stationEarningsRepository).applyDelta(4L, -1.0, -1, 1.0, 1);
+        verify(dailyEarningsRepository).applyDelta(3L, MONDAY, -30.0, -2, 30.0, 2);
+        verify(dailyEarningsRepository).applyDelta(3L, TUESDAY, -5.0, -1, 5.0, 1);
+        verify(dailyEarningsRepository).applyDelta(4L, MONDAY, -1.0, -1, 1.0, 1);
+    }
+
+    @Test
+    void reconciliationRebuildsOnlyDriftedStations() {
+        when(bookingRepository.sumEarningsByStationAndStatus()).thenReturn(List.of(
+                row(3L, null, Status.BOOKED, 2, 30.0),
+                row(3L, null, Status.COMPLETED, 1, 5.0),
+                row(4L, null, Status.BOOKED, 1, 10.0)));
+        when(stationEarningsRepository.findAll()).thenReturn(List.of(
+                totals(3L, 30.001, 2, 5.0, 1),
+                totals(4L, 12.0, 1, 0.0, 0),
+                totals(5L, 7.0, 1, 0.0, 0)));
+        when(bookingRepository.sumEarningsByStationDayAndStatus(4L)).thenReturn(List.of(
+                row(4L, MONDAY, Status.BOOKED, 1, 10.0)));
+        when(bookingRepository.sumEarningsByStationDayAndStatus(5L)).thenReturn(List.of());
+
+        EarningsLedger.ReconciliationRun run = ledger.reconcile();
+
+        assertEquals(3, run.stations());
+        assertEquals(2, run.drifted());
+        assertEquals(2, run.repaired());
+        verify(stationEarningsRepository, never()).deleteById(3L);
+        verify(dailyEarningsRepository).deleteByStationId(4L);
+        verify(stationEarningsRepository).deleteById(4L);
+        verify(stationEarningsRepository).deleteById(5L);
+        assertSame(run, ledger.getLastReconciliation());
+
+        assertEquals(List.of(totals(4L, 10.0, 1, 0.0, 0)), savedStations());
+    }
+
+    @Test
+    void reconciliationOnlyReportsWhenRepairIsOff() {
+        ledger = newLedger(false);
+        when(bookingRepository.sumEarningsByStationAndStatus()).thenReturn(List.of(row(3L, null, Status.BOOKED, 1, 10.0)));
+        when(stationEarningsRepository.findAll()).thenReturn(List.of());
+
+        EarningsLedger.ReconciliationRun run = ledger.reconcile();
+
+        assertEquals(1, run.drifted());
+        assertEquals(0, run.repaired());
+        verify(stationEarningsRepository, never()).deleteById(any());
+        verify(stationEarningsRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void initialBuildSplitsAmountsPerDay() {
+        when(stationEarningsRepository.count()).thenReturn(0L);
+        when(bookingRepository.sumEarningsByStationDayAndStatus(null)).thenReturn(List.of(
+                row(3L, MONDAY, Status.BOOKED, 2, 30.0),
+                row(3L, MONDAY, Status.COMPLETED, 1, 5.0),
+                row(3L, TUESDAY, Status.BOOKED, 1, 10.0)));
+
+        ledger.initialize();
+
+        verify(dailyEarningsRepository).deleteAllInBatch();
+        verify(stationEarningsRepository).deleteAllInBatch();
+        assertEquals(List.of(totals(3L, 40.0, 3, 5.0, 1)), savedStations());
+        assertEquals(List.of(
+                StationDailyEarnings.builder().stationId(3L).day(MONDAY)
+                        .bookedAmount(30.0).bookedCount(2).completedAmount(5.0).completedCount(1).build(),
+                StationDailyEarnings.builder().stationId(3L).day(TUESDAY)
+                        .bookedAmount(10.0).bookedCount(1).build()), savedDays());
+    }
+
+    @Test
+    void initialBuildSkipsAnExistingLedger() {
+        when(stationEarningsRepository.count()).thenReturn(1L);
+        ledger.initialize();
+        verify(bookingRepository, never()).sumEarningsByStationDayAndStatus(any());
+    }
+
+    // every station row passed to saveAll, in order
+    @SuppressWarnings("unchecked")
+    private List<StationEarnings> savedStations() {
+        ArgumentCaptor<Iterable<StationEarnings>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(stationEarningsRepository, atLeastOnce()).saveAll(saved.capture());
+        List<StationEarnings> rows = new ArrayList<>();
+        saved.getAllValues().forEach(batch -> batch.forEach(rows::add));
+        return rows;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<StationDailyEarnings> savedDays() {
+        ArgumentCaptor<Iterable<StationDailyEarnings>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(dailyEarningsRepository, atLeastOnce()).saveAll(saved.capture());
+        List<StationDailyEarnings> rows = new ArrayList<>();
+        saved.getAllValues().forEach(batch -> batch.forEach(rows::add));
+        return rows;
+    }
+
+    private EarningsLedger newLedger(boolean repair) {
+        return new EarningsLedger(bookingRepository, stationEarningsRepository, dailyEarningsRepository,
+                transactionManager, repair);
+    }
+
+    private static EarningsLedger.Entry entry(Long stationId, LocalDate day, Double amount, Status status) {
+        return new EarningsLedger.Entry(stationId, day, amount, status);
+    }
+
+    private static StationEarnings totals(Long stationId, double bookedAmount, long bookedCount,
+                                          double completedAmount, long completedCount) {
+        return StationEarnings.builder().stationId(stationId)
+                .bookedAmount(bookedAmount).bookedCount(bookedCount)
+                .completedAmount(completedAmount).completedCount(completedCount).build();
+    }
+
+    private static EarningsRow row(Long stationId, LocalDate day, Status status, long count, Double amount) {
+        return new EarningsRow() {
+            @Override
+            public Long getStationId() {
+                return stationId;
+            }
+
+            @Override
+            public LocalDate getDay() {
+                return day;
+            }
+
+            @Override
+            public Status getStatus() {
+                return status;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+
+            @Override
+            public Double getAmount() {
+                return amount;
+            }
+        };
+    }
+}
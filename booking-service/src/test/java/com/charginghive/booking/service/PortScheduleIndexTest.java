@@ -0,0 +1,132 @@
+package com.charginghive.booking.service;
+
+import com.charginghive.booking.entity.Booking;
+import com.charginghive.booking.entity.Status;
+import com.charginghive.booking.repository.BookingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PortScheduleIndexTest {
+
+    private static final LocalDateTime TEN = LocalDateTime.of(2030, 1, 15, 10, 0);
+
+    private BookingRepository repository;
+    private PortScheduleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(BookingRepository.class);
+        index = new PortScheduleIndex(repository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void backToBackBookingsDoNotOverlap() {
+        load(booking(1L, 7L, TEN, TEN.plusMinutes(60), Status.BOOKED));
+        assertTrue(index.isPortAvailable(7L, TEN.plusMinutes(60), TEN.plusMinutes(90)));
+        assertTrue(index.isPortAvailable(7L, TEN.minusMinutes(30), TEN));
+        assertFalse(index.isPortAvailable(7L, TEN.plusMinutes(45), TEN.plusMinutes(75)));
+        assertFalse(index.isPortAvailable(7L, TEN.minusMinutes(15), TEN.plusMinutes(15)));
+        assertFalse(index.isPortAvailable(7L, TEN.plusMinutes(15), TEN.plusMinutes(30)));
+        assertTrue(index.isPortAvailable(8L, TEN, TEN.plusMinutes(60)));
+    }
+
+    @Test
+    void longBookingsStartingWellBeforeTheQueryAreFound() {
+        load(booking(1L, 7L, TEN.minusHours(10), TEN.plusHours(2), Status.BOOKED),
+                booking(2L, 7L, TEN.minusMinutes(30), TEN, Status.BOOKED),
+                booking(3L, 7L, TEN.plusHours(3), TEN.plusHours(4), Status.BOOKED));
+        assertFalse(index.isPortAvailable(7L, TEN.plusHours(1), TEN.plusMinutes(75)));
+        assertEquals(List.of(1L), ids(index.findOverlappingBookings(7L, TEN.plusHours(1), TEN.plusMinutes(75))));
+        assertEquals(List.of(1L, 2L), ids(index.findOverlappingBookings(7L, TEN.minusMinutes(15), TEN.plusMinutes(15))));
+        assertTrue(index.isPortAvailable(7L, TEN.plusHours(2), TEN.plusHours(3)));
+    }
+
+    @Test
+    void onlyBookedBookingsAreIndexed() {
+        load(booking(1L, 7L, TEN, TEN.plusMinutes(60), Status.BOOKED));
+        index.update(booking(1L, 7L, TEN, TEN.plusMinutes(60), Status.CANCELLED));
+        assertTrue(index.isPortAvailable(7L, TEN, TEN.plusMinutes(60)));
+        index.update(booking(2L, 7L, TEN, TEN.plusMinutes(30), Status.BOOKED));
+        index.update(booking(2L, 7L, TEN.plusMinutes(60), TEN.plusMinutes(90), Status.BOOKED));
+        assertTrue(index.isPortAvailable(7L, TEN, TEN.plusMinutes(60)));
+        assertFalse(index.isPortAvailable(7L, TEN.plusMinutes(60), TEN.plusMinutes(75)));
+        index.remove(7L, 2L);
+        assertTrue(index.isPortAvailable(7L, TEN.plusMinutes(60), TEN.plusMinutes(90)));
+    }
+
+    @Test
+    void changesInsideATransactionApplyAfterCommitInOrder() {
+        load();
+        TransactionSynchronizationManager.initSynchronization();
+        index.update(booking(1L, 7L, TEN, TEN.plusMinutes(60), Status.BOOKED));
+        index.update(booking(1L, 7L, TEN, TEN.plusMinutes(60), Status.COMPLETED));
+        index.update(booking(2L, 7L, TEN.plusMinutes(60), TEN.plusMinutes(90), Status.BOOKED));
+        assertTrue(index.isPortAvailable(7L, TEN, TEN.plusMinutes(90)));
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertTrue(index.isPortAvailable(7L, TEN, TEN.plusMinutes(60)));
+        assertFalse(index.isPortAvailable(7L, TEN.plusMinutes(60), TEN.plusMinutes(90)));
+    }
+
+    @Test
+    void rolledBackChangesNeverApply() {
+        load();
+        TransactionSynchronizationManager.initSynchronization();
+        index.update(booking(1L, 7L, TEN, TEN.plusMinutes(60), Status.BOOKED));
+        TransactionSynchronizationManager.clearSynchronization();
+        assertTrue(index.isPortAvailable(7L, TEN, TEN.plusMinutes(60)));
+    }
+
+    @Test
+    void changesCommittedDuringALoadSurviveIt() {
+        Booking cancelled = booking(1L, 7L, TEN, TEN.plusMinutes(60), Status.BOOKED);
+        Booking created = booking(2L, 8L, TEN, TEN.plusMinutes(60), Status.BOOKED);
+        when(repository.findByStatus(Status.BOOKED)).thenAnswer(invocation -> {
+            // committed after the query read its rows, before the index is swapped in
+            index.remove(7L, 1L);
+            index.update(created);
+            return List.of(cancelled);
+        });
+        index.load();
+        assertTrue(index.isReady());
+        assertTrue(index.isPortAvailable(7L, TEN, TEN.plusMinutes(60)));
+        assertFalse(index.isPortAvailable(8L, TEN, TEN.plusMinutes(60)));
+    }
+
+    @Test
+    void reloadDropsBookingsChangedElsewhere() {
+        load(booking(1L, 7L, TEN, TEN.plusMinutes(60), Status.BOOKED));
+        load(booking(2L, 8L, TEN, TEN.plusMinutes(60), Status.BOOKED));
+        assertTrue(index.isPortAvailable(7L, TEN, TEN.plusMinutes(60)));
+        assertFalse(index.isPortAvailable(8L, TEN, TEN.plusMinutes(60)));
+    }
+
+    private void load(Booking... booked) {
+        when(repository.findByStatus(Status.BOOKED)).thenReturn(List.of(booked));
+        index.load();
+    }
+
+    private static List<Long> ids(List<PortScheduleIndex.BookedSlot> slots) {
+        return slots.stream().map(PortScheduleIndex.BookedSlot::bookingId).sorted().toList();
+    }
+
+    private static Booking booking(Long id, Long portId, LocalDateTime start, LocalDateTime end, Status status) {
+        return Booking.builder().id(id).portId(portId).startTime(start).endTime(end).status(status).build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.charginghive.booking.service;
+
+import com.charginghive.booking.entity.Booking;
+import com.charginghive.booking.entity.SlotReservation;
+import com.charginghive.booking.entity.Status;
+import com.charginghive.booking.exception.BookingException;
+import com.charginghive.booking.repository.SlotReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class SlotReservationServiceTest {
+
+    private static final LocalDateTime TEN = LocalDateTime.of(2030, 1, 15, 10, 0);
+
+    private SlotReservationRepository repository;
+    private SlotReservationService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(SlotReservationRepository.class);
+        service = new SlotReservationService(repository, null, null, 15);
+    }
+
+    @Test
+    void reservesEveryBucketOfAWholeSlotBooking() {
+        assertEquals(List.of(TEN, TEN.plusMinutes(15), TEN.plusMinutes(30), TEN.plusMinutes(45)),
+                reservedSlots(TEN, TEN.plusMinutes(60)));
+    }
+
+    @Test
+    void adjacentWholeSlotBookingsShareNoBucket() {
+        List<LocalDateTime> first = reservedSlots(TEN, TEN.plusMinutes(30));
+        List<LocalDateTime> second = reservedSlots(TEN.plusMinutes(30), TEN.plusMinutes(60));
+        assertTrue(Collections.disjoint(first, second));
+    }
+
+    @Test
+    void unalignedBookingReservesEveryBucketItTouches() {
+        assertEquals(List.of(TEN, TEN.plusMinutes(15), TEN.plusMinutes(30)),
+                reservedSlots(TEN.plusMinutes(5), TEN.plusMinutes(35)));
+    }
+
+    @Test
+    void wholeSlotBookingOverlappingAnUnalignedOneSharesABucket() {
+        List<LocalDateTime> unaligned = reservedSlots(TEN.plusMinutes(5), TEN.plusMinutes(35));
+        List<LocalDateTime> overlapping = reservedSlots(TEN.plusMinutes(30), TEN.plusMinutes(60));
+        List<LocalDateTime> after = reservedSlots(TEN.plusMinutes(45), TEN.plusMinutes(75));
+        assertFalse(Collections.disjoint(unaligned, overlapping));
+        assertTrue(Collections.disjoint(unaligned, after));
+    }
+
+    @Test
+    void coversWholeSlots() {
+        assertTrue(service.coversWholeSlots(TEN, TEN.plusMinutes(30)));
+        assertTrue(service.coversWholeSlots(TEN.plusMinutes(45), TEN.plusMinutes(105)));
+        assertFalse(service.coversWholeSlots(TEN.plusMinutes(5), TEN.plusMinutes(35)));
+        assertFalse(service.coversWholeSlots(TEN, TEN.plusMinutes(40)));
+        assertFalse(service.coversWholeSlots(TEN.plusSeconds(1), TEN.plusMinutes(30)));
+        assertFalse(service.coversWholeSlots(TEN.plusNanos(1), TEN.plusMinutes(30)));
+    }
+
+    @Test
+    void heldBucketRejectsTheBooking() {
+        when(repository.saveAllAndFlush(anyList())).thenThrow(new DataIntegrityViolationException("uk_slot"));
+        assertThrows(BookingException.class, () -> service.reserve(booking(TEN, TEN.plusMinutes(30))));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<LocalDateTime> reservedSlots(LocalDateTime start, LocalDateTime end) {
+        clearInvocations(repository);
+        service.reserve(booking(start, end));
+        ArgumentCaptor<List<SlotReservation>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAllAndFlush(saved.capture());
+        List<LocalDateTime> slots = new ArrayList<>();
+        for (SlotReservation reservation : saved.getValue()) {
+            assertEquals(7L, reservation.getPortId());
+            assertEquals(42L, reservation.getBookingId());
+            slots.add(reservation.getSlotStart());
+        }
+        return slots;
+    }
+
+    private static Booking booking(LocalDateTime start, LocalDateTime end) {
+        return Booking.builder().id(42L).portId(7L).startTime(start).endTime(end).status(Status.BOOKED).build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.charginghive.dataset;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * A prepared INSERT whose rows are sent and committed every batchSize rows. Callers
+ * bind the parameters through {@link #statement()} and then call {@link #add()}.
+ */
+final class BatchInserter implements AutoCloseable {
+
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final int batchSize;
+    private int pending;
+    private long rows;
+
+    BatchInserter(Connection connection, String sql, int batchSize) throws SQLException {
+        this.connection = connection;
+        this.statement = connection.prepareStatement(sql);
+        this.batchSize = batchSize;
+    }
+
+    PreparedStatement statement() {
+        return statement;
+    }
+
+    void add() throws SQLException {
+        statement.addBatch();
+        rows++;
+        if (++pending == batchSize) {
+            flush();
+        }
+    }
+
+    void flush() throws SQLException {
+        if (pending > 0) {
+            statement.executeBatch();
+            connection.commit();
+            pending = 0;
+        }
+    }
+
+    int pending() {
+        return pending;
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    /**
+     * Sends what is left; a failed batch is rolled back by the caller closing the connection
+     */
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+        } finally {
+            statement.close();
+        }
+    }
+}
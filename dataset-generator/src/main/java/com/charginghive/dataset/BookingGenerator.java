@@ -0,0 +1,278 @@
+package com.charginghive.dataset;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bookings of booking-service on the ports of approved stations.
+ * <ul>
+ *   <li>Popularity is heavy tailed: every station gets a log-normal weight, fast DC
+ *   ports a bit more, and the bookings are shared out in proportion.</li>
+ *   <li>Start times follow the daily demand curve with morning and evening peaks,
+ *   durations are mostly an hour or two, everything aligned to the slot length.</li>
+ *   <li>A port's bookings never overlap, so every BOOKED one gets its slot
+ *   reservations and the database looks like booking-service wrote it.</li>
+ *   <li>Past bookings are COMPLETED or CANCELLED, future ones BOOKED or CANCELLED.</li>
+ *   <li>Users are skewed towards the older accounts, a few drivers book a lot.</li>
+ * </ul>
+ * The earnings ledger is emptied afterwards; booking-service rebuilds it from the
+ * bookings on its next start.
+ */
+final class BookingGenerator {
+
+    private static final int CHUNK = 2_000;
+    // relative demand per hour of the day, peaks on the commute and in the evening
+    private static final int[] HOUR_WEIGHTS = {1, 1, 1, 1, 1, 2, 4, 8, 12, 12, 10, 9, 9, 9, 8, 8, 9, 11, 13, 13, 11, 8, 5, 2};
+    private static final int[] DURATIONS = {30, 45, 60, 90, 120, 180, 240};
+    private static final int[] DURATION_WEIGHTS = {18, 10, 30, 14, 16, 8, 4};
+    private static final int HOUR_TOTAL = Arrays.stream(HOUR_WEIGHTS).sum();
+    private static final int DURATION_TOTAL = Arrays.stream(DURATION_WEIGHTS).sum();
+    private static final double MEAN_DURATION = 85;
+    // a port is never booked for more than this share of the covered time
+    private static final double MAX_UTILISATION = 0.6;
+    private static final double CANCELLED_PAST = 0.12;
+    private static final double CANCELLED_FUTURE = 0.10;
+    private static final double MEAN_LEAD_MINUTES = 36 * 60;
+
+    private final DatasetSpec spec;
+    private final JdbcTarget target;
+    private final long[] driverIds;
+    private final Ports ports;
+
+    BookingGenerator(DatasetSpec spec, JdbcTarget target, long[] driverIds, Ports ports) {
+        if (driverIds.length == 0 || ports.size() == 0) {
+            throw new IllegalStateException("Bookings need drivers and ports of approved stations, found "
+                    + driverIds.length + " drivers and " + ports.size() + " ports");
+        }
+        this.spec = spec;
+        this.target = target;
+        this.driverIds = driverIds;
+        this.ports = ports;
+    }
+
+    /**
+     * @return bookings and slot reservations written
+     */
+    long[] generate() throws SQLException {
+        try (Connection connection = target.open()) {
+            // slot reservations of new bookings could collide with those already there
+            if (target.nextId(connection, "bookings") > 1) {
+                throw new IllegalStateException("bookings is not empty, generate bookings into an empty booking database");
+            }
+        }
+
+        LocalDate today = LocalDate.now();
+        long fromMinute = minute(today.minusDays(spec.historyDays()).atStartOfDay());
+        long toMinute = minute(today.plusDays(spec.futureDays() + 1L).atStartOfDay());
+        long nowMinute = minute(LocalDateTime.now());
+        int[] counts = bookingsPerPort(toMinute - fromMinute);
+
+        int chunks = (ports.size() + CHUNK - 1) / CHUNK;
+        long[] idBase = new long[chunks];
+        long nextId = 1;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            idBase[chunk] = nextId;
+            for (int port = chunk * CHUNK; port < Math.min(ports.size(), (chunk + 1) * CHUNK); port++) {
+                nextId += counts[port];
+            }
+        }
+
+        AtomicLong reservations = new AtomicLong();
+        long bookings = new ChunkRunner(target, spec.threads()).run("bookings", chunks, (connection, chunk) -> {
+            SplittableRandom random = Seeds.random(spec.seed(), "bookings", chunk);
+            long id = idBase[chunk];
+            try (BatchInserter bookingRows = new BatchInserter(connection,
+                    "INSERT INTO bookings (id, user_id, station_id, port_id, start_time, end_time, duration, "
+                            + "total_cost, status, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", spec.batchSize());
+                 BatchInserter slotRows = new BatchInserter(connection,
+                         "INSERT INTO slot_reservations (port_id, slot_start, booking_id) VALUES (?, ?, ?)",
+                         spec.batchSize())) {
+                for (int port = chunk * CHUNK; port < Math.min(ports.size(), (chunk + 1) * CHUNK); port++) {
+                    long[] starts = new long[counts[port]];
+                    for (int i = 0; i < starts.length; i++) {
+                        starts[i] = startMinute(random, fromMinute, toMinute);
+                    }
+                    Arrays.sort(starts);
+                    long free = fromMinute;
+                    for (long wanted : starts) {
+                        // pushed back past the previous booking, never overlapping it
+                        long start = Math.max(wanted, free);
+                        long duration = duration(random);
+                        long end = start + duration;
+                        if (end > toMinute) {
+                            break;
+                        }
+                        free = end;
+                        String status = status(random, start, end, nowMinute);
+                        addBooking(bookingRows, random, id, port, start, end, status, nowMinute);
+                        if ("BOOKED".equals(status)) {
+                            for (long slot = start; slot < end; slot += spec.slotMinutes()) {
+                                slotRows.statement().setLong(1, ports.ids[port]);
+                                slotRows.statement().setObject(2, time(slot));
+                                slotRows.statement().setLong(3, id);
+                                slotRows.add();
+                            }
+                        }
+                        id++;
+                    }
+                }
+                bookingRows.flush();
+                slotRows.flush();
+                reservations.addAndGet(slotRows.rows());
+                return bookingRows.rows();
+            }
+        });
+
+        try (Connection connection = target.open(); Statement statement = connection.createStatement()) {
+            target.continueIdsAfter(connection, "bookings");
+            statement.executeUpdate("DELETE FROM station_daily_earnings");
+            statement.executeUpdate("DELETE FROM station_earnings");
+            connection.commit();
+        }
+        return new long[]{bookings, reservations.get()};
+    }
+
+    /**
+     * Shares the requested total out by port weight, capped at what fits on a port
+     */
+    private int[] bookingsPerPort(long coveredMinutes) {
+        double[] weights = new double[ports.size()];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            double stationWeight = Math.exp(0.9 * Geography.gaussian(
+                    Seeds.random(spec.seed(), "popularity", ports.stationIds[i])));
+            weights[i] = stationWeight * (ports.powerKw[i] >= 50 ? 1.3 : 1.0);
+            total += weights[i];
+        }
+        int cap = (int) (coveredMinutes * MAX_UTILISATION / MEAN_DURATION);
+        SplittableRandom random = Seeds.random(spec.seed(), "booking-counts", 0);
+        int[] counts = new int[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            double expected = spec.bookings() * weights[i] / total;
+            // rounded up or down at random so the totals add up
+            long count = (long) expected + (random.nextDouble() < expected % 1 ? 1 : 0);
+            counts[i] = (int) Math.min(cap, count);
+        }
+        return counts;
+    }
+
+    private long startMinute(SplittableRandom random, long fromMinute, long toMinute) {
+        long days = (toMinute - fromMinute) / (24 * 60);
+        long day = fromMinute + random.nextLong(days) * 24 * 60;
+        int pick = random.nextInt(HOUR_TOTAL);
+        int hour = 0;
+        while ((pick -= HOUR_WEIGHTS[hour]) >= 0) {
+            hour++;
+        }
+        return day + hour * 60L + (long) random.nextInt(60 / spec.slotMinutes()) * spec.slotMinutes();
+    }
+
+    private long duration(SplittableRandom random) {
+        int pick = random.nextInt(DURATION_TOTAL);
+        int i = 0;
+        while ((pick -= DURATION_WEIGHTS[i]) >= 0) {
+            i++;
+        }
+        // whole slots, so a booking's reservations never spill into its neighbour's
+        return (DURATIONS[i] + spec.slotMinutes() - 1) / spec.slotMinutes() * spec.slotMinutes();
+    }
+
+    private static String status(SplittableRandom random, long start, long end, long now) {
+        if (end <= now) {
+            return random.nextDouble() < CANCELLED_PAST ? "CANCELLED" : "COMPLETED";
+        }
+        // running now: the expiry engine completes it once it ends
+        if (start <= now) {
+            return "BOOKED";
+        }
+        return random.nextDouble() < CANCELLED_FUTURE ? "CANCELLED" : "BOOKED";
+    }
+
+    private void addBooking(BatchInserter rows, SplittableRandom random, long id, int port, long start, long end,
+                            String status, long now) throws SQLException {
+        long lead = 10 + (long) (-Math.log(1 - random.nextDouble()) * MEAN_LEAD_MINUTES);
+        long createdAt = start - lead;
+        if (createdAt >= now) {
+            createdAt = now - 1 - random.nextLong(lead);
+        }
+        int duration = (int) (end - start);
+        PreparedStatement row = rows.statement();
+        row.setLong(1, id);
+        row.setLong(2, driverIds[(int) (driverIds.length * Math.pow(random.nextDouble(), 1.6))]);
+        row.setLong(3, ports.stationIds[port]);
+        row.setLong(4, ports.ids[port]);
+        row.setObject(5, time(start));
+        row.setObject(6, time(end));
+        row.setInt(7, duration);
+        row.setDouble(8, ports.pricePerHour[port] * duration / 60.0);
+        row.setString(9, status);
+        row.setObject(10, time(createdAt));
+        rows.add();
+    }
+
+    // epoch minutes of the wall clock time, the same UTC reading SlotReservationService aligns buckets with
+    private static long minute(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static LocalDateTime time(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+
+    static long[] driverIds(JdbcTarget auth) throws SQLException {
+        try (Connection connection = auth.open();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT id FROM users WHERE user_role = 'ROLE_DRIVER' ORDER BY id")) {
+            LongList ids = new LongList();
+            while (rows.next()) {
+                ids.add(rows.getLong(1));
+            }
+            return ids.toArray();
+        }
+    }
+
+    /**
+     * The ports of approved stations, as parallel arrays
+     */
+    record Ports(long[] ids, long[] stationIds, double[] pricePerHour, double[] powerKw) {
+
+        int size() {
+            return ids.length;
+        }
+
+        static Ports load(JdbcTarget station) throws SQLException {
+            // booking-service refuses ports without a price, so they get no bookings either
+            String from = " FROM station_ports p JOIN stations s ON s.id = p.station_id"
+                    + " WHERE s.is_approved = TRUE AND p.price_per_hour IS NOT NULL";
+            try (Connection connection = station.open(); Statement statement = connection.createStatement()) {
+                int count;
+                try (ResultSet rows = statement.executeQuery("SELECT COUNT(*)" + from)) {
+                    rows.next();
+                    count = rows.getInt(1);
+                }
+                Ports ports = new Ports(new long[count], new long[count], new double[count], new double[count]);
+                try (ResultSet rows = statement.executeQuery(
+                        "SELECT p.id, p.station_id, p.price_per_hour, p.max_power_kw" + from + " ORDER BY p.id")) {
+                    int i = 0;
+                    while (rows.next() && i < count) {
+                        ports.ids[i] = rows.getLong(1);
+                        ports.stationIds[i] = rows.getLong(2);
+                        ports.pricePerHour[i] = rows.getDouble(3);
+                        ports.powerKw[i] = rows.getDouble(4);
+                        i++;
+                    }
+                }
+                return ports;
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.charginghive.dataset;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs numbered chunks of work on a fixed number of threads, each holding one
+ * connection for its whole life. Chunks draw their randomness from their own number,
+ * not from the thread that runs them, so the rows do not depend on the thread count.
+ */
+@Slf4j
+final class ChunkRunner {
+
+    private static final long PROGRESS_EVERY_MS = 10_000;
+
+    interface Chunk {
+        /**
+         * @return rows written
+         */
+        long run(Connection connection, int chunk) throws SQLException;
+    }
+
+    private final JdbcTarget target;
+    private final int threads;
+
+    ChunkRunner(JdbcTarget target, int threads) {
+        this.target = target;
+        this.threads = threads;
+    }
+
+    long run(String what, int chunks, Chunk work) {
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong rows = new AtomicLong();
+        long started = System.currentTimeMillis();
+        AtomicLong lastReport = new AtomicLong(started);
+        try (ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, chunks)))) {
+            List<Future<Void>> workers = new ArrayList<>();
+            for (int t = 0; t < threads && t < chunks; t++) {
+                workers.add(executor.submit(() -> {
+                    try (Connection connection = target.open()) {
+                        for (int chunk = next.getAndIncrement(); chunk < chunks; chunk = next.getAndIncrement()) {
+                            long written = rows.addAndGet(work.run(connection, chunk));
+                            long now = System.currentTimeMillis();
+                            long last = lastReport.get();
+                            if (now - last >= PROGRESS_EVERY_MS && lastReport.compareAndSet(last, now)) {
+                                log.info("{}: {} rows, {} rows/s", what, written, written * 1000 / (now - started));
+                            }
+                        }
+                    } catch (SQLException | RuntimeException e) {
+                        // stop handing out chunks, the run has failed anyway
+                        next.set(chunks);
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Generating " + what + " failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generating " + what + " was interrupted", e);
+        }
+        long elapsed = Math.max(1, System.currentTimeMillis() - started);
+        log.info("{}: {} rows in {} s, {} rows/s", what, rows.get(), elapsed / 1000, rows.get() * 1000 / elapsed);
+        return rows.get();
+    }
+}
@@ -0,0 +1,63 @@
+package com.charginghive.dataset;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+
+/**
+ * Fills the auth, station and booking databases with a synthetic dataset through
+ * batched JDBC inserts, bypassing the services. Users, then stations with their ports,
+ * then bookings with their slot reservations; each step reads what the previous ones
+ * left in the databases, so a step with a count of zero works on existing data.
+ * The three targets may point at the same database.
+ *
+ * <p>The services cache some of this data in memory and only load it on startup:
+ * start them after generating, or reload them as the load-test harness does.
+ */
+@Slf4j
+public final class DatasetGenerator {
+
+    /**
+     * Rows written per table
+     */
+    public record Summary(long users, long stations, long ports, long bookings, long slotReservations) {
+    }
+
+    private final DatasetSpec spec;
+    private final JdbcTarget auth;
+    private final JdbcTarget station;
+    private final JdbcTarget booking;
+
+    public DatasetGenerator(DatasetSpec spec, JdbcTarget auth, JdbcTarget station, JdbcTarget booking) {
+        this.spec = spec;
+        this.auth = auth;
+        this.station = station;
+        this.booking = booking;
+    }
+
+    public Summary generate() throws SQLException {
+        for (JdbcTarget target : new JdbcTarget[]{auth, station, booking}) {
+            if (!target.rewritesBatches()) {
+                log.warn("{} lacks rewriteBatchedStatements=true, MySQL will get one round trip per row", target.url());
+            }
+        }
+        long started = System.currentTimeMillis();
+
+        long users = spec.users() > 0 ? new UserGenerator(spec, auth).generate() : 0;
+
+        long[] stations = {0, 0};
+        if (spec.stations() > 0) {
+            stations = new StationGenerator(spec, station, StationGenerator.ownerIds(auth)).generate();
+        }
+
+        long[] bookings = {0, 0};
+        if (spec.bookings() > 0) {
+            bookings = new BookingGenerator(spec, booking, BookingGenerator.driverIds(auth),
+                    BookingGenerator.Ports.load(station)).generate();
+        }
+
+        Summary summary = new Summary(users, stations[0], stations[1], bookings[0], bookings[1]);
+        log.info("Generated {} in {} s", summary, (System.currentTimeMillis() - started) / 1000);
+        return summary;
+    }
+}
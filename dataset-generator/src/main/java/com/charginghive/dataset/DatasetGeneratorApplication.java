@@ -0,0 +1,41 @@
+package com.charginghive.dataset;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line entry point, options are --name=value. See dataset-generator/README.md.
+ */
+public class DatasetGeneratorApplication {
+
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        String username = values.getOrDefault("username", "root");
+        String password = values.getOrDefault("password", "root123");
+        new DatasetGenerator(DatasetSpec.parse(values),
+                target(values, "auth", "jdbc:mysql://localhost:3306/userDb", username, password),
+                target(values, "station", "jdbc:mysql://localhost:3306/stationDB", username, password),
+                target(values, "booking", "jdbc:mysql://localhost:3306/chargehive_booking", username, password))
+                .generate();
+    }
+
+    // --auth-url, --auth-username, --auth-password, falling back to the shared credentials
+    private static JdbcTarget target(Map<String, String> values, String service, String defaultUrl,
+                                     String username, String password) {
+        String url = values.getOrDefault(service + "-url", defaultUrl);
+        if (url.startsWith("jdbc:mysql:") && !url.contains("rewriteBatchedStatements")) {
+            url += (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
+        }
+        return new JdbcTarget(url,
+                values.getOrDefault(service + "-username", username),
+                values.getOrDefault(service + "-password", password));
+    }
+}
@@ -0,0 +1,60 @@
+package com.charginghive.dataset;
+
+import java.util.Map;
+
+/**
+ * What to generate. A count of zero skips that table and uses what is already in the
+ * database, so bookings can be generated against existing users and stations.
+ *
+ * @param users       users added to auth-service, mostly drivers
+ * @param stations    stations added to station-service, each with one to eight ports
+ * @param bookings    bookings added to booking-service, spread over the ports of approved stations
+ * @param historyDays days before today covered by completed and cancelled bookings
+ * @param futureDays  days after today covered by upcoming bookings
+ * @param slotMinutes booking.slot.minutes of booking-service; bookings are aligned to it
+ * @param batchSize   rows per JDBC batch, each batch is its own transaction
+ * @param threads     connections writing in parallel
+ * @param seed        the same seed and counts give the same rows
+ */
+public record DatasetSpec(int users,
+                          int stations,
+                          long bookings,
+                          int historyDays,
+                          int futureDays,
+                          int slotMinutes,
+                          int batchSize,
+                          int threads,
+                          long seed) {
+
+    public DatasetSpec {
+        if (users < 0 || stations < 0 || bookings < 0) {
+            throw new IllegalArgumentException("users, stations and bookings must not be negative");
+        }
+        if (historyDays < 0 || futureDays < 0 || historyDays + futureDays == 0) {
+            throw new IllegalArgumentException("history-days and future-days must not be negative or both zero");
+        }
+        if (slotMinutes <= 0 || 60 % slotMinutes != 0) {
+            throw new IllegalArgumentException("slot-minutes must divide an hour");
+        }
+        if (batchSize <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("batch-size and threads must be positive");
+        }
+    }
+
+    /**
+     * Reads --name=value options; anything not given takes the default of a full-size dataset
+     */
+    public static DatasetSpec parse(Map<String, String> values) {
+        return new DatasetSpec(
+                Integer.parseInt(values.getOrDefault("users", "2000000")),
+                Integer.parseInt(values.getOrDefault("stations", "300000")),
+                Long.parseLong(values.getOrDefault("bookings", "20000000")),
+                Integer.parseInt(values.getOrDefault("history-days", "365")),
+                Integer.parseInt(values.getOrDefault("future-days", "14")),
+                Integer.parseInt(values.getOrDefault("slot-minutes", "15")),
+                Integer.parseInt(values.getOrDefault("batch-size", "5000")),
+                Integer.parseInt(values.getOrDefault("threads",
+                        String.valueOf(Math.min(8, Runtime.getRuntime().availableProcessors())))),
+                Long.parseLong(values.getOrDefault("seed", "42")));
+    }
+}
@@ -0,0 +1,104 @@
+package com.charginghive.dataset;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Where stations go. Most sit in a normal spread around a city centre, wider for the
+ * big metros; the rest line the highway to the nearest other city, the way fast
+ * chargers follow the corridors. Cities are picked in proportion to their weight.
+ */
+final class Geography {
+
+    record City(String name, String state, String postalPrefix, double lat, double lng, int weight,
+                double spreadDegrees) {
+    }
+
+    /**
+     * A station location and the city it is filed under
+     */
+    record Place(City city, double lat, double lng, boolean highway) {
+    }
+
+    static final List<City> CITIES = List.of(
+            new City("Delhi", "Delhi", "110", 28.6139, 77.2090, 14, 0.10),
+            new City("Mumbai", "Maharashtra", "400", 19.0760, 72.8777, 14, 0.08),
+            new City("Bengaluru", "Karnataka", "560", 12.9716, 77.5946, 12, 0.08),
+            new City("Hyderabad", "Telangana", "500", 17.3850, 78.4867, 9, 0.08),
+            new City("Chennai", "Tamil Nadu", "600", 13.0827, 80.2707, 8, 0.07),
+            new City("Pune", "Maharashtra", "411", 18.5204, 73.8567, 8, 0.06),
+            new City("Kolkata", "West Bengal", "700", 22.5726, 88.3639, 7, 0.07),
+            new City("Ahmedabad", "Gujarat", "380", 23.0225, 72.5714, 6, 0.06),
+            new City("Gurugram", "Haryana", "122", 28.4595, 77.0266, 4, 0.04),
+            new City("Noida", "Uttar Pradesh", "201", 28.5355, 77.3910, 4, 0.04),
+            new City("Jaipur", "Rajasthan", "302", 26.9124, 75.7873, 3, 0.05),
+            new City("Surat", "Gujarat", "395", 21.1702, 72.8311, 3, 0.04),
+            new City("Lucknow", "Uttar Pradesh", "226", 26.8467, 80.9462, 2, 0.04),
+            new City("Kochi", "Kerala", "682", 9.9312, 76.2673, 2, 0.04),
+            new City("Chandigarh", "Chandigarh", "160", 30.7333, 76.7794, 2, 0.03),
+            new City("Indore", "Madhya Pradesh", "452", 22.7196, 75.8577, 2, 0.04),
+            new City("Nagpur", "Maharashtra", "440", 21.1458, 79.0882, 2, 0.04),
+            new City("Coimbatore", "Tamil Nadu", "641", 11.0168, 76.9558, 2, 0.04),
+            new City("Visakhapatnam", "Andhra Pradesh", "530", 17.6868, 83.2185, 1, 0.04),
+            new City("Mysuru", "Karnataka", "570", 12.2958, 76.6394, 1, 0.03));
+
+    private static final double HIGHWAY_SHARE = 0.12;
+    // about 1 km either side of the road
+    private static final double HIGHWAY_JITTER_DEGREES = 0.01;
+    private static final int TOTAL_WEIGHT = CITIES.stream().mapToInt(City::weight).sum();
+    private static final City[] NEAREST = new City[CITIES.size()];
+
+    static {
+        for (int i = 0; i < CITIES.size(); i++) {
+            City city = CITIES.get(i);
+            City nearest = null;
+            for (City other : CITIES) {
+                if (other != city && (nearest == null || distance(city, other) < distance(city, nearest))) {
+                    nearest = other;
+                }
+            }
+            NEAREST[i] = nearest;
+        }
+    }
+
+    private Geography() {
+    }
+
+    static City pickCity(SplittableRandom random) {
+        int pick = random.nextInt(TOTAL_WEIGHT);
+        for (City city : CITIES) {
+            pick -= city.weight();
+            if (pick < 0) {
+                return city;
+            }
+        }
+        return CITIES.get(0);
+    }
+
+    static Place pickPlace(SplittableRandom random) {
+        int index = CITIES.indexOf(pickCity(random));
+        City city = CITIES.get(index);
+        if (random.nextDouble() < HIGHWAY_SHARE) {
+            City towards = NEAREST[index];
+            // the first half of the road, the other half belongs to the other city
+            double along = random.nextDouble() * 0.5;
+            return new Place(city,
+                    city.lat() + (towards.lat() - city.lat()) * along + gaussian(random) * HIGHWAY_JITTER_DEGREES,
+                    city.lng() + (towards.lng() - city.lng()) * along + gaussian(random) * HIGHWAY_JITTER_DEGREES,
+                    true);
+        }
+        return new Place(city,
+                city.lat() + gaussian(random) * city.spreadDegrees(),
+                city.lng() + gaussian(random) * city.spreadDegrees(),
+                false);
+    }
+
+    // Box-Muller, SplittableRandom has no nextGaussian
+    static double gaussian(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static double distance(City a, City b) {
+        return Math.hypot(a.lat() - b.lat(), a.lng() - b.lng());
+    }
+}
@@ -0,0 +1,72 @@
+package com.charginghive.dataset;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * One service database. The tables must already exist: start the service against it
+ * once (ddl-auto=update) before generating. MySQL and H2 (in MySQL mode) are supported.
+ */
+public record JdbcTarget(String url, String username, String password) {
+
+    public Connection open() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, username, password);
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    public boolean isMySql() {
+        return url.startsWith("jdbc:mysql:");
+    }
+
+    /**
+     * Without it Connector/J sends a batch as one round trip per row
+     */
+    public boolean rewritesBatches() {
+        return !isMySql() || url.contains("rewriteBatchedStatements=true");
+    }
+
+    /**
+     * SQL for the stations.location value: lng and lat on MySQL, WKT on H2, see {@link #bindPoint}
+     */
+    String pointPlaceholder() {
+        return isMySql() ? "ST_SRID(POINT(?, ?), 0)" : "CAST(? AS GEOMETRY)";
+    }
+
+    int bindPoint(PreparedStatement statement, int index, double lat, double lng) throws SQLException {
+        if (isMySql()) {
+            statement.setDouble(index++, lng);
+            statement.setDouble(index++, lat);
+        } else {
+            statement.setString(index++, "POINT (" + lng + " " + lat + ")");
+        }
+        return index;
+    }
+
+    long nextId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    /**
+     * Rows were inserted with explicit ids; MySQL moves AUTO_INCREMENT past them by
+     * itself, H2 has to be told or the services' next insert collides
+     */
+    void continueIdsAfter(Connection connection, String table) throws SQLException {
+        if (isMySql()) {
+            return;
+        }
+        long next = nextId(connection, table);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        }
+        connection.commit();
+    }
+}
@@ -0,0 +1,27 @@
+package com.charginghive.dataset;
+
+import java.util.Arrays;
+
+/**
+ * A growable long[]; millions of boxed ids would cost several times the memory
+ */
+final class LongList {
+
+    private long[] values = new long[1024];
+    private int size;
+
+    void add(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
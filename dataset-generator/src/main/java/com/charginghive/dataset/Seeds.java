@@ -0,0 +1,23 @@
+package com.charginghive.dataset;
+
+import java.util.SplittableRandom;
+
+/**
+ * Independent random streams derived from the run seed, one per table and chunk
+ */
+final class Seeds {
+
+    private Seeds() {
+    }
+
+    static SplittableRandom random(long seed, String stream, long index) {
+        return new SplittableRandom(mix(mix(seed ^ stream.hashCode()) + index));
+    }
+
+    // the SplitMix64 finaliser, so neighbouring indexes give unrelated seeds
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
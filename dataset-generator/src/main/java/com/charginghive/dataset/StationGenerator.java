@@ -0,0 +1,178 @@
+package com.charginghive.dataset;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stations of station-service with their ports, clustered as {@link Geography} places
+ * them. About 92% are approved; owners are drawn from the ROLE_OWNER users.
+ * City sites mix AC and DC chargers, highway sites are mostly fast DC.
+ */
+final class StationGenerator {
+
+    private static final int CHUNK = 10_000;
+    // index + 1 ports; most sites have two or four
+    private static final int[] PORT_COUNT_WEIGHTS = {8, 22, 14, 26, 6, 12, 2, 10};
+    private static final String[] BRANDS = {"ChargeHive", "VoltPoint", "GreenCharge", "PlugIn", "EcoFuel", "Zeon"};
+    private static final String[] STREETS = {"MG Road", "Station Road", "Ring Road", "Link Road", "Market Street",
+            "Lake View Road", "Outer Ring Road", "Main Road", "Tech Park", "Mall Road", "Airport Road"};
+
+    private final DatasetSpec spec;
+    private final JdbcTarget target;
+    private final long[] ownerIds;
+
+    StationGenerator(DatasetSpec spec, JdbcTarget target, long[] ownerIds) {
+        if (ownerIds.length == 0) {
+            throw new IllegalStateException("Stations need owners but there is no ROLE_OWNER user");
+        }
+        this.spec = spec;
+        this.target = target;
+        this.ownerIds = ownerIds;
+    }
+
+    /**
+     * @return stations and ports written
+     */
+    long[] generate() throws SQLException {
+        long firstStationId;
+        long firstPortId;
+        try (Connection connection = target.open()) {
+            firstStationId = target.nextId(connection, "stations");
+            firstPortId = target.nextId(connection, "station_ports");
+        }
+        int chunks = (spec.stations() + CHUNK - 1) / CHUNK;
+        // port ids are handed out per chunk up front, replaying each chunk's port counts
+        long[] portIdBase = new long[chunks];
+        long nextPortId = firstPortId;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            portIdBase[chunk] = nextPortId;
+            SplittableRandom portCounts = Seeds.random(spec.seed(), "port-counts", chunk);
+            for (int i = 0; i < stationsIn(chunk); i++) {
+                nextPortId += portCount(portCounts);
+            }
+        }
+
+        AtomicLong ports = new AtomicLong();
+        long stations = new ChunkRunner(target, spec.threads()).run("stations", chunks, (connection, chunk) -> {
+            SplittableRandom random = Seeds.random(spec.seed(), "stations", chunk);
+            SplittableRandom portCounts = Seeds.random(spec.seed(), "port-counts", chunk);
+            long portId = portIdBase[chunk];
+            try (BatchInserter stationRows = new BatchInserter(connection,
+                    "INSERT INTO stations (id, name, address, city, state, latitude, longitude, location, postal_code, "
+                            + "is_approved, owner_id) VALUES (?, ?, ?, ?, ?, ?, ?, " + target.pointPlaceholder()
+                            + ", ?, ?, ?)", spec.batchSize());
+                 BatchInserter portRows = new BatchInserter(connection,
+                         "INSERT INTO station_ports (id, connector_type, price_per_hour, max_power_kw, station_id) "
+                                 + "VALUES (?, ?, ?, ?, ?)", Integer.MAX_VALUE)) {
+                long first = firstStationId + (long) chunk * CHUNK;
+                for (long id = first; id < first + stationsIn(chunk); id++) {
+                    Geography.Place place = Geography.pickPlace(random);
+                    Geography.City city = place.city();
+                    PreparedStatement row = stationRows.statement();
+                    row.setLong(1, id);
+                    row.setString(2, BRANDS[random.nextInt(BRANDS.length)] + " " + city.name()
+                            + (place.highway() ? " Highway " : " ") + id);
+                    row.setString(3, place.highway()
+                            ? "Km " + (5 + random.nextInt(150)) + ", " + city.name() + " Highway"
+                            : (1 + random.nextInt(400)) + " " + STREETS[random.nextInt(STREETS.length)]);
+                    row.setString(4, city.name());
+                    row.setString(5, city.state());
+                    row.setDouble(6, place.lat());
+                    row.setDouble(7, place.lng());
+                    int next = target.bindPoint(row, 8, place.lat(), place.lng());
+                    row.setString(next++, city.postalPrefix() + String.format("%03d", random.nextInt(1000)));
+                    row.setBoolean(next++, random.nextDouble() < 0.92);
+                    row.setLong(next, ownerIds[random.nextInt(ownerIds.length)]);
+                    stationRows.add();
+
+                    int count = portCount(portCounts);
+                    for (int p = 0; p < count; p++) {
+                        addPort(portRows, portId++, id, place.highway(), random);
+                    }
+                    // ports are only sent after their stations, for the foreign key
+                    if (portRows.pending() >= spec.batchSize()) {
+                        stationRows.flush();
+                        portRows.flush();
+                    }
+                }
+                stationRows.flush();
+                portRows.flush();
+                ports.addAndGet(portRows.rows());
+                return stationRows.rows();
+            }
+        });
+        try (Connection connection = target.open()) {
+            target.continueIdsAfter(connection, "stations");
+            target.continueIdsAfter(connection, "station_ports");
+        }
+        return new long[]{stations, ports.get()};
+    }
+
+    private int stationsIn(int chunk) {
+        return Math.min(CHUNK, spec.stations() - chunk * CHUNK);
+    }
+
+    private static int portCount(SplittableRandom random) {
+        int total = 0;
+        for (int weight : PORT_COUNT_WEIGHTS) {
+            total += weight;
+        }
+        int pick = random.nextInt(total);
+        for (int i = 0; i < PORT_COUNT_WEIGHTS.length; i++) {
+            pick -= PORT_COUNT_WEIGHTS[i];
+            if (pick < 0) {
+                return i + 1;
+            }
+        }
+        return 1;
+    }
+
+    private static void addPort(BatchInserter ports, long id, long stationId, boolean highway, SplittableRandom random)
+            throws SQLException {
+        String connector;
+        double powerKw;
+        double pick = random.nextDouble();
+        if (pick < (highway ? 0.15 : 0.35)) {
+            connector = "Type2";
+            powerKw = new double[]{7.4, 11, 22}[random.nextInt(3)];
+        } else if (pick < (highway ? 0.90 : 0.80)) {
+            connector = "CCS2";
+            powerKw = highway ? new double[]{60, 120, 150, 240}[random.nextInt(4)]
+                    : new double[]{30, 50, 60, 120}[random.nextInt(4)];
+        } else if (pick < 0.92) {
+            connector = "CHAdeMO";
+            powerKw = 50;
+        } else {
+            connector = "Bharat DC-001";
+            powerKw = 15;
+        }
+        // AC is billed at around Rs 15/kWh, DC at around Rs 20/kWh
+        double tariff = (powerKw <= 22 ? 15 : 20) * (0.85 + random.nextDouble() * 0.3);
+        ports.statement().setLong(1, id);
+        ports.statement().setString(2, connector);
+        ports.statement().setDouble(3, Math.round(powerKw * tariff * 100) / 100.0);
+        ports.statement().setDouble(4, powerKw);
+        ports.statement().setLong(5, stationId);
+        ports.add();
+    }
+
+    /**
+     * Owner ids of the auth database, for stations generated into an existing one
+     */
+    static long[] ownerIds(JdbcTarget auth) throws SQLException {
+        try (Connection connection = auth.open();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT id FROM users WHERE user_role = 'ROLE_OWNER' ORDER BY id")) {
+            LongList ids = new LongList();
+            while (rows.next()) {
+                ids.add(rows.getLong(1));
+            }
+            return ids.toArray();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.charginghive.dataset;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.SplittableRandom;
+
+/**
+ * Users of auth-service: about 96% drivers, 3.5% station owners and a few admins.
+ * Every user gets the same password so any of them can log in during a load test;
+ * it is hashed once, BCrypt per row would take longer than the whole load.
+ */
+final class UserGenerator {
+
+    static final String PASSWORD = "dataset-password";
+
+    private static final int CHUNK = 50_000;
+    private static final String[] FIRST_NAMES = {"Aarav", "Vivaan", "Aditya", "Arjun", "Sai", "Ishaan", "Rohan",
+            "Ananya", "Diya", "Priya", "Kavya", "Meera", "Neha", "Rahul", "Vikram", "Sneha", "Pooja", "Karan",
+            "Nikhil", "Aisha", "Farhan", "Harpreet", "Lakshmi", "Suresh", "Deepa"};
+    private static final String[] LAST_NAMES = {"Sharma", "Verma", "Patel", "Reddy", "Iyer", "Nair", "Gupta",
+            "Singh", "Kumar", "Das", "Mehta", "Joshi", "Kulkarni", "Rao", "Menon", "Khan", "Bose", "Chopra",
+            "Pillai", "Desai"};
+
+    private final DatasetSpec spec;
+    private final JdbcTarget target;
+    private final String passwordHash = new BCryptPasswordEncoder().encode(PASSWORD);
+
+    UserGenerator(DatasetSpec spec, JdbcTarget target) {
+        this.spec = spec;
+        this.target = target;
+    }
+
+    long generate() throws SQLException {
+        long firstId;
+        try (Connection connection = target.open()) {
+            firstId = target.nextId(connection, "users");
+        }
+        int chunks = (spec.users() + CHUNK - 1) / CHUNK;
+        long rows = new ChunkRunner(target, spec.threads()).run("users", chunks, (connection, chunk) -> {
+            SplittableRandom random = Seeds.random(spec.seed(), "users", chunk);
+            long from = firstId + (long) chunk * CHUNK;
+            long to = firstId + Math.min(spec.users(), (long) (chunk + 1) * CHUNK);
+            try (BatchInserter users = new BatchInserter(connection,
+                    "INSERT INTO users (id, first_name, last_name, phone_number, email, password, user_role) "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?)", spec.batchSize())) {
+                for (long id = from; id < to; id++) {
+                    String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                    String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                    users.statement().setLong(1, id);
+                    users.statement().setString(2, firstName);
+                    users.statement().setString(3, lastName);
+                    users.statement().setString(4, String.format("9%09d", id % 1_000_000_000L));
+                    // the id keeps the email unique however often the generator runs
+                    users.statement().setString(5, (firstName + "." + lastName + "." + id).toLowerCase()
+                            + "@dataset.chargehive.local");
+                    users.statement().setString(6, passwordHash);
+                    users.statement().setString(7, role(random));
+                    users.add();
+                }
+                return users.rows();
+            }
+        });
+        try (Connection connection = target.open()) {
+            target.continueIdsAfter(connection, "users");
+        }
+        return rows;
+    }
+
+    private static String role(SplittableRandom random) {
+        double pick = random.nextDouble();
+        if (pick < 0.005) {
+            return "ROLE_ADMIN";
+        }
+        return pick < 0.04 ? "ROLE_OWNER" : "ROLE_DRIVER";
+    }
+}
@@ -0,0 +1,60 @@
+package com.charginghive.loadtest;
+
+import com.charginghive.dataset.DatasetGenerator;
+import com.charginghive.dataset.DatasetSpec;
+import com.charginghive.dataset.JdbcTarget;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The dataset written by dataset-generator straight into the stack's H2 databases,
+ * for runs that need more data than the APIs can create in reasonable time. The
+ * services' indexes are reloaded afterwards so they see the new rows.
+ */
+final class GeneratedDataset {
+
+    private static final int HISTORY_DAYS = 30;
+    private static final int FUTURE_DAYS = 14;
+    // booking.slot.minutes in loadtest-booking.properties
+    private static final int SLOT_MINUTES = 15;
+    private static final int BATCH_SIZE = 5000;
+
+    private GeneratedDataset() {
+    }
+
+    static Seeder.Dataset load(LocalStack stack, LoadTestConfig config) throws SQLException {
+        JdbcTarget auth = h2("loadtest-auth");
+        JdbcTarget station = h2("loadtest-station");
+        DatasetSpec spec = new DatasetSpec(config.users(), config.stations(), config.bookings(), HISTORY_DAYS,
+                FUTURE_DAYS, SLOT_MINUTES, BATCH_SIZE, Runtime.getRuntime().availableProcessors(), config.seed());
+        new DatasetGenerator(spec, auth, station, h2("loadtest-booking")).generate();
+        stack.reloadFromDatabase();
+
+        List<Long> owners = ids(auth, "SELECT id FROM users WHERE user_role = 'ROLE_OWNER' ORDER BY id");
+        return new Seeder.Dataset(owners.get(0),
+                ids(auth, "SELECT id FROM users WHERE user_role = 'ROLE_DRIVER' ORDER BY id"),
+                ids(station, "SELECT id FROM stations WHERE is_approved = TRUE ORDER BY id"));
+    }
+
+    // the URLs of loadtest-<service>.properties; in-memory H2 databases are shared within the JVM
+    private static JdbcTarget h2(String name) {
+        return new JdbcTarget("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private static List<Long> ids(JdbcTarget target, String sql) throws SQLException {
+        try (Connection connection = target.open();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(sql)) {
+            List<Long> ids = new ArrayList<>();
+            while (rows.next()) {
+                ids.add(rows.getLong(1));
+            }
+            return ids;
+        }
+    }
+}
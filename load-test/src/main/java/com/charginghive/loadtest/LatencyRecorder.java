@@ -0,0 +1,90 @@
+package com.charginghive.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencies and outcomes per endpoint. Every sample is kept, which for a run of a
+ * few minutes at a few hundred requests per second is a few megabytes, and makes
+ * the percentiles exact.
+ */
+public final class LatencyRecorder {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final AtomicLong droppedSessions = new AtomicLong();
+    private volatile boolean recording = false;
+
+    public void startRecording() {
+        recording = true;
+    }
+
+    public void stopRecording() {
+        recording = false;
+    }
+
+    /**
+     * @param status HTTP status, or 0 when the request failed without a response
+     */
+    public void record(String endpoint, int status, long latencyNanos) {
+        if (recording) {
+            endpoints.computeIfAbsent(endpoint, name -> new Endpoint()).add(status, latencyNanos);
+        }
+    }
+
+    public void sessionDropped() {
+        if (recording) {
+            droppedSessions.incrementAndGet();
+        }
+    }
+
+    public LoadReport report(LoadTestConfig config, double measuredSeconds) {
+        List<LoadReport.EndpointStats> rows = new ArrayList<>();
+        new TreeMap<>(endpoints).forEach((name, endpoint) -> rows.add(endpoint.stats(name, measuredSeconds)));
+        return new LoadReport(config.rps(), measuredSeconds, droppedSessions.get(), rows);
+    }
+
+    private static final class Endpoint {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private final Map<Integer, Integer> statuses = new TreeMap<>();
+
+        synchronized void add(int status, long latencyNanos) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            statuses.merge(status, 1, Integer::sum);
+        }
+
+        synchronized LoadReport.EndpointStats stats(String name, double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            int errors = statuses.entrySet().stream()
+                    .filter(entry -> entry.getKey() < 200 || entry.getKey() >= 300)
+                    .mapToInt(Map.Entry::getValue)
+                    .sum();
+            return new LoadReport.EndpointStats(name, size, errors, size / seconds,
+                    millis(percentile(sorted, 50)), millis(percentile(sorted, 95)), millis(percentile(sorted, 99)),
+                    millis(size == 0 ? 0 : sorted[size - 1]), new TreeMap<>(statuses));
+        }
+
+        // nearest-rank percentile
+        private static long percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(p / 100 * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.charginghive.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: sessions arrive on a fixed schedule whatever the response times,
+ * each on its own virtual thread, so slow responses show up as latency instead of
+ * quietly lowering the request rate. The session rate is the target request rate
+ * divided by the average number of requests a session of the configured mix sends.
+ */
+@Slf4j
+public final class LoadDriver {
+
+    static final String NEARBY = "GET /stations/nearby";
+    static final String AVAILABILITY = "GET /stations/{id}/availability";
+    static final String CREATE_BOOKING = "POST /bookings";
+    static final String USER_BOOKINGS = "GET /bookings/user/{id}";
+
+    // must match station.availability.opening in loadtest-station.properties
+    private static final LocalTime OPENING = LocalTime.of(8, 0);
+    private static final double SEARCH_SPREAD_DEGREES = 0.08;
+    private static final int SEARCH_RADIUS_KM = 10;
+    private static final int BOOKING_DAYS_AHEAD = 7;
+    private static final int MAX_BOOKING_SLOTS = 4;
+
+    private final LoadTestConfig config;
+    private final StackClient client;
+    private final LocalStack stack;
+    private final LatencyRecorder recorder;
+    private final List<Long> driverIds;
+    private final SplittableRandom random;
+
+    public LoadDriver(LoadTestConfig config, StackClient client, LocalStack stack, LatencyRecorder recorder,
+                      Seeder.Dataset dataset) {
+        this.config = config;
+        this.client = client;
+        this.stack = stack;
+        this.recorder = recorder;
+        this.driverIds = dataset.driverIds();
+        this.random = new SplittableRandom(config.seed() + 1);
+    }
+
+    public LoadReport run() {
+        int totalWeight = config.mix().values().stream().mapToInt(Integer::intValue).sum();
+        double requestsPerSession = config.mix().entrySet().stream()
+                .mapToDouble(entry -> entry.getKey().requests() * entry.getValue() / (double) totalWeight)
+                .sum();
+        long intervalNanos = (long) (1e9 * requestsPerSession / config.rps());
+        log.info("Driving {} req/s as {} sessions/s of {}: {} warmup, {} measured",
+                config.rps(), String.format("%.1f", config.rps() / requestsPerSession), config.mix(),
+                config.warmup(), config.duration());
+
+        Semaphore inFlight = new Semaphore(config.maxInFlight());
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup().toNanos();
+        long end = measureFrom + config.duration().toNanos();
+        boolean measuring = false;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long next = start;
+            while (true) {
+                long now = System.nanoTime();
+                if (!measuring && now >= measureFrom) {
+                    recorder.startRecording();
+                    measuring = true;
+                }
+                if (now >= end) {
+                    break;
+                }
+                if (next > now) {
+                    LockSupport.parkNanos(Math.min(next, end) - now);
+                    continue;
+                }
+                SessionType type = pickType(totalWeight);
+                long userId = driverIds.get(random.nextInt(driverIds.size()));
+                SplittableRandom sessionRandom = random.split();
+                if (inFlight.tryAcquire()) {
+                    executor.submit(() -> {
+                        try {
+                            runSession(type, userId, sessionRandom);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                } else {
+                    recorder.sessionDropped();
+                }
+                next += intervalNanos;
+            }
+            // closing the executor waits for the sessions still running; their requests count too
+        }
+        recorder.stopRecording();
+        return recorder.report(config, config.duration().toNanos() / 1e9);
+    }
+
+    private SessionType pickType(int totalWeight) {
+        int pick = random.nextInt(totalWeight);
+        for (Map.Entry<SessionType, Integer> entry : config.mix().entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Mix weights changed while running");
+    }
+
+    private void runSession(SessionType type, long userId, SplittableRandom random) {
+        try {
+            switch (type) {
+                case BOOK -> book(userId, random);
+                case BROWSE -> browse(userId, random);
+                case HISTORY -> listBookings(userId);
+            }
+        } catch (RuntimeException e) {
+            log.debug("Session {} of user {} ended early", type, userId, e);
+        }
+    }
+
+    private void browse(long userId, SplittableRandom random) {
+        JsonNode station = nearbyStation(userId, random);
+        if (station != null) {
+            availability(userId, station.get("id").asLong(), random);
+        }
+    }
+
+    private void book(long userId, SplittableRandom random) {
+        JsonNode station = nearbyStation(userId, random);
+        if (station == null) {
+            return;
+        }
+        long stationId = station.get("id").asLong();
+        Availability availability = availability(userId, stationId, random);
+        if (availability == null) {
+            return;
+        }
+        int slots = 1 + random.nextInt(MAX_BOOKING_SLOTS);
+        Map<String, Object> request = availability.pickFreeRun(slots, random);
+        if (request == null) {
+            return;
+        }
+        client.post(CREATE_BOOKING, stack.bookingUrl() + "/bookings", userId, request);
+        listBookings(userId);
+    }
+
+    private JsonNode nearbyStation(long userId, SplittableRandom random) {
+        double[] point = Seeder.pickCity(random).around(random, SEARCH_SPREAD_DEGREES);
+        StackClient.Response response = client.get(NEARBY, stack.stationUrl() + "/stations/nearby?lat=" + point[0]
+                + "&lng=" + point[1] + "&radiusKm=" + SEARCH_RADIUS_KM, userId);
+        if (!response.ok() || response.body() == null || response.body().isEmpty()) {
+            return null;
+        }
+        return response.body().get(random.nextInt(response.body().size()));
+    }
+
+    private Availability availability(long userId, long stationId, SplittableRandom random) {
+        LocalDate date = LocalDate.now().plusDays(1 + random.nextInt(BOOKING_DAYS_AHEAD));
+        StackClient.Response response = client.get(AVAILABILITY,
+                stack.stationUrl() + "/stations/" + stationId + "/availability?date=" + date, userId);
+        return response.ok() && response.body() != null ? new Availability(stationId, date, response.body()) : null;
+    }
+
+    private void listBookings(long userId) {
+        client.get(USER_BOOKINGS, stack.bookingUrl() + "/bookings/user/" + userId + "?limit=20", userId);
+    }
+
+    /**
+     * A day's port x slot matrix as station-service returns it; '1' marks a free slot
+     */
+    private record Availability(long stationId, LocalDate date, JsonNode matrix) {
+
+        /**
+         * A booking request for a random run of free slots on a random port, or null when there is none
+         */
+        Map<String, Object> pickFreeRun(int slots, SplittableRandom random) {
+            JsonNode ports = matrix.get("ports");
+            if (ports == null || ports.isEmpty()) {
+                return null;
+            }
+            int slotMinutes = matrix.get("slotMinutes").asInt();
+            String run = "1".repeat(slots);
+            int first = random.nextInt(ports.size());
+            for (int i = 0; i < ports.size(); i++) {
+                JsonNode port = ports.get((first + i) % ports.size());
+                String free = port.get("free").asText();
+                int from = random.nextInt(Math.max(1, free.length() - slots + 1));
+                int at = free.indexOf(run, from);
+                if (at < 0) {
+                    at = free.indexOf(run);
+                }
+                if (at >= 0) {
+                    LocalDateTime startTime = date.atTime(OPENING).plusMinutes((long) at * slotMinutes);
+                    return Map.of("stationId", stationId,
+                            "portId", port.get("portId").asLong(),
+                            "startTime", startTime,
+                            "duration", slots * slotMinutes);
+                }
+            }
+            return null;
+        }
+    }
+}
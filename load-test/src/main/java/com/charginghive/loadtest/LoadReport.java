@@ -0,0 +1,37 @@
+package com.charginghive.loadtest;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a run: throughput and latency percentiles per endpoint, in milliseconds
+ */
+public record LoadReport(double targetRps,
+                         double measuredSeconds,
+                         long droppedSessions,
+                         List<EndpointStats> endpoints) {
+
+    public record EndpointStats(String endpoint,
+                                long requests,
+                                long errors,
+                                double throughputRps,
+                                double p50Ms,
+                                double p95Ms,
+                                double p99Ms,
+                                double maxMs,
+                                Map<Integer, Integer> statuses) {
+    }
+
+    public void print(PrintStream out) {
+        long requests = endpoints.stream().mapToLong(EndpointStats::requests).sum();
+        out.printf("%nTarget %.1f req/s, measured %.1f s: %d requests, %.1f req/s, %d sessions dropped%n%n",
+                targetRps, measuredSeconds, requests, requests / measuredSeconds, droppedSessions);
+        out.printf("%-36s %9s %7s %9s %9s %9s %9s %9s  %s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "Statuses");
+        for (EndpointStats row : endpoints) {
+            out.printf("%-36s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f  %s%n", row.endpoint(), row.requests(), row.errors(),
+                    row.throughputRps(), row.p50Ms(), row.p95Ms(), row.p99Ms(), row.maxMs(), row.statuses());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.charginghive.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.SQLException;
+
+/**
+ * Starts the local stack, seeds it, drives the configured request mix and prints
+ * throughput and latency percentiles per endpoint; the same report is written as JSON.
+ * See load-test/README.md for the options.
+ */
+@Slf4j
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws IOException, SQLException {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        LatencyRecorder recorder = new LatencyRecorder();
+        StackClient client = new StackClient(recorder);
+
+        LoadReport report;
+        try (LocalStack stack = LocalStack.start()) {
+            Seeder.Dataset dataset = config.dataset() == LoadTestConfig.Dataset.GENERATED
+                    ? GeneratedDataset.load(stack, config)
+                    : new Seeder(client, stack, config.seed()).seed(config.users(), config.stations(), config.portsPerStation());
+            report = new LoadDriver(config, client, stack, recorder, dataset).run();
+        }
+
+        report.print(System.out);
+        if (config.report().getParent() != null) {
+            Files.createDirectories(config.report().getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(config.report().toFile(), report);
+        log.info("Report written to {}", config.report().toAbsolutePath());
+        // the HTTP client's selector thread would otherwise keep the JVM alive
+        System.exit(0);
+    }
+}
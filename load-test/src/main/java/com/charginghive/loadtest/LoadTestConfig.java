@@ -0,0 +1,98 @@
+package com.charginghive.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Run settings, given on the command line as --name=value. Everything has a default,
+ * so a bare run seeds a small dataset and drives 50 requests per second for a minute.
+ *
+ * @param rps             target request rate summed over all endpoints
+ * @param duration        measured part of the run
+ * @param warmup          run before measuring, results discarded
+ * @param users           drivers registered through auth-service
+ * @param stations        approved stations created through station-service
+ * @param portsPerStation ports created with every station
+ * @param dataset         how the dataset is created: through the APIs, or generated straight into the databases
+ * @param bookings        bookings of a generated dataset
+ * @param mix             relative weight of each session type
+ * @param maxInFlight     sessions allowed to run at once; arrivals beyond it are counted as dropped
+ * @param seed            seed for the dataset and the session choices
+ * @param report          JSON report written at the end
+ */
+public record LoadTestConfig(double rps,
+                             Duration duration,
+                             Duration warmup,
+                             int users,
+                             int stations,
+                             int portsPerStation,
+                             Dataset dataset,
+                             long bookings,
+                             Map<SessionType, Integer> mix,
+                             int maxInFlight,
+                             long seed,
+                             Path report) {
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        LoadTestConfig config = new LoadTestConfig(
+                Double.parseDouble(values.getOrDefault("rps", "50")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "15s")),
+                Integer.parseInt(values.getOrDefault("users", "100")),
+                Integer.parseInt(values.getOrDefault("stations", "300")),
+                Integer.parseInt(values.getOrDefault("ports-per-station", "4")),
+                Dataset.valueOf(values.getOrDefault("dataset", "api").toUpperCase()),
+                Long.parseLong(values.getOrDefault("bookings", "50000")),
+                parseMix(values.getOrDefault("mix", "book:40,browse:40,history:20")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "2000")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Path.of(values.getOrDefault("report", "target/load-report.json")));
+        if (config.rps <= 0 || config.users <= 0 || config.stations <= 0 || config.portsPerStation <= 0) {
+            throw new IllegalArgumentException("rps, users, stations and ports-per-station must be positive");
+        }
+        return config;
+    }
+
+    public enum Dataset {
+        /**
+         * registered and created through the service APIs, small but exercising every write path
+         */
+        API,
+        /**
+         * bulk-loaded by dataset-generator, for runs against a realistically sized database
+         */
+        GENERATED
+    }
+
+    // "book:40,browse:40,history:20"
+    static Map<SessionType, Integer> parseMix(String mix) {
+        Map<SessionType, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Mix entries look like book:40, got " + part);
+            }
+            int weight = Integer.parseInt(pair[1]);
+            if (weight > 0) {
+                weights.put(SessionType.of(pair[0]), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Mix needs at least one session type with a positive weight");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,115 @@
+package com.charginghive.loadtest;
+
+import com.charginghive.auth.AuthServiceApplication;
+import com.charginghive.booking.BookingServiceApplication;
+import com.charginghive.booking.service.EarningsLedger;
+import com.charginghive.booking.service.PortScheduleIndex;
+import com.charginghive.station.StationApplication;
+import com.charginghive.station.service.StationCatalog;
+import com.charginghive.station.service.StationGeoIndex;
+import com.charginghive.station.service.StationTextIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * auth-service, station-service and booking-service started in this JVM, each in its
+ * own application context with its own H2 database. Eureka is switched off and the
+ * simple discovery client maps every service id to the local port it was started on,
+ * so the @LoadBalanced clients between the services work unchanged.
+ * Per-service settings live in loadtest-&lt;service&gt;.properties.
+ */
+@Slf4j
+public final class LocalStack implements AutoCloseable {
+
+    private final int authPort;
+    private final int stationPort;
+    private final int bookingPort;
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private ConfigurableApplicationContext station;
+    private ConfigurableApplicationContext booking;
+
+    private LocalStack() {
+        this.authPort = freePort();
+        this.stationPort = freePort();
+        this.bookingPort = freePort();
+    }
+
+    public static LocalStack start() {
+        LocalStack stack = new LocalStack();
+        try {
+            stack.run(AuthServiceApplication.class, "loadtest-auth", stack.authPort);
+            stack.station = stack.run(StationApplication.class, "loadtest-station", stack.stationPort);
+            stack.booking = stack.run(BookingServiceApplication.class, "loadtest-booking", stack.bookingPort);
+        } catch (RuntimeException e) {
+            stack.close();
+            throw e;
+        }
+        return stack;
+    }
+
+    public String authUrl() {
+        return "http://localhost:" + authPort;
+    }
+
+    public String stationUrl() {
+        return "http://localhost:" + stationPort;
+    }
+
+    public String bookingUrl() {
+        return "http://localhost:" + bookingPort;
+    }
+
+    /**
+     * Reruns the startup loads of the in-memory indexes and the ledger, for data written
+     * to the databases behind the services' backs
+     */
+    public void reloadFromDatabase() {
+        long started = System.currentTimeMillis();
+        station.getBean(StationCatalog.class).initialize();
+        station.getBean(StationGeoIndex.class).load();
+        station.getBean(StationTextIndex.class).load();
+        booking.getBean(PortScheduleIndex.class).load();
+        booking.getBean(EarningsLedger.class).initialize();
+        log.info("Reloaded station and booking indexes in {} ms", System.currentTimeMillis() - started);
+    }
+
+    private ConfigurableApplicationContext run(Class<?> application, String configName, int port) {
+        long started = System.currentTimeMillis();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(application)
+                .run("--spring.config.name=" + configName,
+                        "--server.port=" + port,
+                        discovery("AUTH-SERVICE", authPort),
+                        discovery("STATION-SERVICE", stationPort),
+                        discovery("BOOKING-SERVICE", bookingPort));
+        contexts.add(context);
+        log.info("Started {} on port {} in {} ms", application.getSimpleName(), port, System.currentTimeMillis() - started);
+        return context;
+    }
+
+    private static String discovery(String serviceId, int port) {
+        return "--spring.cloud.discovery.client.simple.instances[" + serviceId + "][0].uri=http://localhost:" + port;
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No free local port", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (int i = contexts.size() - 1; i >= 0; i--) {
+            contexts.get(i).close();
+        }
+        contexts.clear();
+    }
+}
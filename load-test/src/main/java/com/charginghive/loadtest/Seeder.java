@@ -0,0 +1,170 @@
+package com.charginghive.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntFunction;
+
+/**
+ * Creates the dataset through the public APIs, so every index, cache and change feed
+ * is populated the same way as in production: drivers and one owner through
+ * auth-service, then stations with ports around a few cities, approved by the admin
+ * endpoint of station-service.
+ */
+@Slf4j
+public final class Seeder {
+
+    public static final List<City> CITIES = List.of(
+            new City("Pune", "Maharashtra", "411", 18.5204, 73.8567, 3),
+            new City("Mumbai", "Maharashtra", "400", 19.0760, 72.8777, 5),
+            new City("Bengaluru", "Karnataka", "560", 12.9716, 77.5946, 4),
+            new City("Delhi", "Delhi", "110", 28.6139, 77.2090, 5),
+            new City("Hyderabad", "Telangana", "500", 17.3850, 78.4867, 3),
+            new City("Chennai", "Tamil Nadu", "600", 13.0827, 80.2707, 2));
+
+    private static final String[] CONNECTORS = {"CCS2", "CCS2", "Type2", "CHAdeMO"};
+    private static final double[] POWERS_KW = {7.4, 22, 50, 60, 150};
+    private static final String[] STREETS = {"MG Road", "Station Road", "Ring Road", "Link Road", "Market Street", "Lake View"};
+    // roughly 5 km; stations cluster around the city centre
+    private static final double SPREAD_DEGREES = 0.05;
+    private static final int CONCURRENCY = 16;
+
+    private final StackClient client;
+    private final LocalStack stack;
+    private final SplittableRandom random;
+
+    public Seeder(StackClient client, LocalStack stack, long seed) {
+        this.client = client;
+        this.stack = stack;
+        this.random = new SplittableRandom(seed);
+    }
+
+    public Dataset seed(int users, int stations, int portsPerStation) {
+        long started = System.currentTimeMillis();
+        long ownerId = register(0, "ROLE_OWNER");
+        List<Long> driverIds = parallel(users, i -> register(i + 1, "ROLE_DRIVER"));
+        log.info("Registered {} drivers and one owner in {} ms", driverIds.size(), System.currentTimeMillis() - started);
+
+        started = System.currentTimeMillis();
+        List<Map<String, Object>> requests = new ArrayList<>(stations);
+        for (int i = 0; i < stations; i++) {
+            requests.add(stationRequest(i, portsPerStation));
+        }
+        List<Long> stationIds = parallel(stations, i -> {
+            long id = client.post(null, stack.stationUrl() + "/stations", ownerId, requests.get(i))
+                    .requireBody("Create station").get("id").asLong();
+            StackClient.Response approval = client.put(null, stack.stationUrl() + "/stations/update-status", null,
+                    Map.of("stationId", id, "approved", true, "reason", "load test"));
+            if (!approval.ok()) {
+                throw new IllegalStateException("Approve station " + id + " failed with status " + approval.status());
+            }
+            return id;
+        });
+        log.info("Created and approved {} stations with {} ports each in {} ms",
+                stationIds.size(), portsPerStation, System.currentTimeMillis() - started);
+        return new Dataset(ownerId, driverIds, stationIds);
+    }
+
+    private long register(int index, String role) {
+        Map<String, Object> request = Map.of(
+                "firstName", "Load",
+                "lastName", "Tester" + index,
+                "email", "driver" + index + "@loadtest.local",
+                "phoneNumber", String.format("9%09d", index),
+                "password", "loadtest-password",
+                "userRole", role);
+        return client.post(null, stack.authUrl() + "/auth/register", null, request)
+                .requireBody("Register user " + index).get("id").asLong();
+    }
+
+    private Map<String, Object> stationRequest(int index, int portsPerStation) {
+        City city = pickCity(random);
+        List<Map<String, Object>> ports = new ArrayList<>();
+        for (int p = 0; p < portsPerStation; p++) {
+            double power = POWERS_KW[random.nextInt(POWERS_KW.length)];
+            ports.add(Map.of(
+                    "connectorType", CONNECTORS[random.nextInt(CONNECTORS.length)],
+                    "maxPowerKw", power,
+                    "pricePerHour", Math.round((40 + power * 8) * 100) / 100.0));
+        }
+        double[] point = city.around(random, SPREAD_DEGREES);
+        return Map.of(
+                "name", city.name() + " Charging Hub " + (index + 1),
+                "address", (1 + random.nextInt(200)) + " " + STREETS[random.nextInt(STREETS.length)],
+                "city", city.name(),
+                "state", city.state(),
+                "latitude", point[0],
+                "longitude", point[1],
+                "postalCode", city.postalPrefix() + String.format("%03d", random.nextInt(1000)),
+                "ports", ports);
+    }
+
+    /**
+     * A city, chosen with probability proportional to its weight
+     */
+    public static City pickCity(SplittableRandom random) {
+        int total = CITIES.stream().mapToInt(City::weight).sum();
+        int pick = random.nextInt(total);
+        for (City city : CITIES) {
+            pick -= city.weight();
+            if (pick < 0) {
+                return city;
+            }
+        }
+        return CITIES.get(0);
+    }
+
+    private static <T> List<T> parallel(int count, IntFunction<T> task) {
+        Semaphore permits = new Semaphore(CONCURRENCY);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<T>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return task.apply(index);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            List<T> results = new ArrayList<>(count);
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Seeding failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Seeding was interrupted", e);
+        }
+    }
+
+    public record City(String name, String state, String postalPrefix, double lat, double lng, int weight) {
+
+        /**
+         * A point normally distributed around the city centre
+         */
+        public double[] around(SplittableRandom random, double spreadDegrees) {
+            return new double[]{lat + gaussian(random) * spreadDegrees, lng + gaussian(random) * spreadDegrees};
+        }
+
+        // Box-Muller, SplittableRandom has no nextGaussian
+        private static double gaussian(SplittableRandom random) {
+            return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+        }
+    }
+
+    public record Dataset(long ownerId, List<Long> driverIds, List<Long> stationIds) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.charginghive.loadtest;
+
+import java.util.Locale;
+
+/**
+ * What one simulated driver does in a session
+ */
+public enum SessionType {
+
+    /** nearby search, availability of one station, create a booking, list own bookings */
+    BOOK(4),
+    /** nearby search and availability of one station, no booking */
+    BROWSE(2),
+    /** list own bookings */
+    HISTORY(1);
+
+    // requests a completed session sends, used to turn the request rate into a session rate
+    private final int requests;
+
+    SessionType(int requests) {
+        this.requests = requests;
+    }
+
+    public int requests() {
+        return requests;
+    }
+
+    static SessionType of(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,114 @@
+package com.charginghive.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * JSON over HTTP to the services, the way the gateway calls them: the caller's user id
+ * goes in X-User-Id. Calls made with an endpoint label are timed into the recorder.
+ */
+public final class StackClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final LatencyRecorder recorder;
+
+    public StackClient(LatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    public Response get(String endpoint, String url, Long userId) {
+        return send(endpoint, request(url, userId).GET());
+    }
+
+    public Response post(String endpoint, String url, Long userId, Object body) {
+        return send(endpoint, request(url, userId).POST(HttpRequest.BodyPublishers.ofByteArray(json(body))));
+    }
+
+    public Response put(String endpoint, String url, Long userId, Object body) {
+        return send(endpoint, request(url, userId).PUT(HttpRequest.BodyPublishers.ofByteArray(json(body))));
+    }
+
+    private HttpRequest.Builder request(String url, Long userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+        if (userId != null) {
+            builder.header("X-User-Id", userId.toString());
+        }
+        return builder;
+    }
+
+    private Response send(String endpoint, HttpRequest.Builder request) {
+        long started = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (endpoint != null) {
+                recorder.record(endpoint, response.statusCode(), System.nanoTime() - started);
+            }
+            return new Response(response.statusCode(), parse(response.body()));
+        } catch (IOException e) {
+            if (endpoint != null) {
+                recorder.record(endpoint, 0, System.nanoTime() - started);
+            }
+            return new Response(0, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(0, null);
+        }
+    }
+
+    private byte[] json(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize request body", e);
+        }
+    }
+
+    // error bodies are not always JSON; those come back as null
+    private JsonNode parse(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Status code, 0 when no response arrived, and the parsed JSON body if there was one
+     */
+    public record Response(int status, JsonNode body) {
+
+        public boolean ok() {
+            return status >= 200 && status < 300;
+        }
+
+        public JsonNode requireBody(String what) {
+            if (!ok() || body == null) {
+                throw new IllegalStateException(what + " failed with status " + status + ": " + body);
+            }
+            return body;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.charginghive.station.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Completes the stations.location column that ddl-auto cannot express.
+ * MySQL only builds a SPATIAL index on a NOT NULL geometry column, but the column
+ * has to be added as nullable to tables that already hold rows. So on startup the
+ * missing points are filled in from latitude/longitude, the column is tightened
+ * and the index is created once.
+ */
+@Component
+@Slf4j
+public class StationLocationSchema {
+
+    private static final String INDEX_NAME = "idx_stations_location";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StationLocationSchema(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureSpatialIndex() {
+        if (!isMySql()) {
+            log.info("Skipping spatial index setup, database is not MySQL");
+            return;
+        }
+        int filled = jdbcTemplate.update("UPDATE stations SET location = ST_SRID(POINT(COALESCE(longitude, 0), COALESCE(latitude, 0)), 0) " +
+                "WHERE location IS NULL");
+        if (filled > 0) {
+            log.info("Filled location of {} stations", filled);
+        }
+
+        String nullable = jdbcTemplate.queryForObject("SELECT IS_NULLABLE FROM information_schema.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'stations' AND COLUMN_NAME = 'location'", String.class);
+        if ("YES".equals(nullable)) {
+            jdbcTemplate.execute("ALTER TABLE stations MODIFY location POINT NOT NULL SRID 0");
+        }
+
+        Integer indexes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.STATISTICS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'stations' AND INDEX_NAME = ?", Integer.class, INDEX_NAME);
+        if (indexes == null || indexes == 0) {
+            jdbcTemplate.execute("CREATE SPATIAL INDEX " + INDEX_NAME + " ON stations (location)");
+            log.info("Created spatial index {}", INDEX_NAME);
+        }
+    }
+
+    private boolean isMySql() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return product != null && product.toLowerCase().contains("mysql");
+    }
+}
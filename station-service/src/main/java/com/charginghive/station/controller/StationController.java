@@ -3,14 +3,18 @@ package com.charginghive.station.controller;
 
 import com.charginghive.station.dto.*;
 import com.charginghive.station.service.StationService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/stations")
@@ -19,6 +23,8 @@ import java.util.List;
 @Slf4j
 public class StationController {
 
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     private final StationService stationService;
 
     @PostMapping
@@ -29,8 +35,15 @@ public class StationController {
 
     //to get all stations
     @GetMapping
-    public ResponseEntity<List<StationDto>> getAllStations() {
-        return ResponseEntity.ok(stationService.getAllStations());
+    public ResponseEntity<List<StationDto>> getAllStations(WebRequest request) {
+        return versioned(request, stationService::getAllStations);
+    }
+
+    // stations written or deleted after a catalog version, for incremental sync
+    @GetMapping("/changes")
+    public ResponseEntity<StationChangesDto> changes(@RequestParam(defaultValue = "0") long since,
+                                                     @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(stationService.getChangesSince(since, limit));
     }
 
 
@@ -55,9 +68,10 @@ public class StationController {
 
     // added: list stations by owner
     @GetMapping("/get-station-by-owner")
-    public ResponseEntity<List<StationDto>> getStationsByOwner(@RequestHeader("X-User-Id") Long ownerId) {
+    public ResponseEntity<List<StationDto>> getStationsByOwner(@RequestHeader("X-User-Id") Long ownerId,
+                                                               WebRequest request) {
         log.info("Received request to get stations by owner: {}", ownerId);
-        return ResponseEntity.ok(stationService.getByOwner(ownerId));
+        return versioned(request, ownerId, () -> stationService.getByOwner(ownerId));
     }
 
     //to approve/reject a station for admin only
@@ -97,16 +111,21 @@ public class StationController {
 
     //to get unapproved stations
     @GetMapping("/unapproved")
-    public ResponseEntity<List<StationDto>> getUnapprovedStations() {
-        return ResponseEntity.ok(stationService.getUnapprovedStations());
+    public ResponseEntity<List<StationDto>> getUnapprovedStations(WebRequest request) {
+        return versioned(request, stationService::getUnapprovedStations);
     }
 
-    // search
+    // search, ranked by text relevance; the total number of matches goes in X-Total-Count
     @GetMapping("/search")
     public ResponseEntity<List<StationDto>> searchStations(@RequestParam(required = false) String query,
                                                            @RequestParam(required = false) String city,
-                                                           @RequestParam(required = false) Boolean available) {
-        return ResponseEntity.ok(stationService.searchStations(query, city,available));
+                                                           @RequestParam(required = false) Boolean available,
+                                                           @RequestParam(required = false) Integer page,
+                                                           @RequestParam(required = false) Integer size) {
+        Page<StationDto> result = stationService.searchStations(query, city, available, page, size);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(result.getTotalElements()))
+                .body(result.getContent());
     }
 
     // nearby
@@ -117,13 +136,37 @@ public class StationController {
         return ResponseEntity.ok(stationService.findNearby(lat, lng, radiusKm));
     }
 
-    // availability
+    // k nearest stations, optionally only those with a matching port
+    @GetMapping("/nearest")
+    public ResponseEntity<List<NearestStationDto>> nearest(@RequestParam double lat,
+                                                           @RequestParam double lng,
+                                                           @RequestParam(defaultValue = "5") int k,
+                                                           @RequestParam(required = false) String connector,
+                                                           @RequestParam(required = false) Double minKw) {
+        return ResponseEntity.ok(stationService.findNearest(lat, lng, k, connector, minKw));
+    }
+
+    // stations along a route (encoded polyline) within a corridor width
+    @PostMapping("/along-route")
+    public ResponseEntity<List<RouteStationDto>> alongRoute(@Valid @RequestBody RouteSearchRequestDto request) {
+        return ResponseEntity.ok(stationService.findAlongRoute(request.getPolyline(), request.getCorridorKm()));
+    }
+
+    // availability: port x slot matrix of one day
     @GetMapping("/{stationId}/availability")
-    public ResponseEntity<List<String>> availability(@PathVariable Long stationId,
-                                                     @RequestParam String date) {
+    public ResponseEntity<StationAvailabilityDto> availability(@PathVariable Long stationId,
+                                                               @RequestParam String date) {
         return ResponseEntity.ok(stationService.getAvailability(stationId, date));
     }
 
+    // called by booking service when a booking change makes a cached day stale
+    @DeleteMapping("/{stationId}/availability/cache")
+    public ResponseEntity<Void> evictAvailability(@PathVariable Long stationId,
+                                                  @RequestParam(required = false) String date) {
+        stationService.evictAvailability(stationId, date);
+        return ResponseEntity.noContent().build();
+    }
+
     // --- Endpoints for Booking Service Integration ---
 
     /**
@@ -146,14 +189,31 @@ public class StationController {
         return ResponseEntity.ok(portInfo);
     }
 
+    /**
+     * Bulk station lookup by ids - used by booking and admin service
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<List<StationSummaryDto>> lookupStations(@RequestBody List<Long> stationIds) {
+        log.info("Looking up {} stations", stationIds.size());
+        return ResponseEntity.ok(stationService.lookupStations(stationIds));
+    }
+
+    /**
+     * Bulk port lookup by (stationId, portId) pairs - used by booking and admin service
+     */
+    @PostMapping("/ports/lookup")
+    public ResponseEntity<List<PortSummaryDto>> lookupPorts(@RequestBody List<PortRefDto> portRefs) {
+        log.info("Looking up {} ports", portRefs.size());
+        return ResponseEntity.ok(stationService.lookupPorts(portRefs));
+    }
+
     /**
      * Get approved stations only - for booking service to show available stations
      */
     @GetMapping("/approved")
-    public ResponseEntity<List<StationDto>> getApprovedStations() {
+    public ResponseEntity<List<StationDto>> getApprovedStations(WebRequest request) {
         log.info("Getting all approved stations");
-        List<StationDto> approvedStations = stationService.getApprovedStations();
-        return ResponseEntity.ok(approvedStations);
+        return versioned(request, stationService::getApprovedStations);
     }
 
     /**
@@ -165,4 +225,27 @@ public class StationController {
         return ResponseEntity.ok(stationService.getTotalEarningsFromAStaion(stationId));
     }
 
+    /**
+     * Serve a station list under a strong ETag of the catalog version, 304 when the
+     * client already holds it. The version is read before the list, so a write landing
+     * in between only makes the next request refetch.
+     */
+    private <T> ResponseEntity<T> versioned(WebRequest request, Supplier<T> body) {
+        String etag = "\"" + stationService.getCatalogVersion() + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(body.get());
+    }
+
+    // a list that depends on the caller: the tag carries the owner and caches key on X-User-Id,
+    // so one owner's copy never validates for another
+    private <T> ResponseEntity<T> versioned(WebRequest request, Long ownerId, Supplier<T> body) {
+        String etag = "\"" + stationService.getCatalogVersion() + "-" + ownerId + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy("X-User-Id").build();
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy("X-User-Id").body(body.get());
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.charginghive.station.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// a port held by a booking, as returned by booking service
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookedIntervalDto {
+    private Long portId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+}
@@ -0,0 +1,14 @@
+package com.charginghive.station.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// a station returned by the nearest search with its distance from the query point
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NearestStationDto {
+    private StationDto station;
+    private double distanceKm;
+}
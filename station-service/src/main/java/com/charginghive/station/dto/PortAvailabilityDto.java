@@ -0,0 +1,19 @@
+package com.charginghive.station.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row of the availability matrix: character i of free is '1' when the
+ * port is free during slot i, '0' when it is booked
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PortAvailabilityDto {
+    private Long portId;
+    private String connectorType;
+    private double maxPowerKw;
+    private String free;
+}
@@ -0,0 +1,17 @@
+package com.charginghive.station.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// (stationId, portId) pair used by the bulk port lookup
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PortRefDto {
+    @NotNull
+    private Long stationId;
+    @NotNull
+    private Long portId;
+}
@@ -0,0 +1,17 @@
+package com.charginghive.station.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// compact port view returned by bulk lookups, carries its station id
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PortSummaryDto {
+    private Long id;
+    private Long stationId;
+    private String connectorType;
+    private double maxPowerKw;
+    private Double pricePerHour;
+}
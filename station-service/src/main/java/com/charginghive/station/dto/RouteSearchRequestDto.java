@@ -0,0 +1,18 @@
+package com.charginghive.station.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RouteSearchRequestDto {
+    // route in the Google encoded polyline format
+    @NotBlank
+    private String polyline;
+    @Positive
+    private double corridorKm = 2;
+}
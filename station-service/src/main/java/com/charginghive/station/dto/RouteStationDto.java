@@ -0,0 +1,15 @@
+package com.charginghive.station.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// a station inside a route corridor, placed on the route
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RouteStationDto {
+    private StationDto station;
+    private double distanceAlongRouteKm;
+    private double distanceFromRouteKm;
+}
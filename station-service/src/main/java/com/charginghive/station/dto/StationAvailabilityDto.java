@@ -0,0 +1,25 @@
+package com.charginghive.station.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Port x slot availability of a station for one day.
+ * slots holds the start of every slot; freeSlots those where at least one port is free.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StationAvailabilityDto {
+    private Long stationId;
+    private LocalDate date;
+    private int slotMinutes;
+    private List<LocalDateTime> slots;
+    private List<PortAvailabilityDto> ports;
+    private List<LocalDateTime> freeSlots;
+}
@@ -0,0 +1,22 @@
+package com.charginghive.station.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Stations written and deleted after a catalog version.
+ * version is what the client passes as since on its next call; hasMore means
+ * that call returns further changes straight away.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StationChangesDto {
+    private long version;
+    private boolean hasMore;
+    private List<StationDto> stations;
+    private List<Long> deletedIds;
+}
@@ -0,0 +1,22 @@
+package com.charginghive.station.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// compact station view returned by bulk lookups (no ports)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StationSummaryDto {
+    private Long id;
+    private String name;
+    private String address;
+    private String city;
+    private String state;
+    private String postalCode;
+    private Double latitude;
+    private Double longitude;
+    private boolean isApproved;
+    private Long ownerId;
+}
@@ -0,0 +1,49 @@
+package com.charginghive.station.mapper;
+
+import com.charginghive.station.dto.CreatePortRequestDto;
+import com.charginghive.station.dto.CreateStationRequestDto;
+import com.charginghive.station.dto.StationDto;
+import com.charginghive.station.dto.StationPortDto;
+import com.charginghive.station.dto.UpdateStationRequestDto;
+import com.charginghive.station.model.Station;
+import com.charginghive.station.model.StationPort;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Maps stations and ports to their DTOs and applies create and update requests to them
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface StationMapper {
+
+    StationDto toDto(Station station);
+
+    StationPortDto toDto(StationPort port);
+
+    // ports are attached by the service so each one gets its parent station set
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "location", ignore = true)
+    @Mapping(target = "approved", ignore = true)
+    @Mapping(target = "ownerId", ignore = true)
+    @Mapping(target = "ports", ignore = true)
+    Station toEntity(CreateStationRequestDto request);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "station", ignore = true)
+    StationPort toEntity(CreatePortRequestDto request);
+
+    /**
+     * Partial update: only the non-null fields of the request are copied
+     */
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "location", ignore = true)
+    @Mapping(target = "approved", ignore = true)
+    @Mapping(target = "ownerId", ignore = true)
+    @Mapping(target = "ports", ignore = true)
+    void update(UpdateStationRequestDto request, @MappingTarget Station station);
+}
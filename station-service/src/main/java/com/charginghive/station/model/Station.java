@@ -5,6 +5,11 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -15,6 +20,10 @@ import java.util.Set;
 @AllArgsConstructor
 @NoArgsConstructor
 public class Station {
+    // planar (x = longitude, y = latitude) points, the SRID the spatial index is declared with
+    public static final int LOCATION_SRID = 0;
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(), LOCATION_SRID);
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -42,6 +51,10 @@ public class Station {
     @NotNull(message = "Longitude is required")
     private Double longitude;
 
+    // Derived from latitude/longitude on every write; backs the SPATIAL index used by nearby search
+    @Column(columnDefinition = "POINT SRID 0")
+    private Point location;
+
 
     @NotBlank(message = "Postal code is required")
     @Size(min = 4, max = 20, message = "Postal code must be between 4 and 20 characters")
@@ -58,6 +71,18 @@ public class Station {
     private Long ownerId;
 
     // A station can have multiple charging ports
+    // paths that still load ports lazily initialise them for up to 100 stations per query
     @OneToMany(mappedBy = "station", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     private Set<StationPort> ports = new HashSet<>();
+
+    @PrePersist
+    @PreUpdate
+    void syncLocation() {
+        double x = longitude == null ? 0 : longitude;
+        double y = latitude == null ? 0 : latitude;
+        if (location == null || location.getX() != x || location.getY() != y) {
+            location = GEOMETRY_FACTORY.createPoint(new Coordinate(x, y));
+        }
+    }
 }
@@ -0,0 +1,27 @@
+package com.charginghive.station.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single-row counter of the station catalog, bumped by every station or port write.
+ * The increment locks the row until the writing transaction commits, so versions
+ * become visible in the order they were handed out.
+ */
+@Entity
+@Table(name = "station_catalog_version")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StationCatalogVersion {
+
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private long version;
+}
@@ -0,0 +1,28 @@
+package com.charginghive.station.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Catalog version at which a station was last written. Rows of deleted stations
+ * stay behind as tombstones so syncing clients learn about the deletion.
+ */
+@Entity
+@Table(name = "station_changes", indexes = @Index(name = "idx_station_changes_version", columnList = "version"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StationChange {
+
+    @Id
+    @Column(name = "station_id")
+    private Long stationId;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(nullable = false)
+    private boolean deleted;
+}
@@ -0,0 +1,21 @@
+package com.charginghive.station.repository;
+
+import com.charginghive.station.model.StationCatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StationCatalogVersionRepository extends JpaRepository<StationCatalogVersion, Long> {
+
+    // atomic increment, 0 when the counter row does not exist yet
+    @Modifying
+    @Query("UPDATE StationCatalogVersion c SET c.version = c.version + 1 WHERE c.id = 1")
+    int increment();
+
+    @Query("SELECT c.version FROM StationCatalogVersion c WHERE c.id = 1")
+    Optional<Long> currentVersion();
+}
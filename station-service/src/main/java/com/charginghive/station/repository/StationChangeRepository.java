@@ -0,0 +1,30 @@
+package com.charginghive.station.repository;
+
+import com.charginghive.station.model.StationChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StationChangeRepository extends JpaRepository<StationChange, Long> {
+
+    List<StationChange> findByVersionGreaterThanOrderByVersionAsc(long version, Limit limit);
+
+    // stations written before change tracking existed get a row at the given version
+    @Modifying
+    @Query(value = "INSERT INTO station_changes (station_id, version, deleted) " +
+                   "SELECT s.id, :version, false FROM stations s " +
+                   "LEFT JOIN station_changes c ON c.station_id = s.id WHERE c.station_id IS NULL",
+           nativeQuery = true)
+    int backfill(@Param("version") long version);
+
+    @Query(value = "SELECT COUNT(*) FROM stations s " +
+                   "LEFT JOIN station_changes c ON c.station_id = s.id WHERE c.station_id IS NULL",
+           nativeQuery = true)
+    long countUntracked();
+}
@@ -1,9 +1,25 @@
 package com.charginghive.station.repository;
 
+import com.charginghive.station.dto.PortSummaryDto;
 import com.charginghive.station.model.StationPort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface StationPortRepository extends JpaRepository<StationPort, Long> {
+
+    Optional<StationPort> findByIdAndStationId(Long id, Long stationId);
+
+    List<StationPort> findByStationIdOrderById(Long stationId);
+
+    // bulk lookup resolved with a single IN query, projected straight into DTOs
+    @Query("SELECT new com.charginghive.station.dto.PortSummaryDto(p.id, p.station.id, p.connectorType, p.maxPowerKw, p.pricePerHour) " +
+           "FROM StationPort p WHERE p.id IN :ids")
+    List<PortSummaryDto> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
 }
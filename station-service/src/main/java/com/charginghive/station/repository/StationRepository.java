@@ -1,15 +1,51 @@
 package com.charginghive.station.repository;
 
+import com.charginghive.station.dto.StationSummaryDto;
 import com.charginghive.station.model.Station;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor; // added for dynamic filtering
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface StationRepository extends JpaRepository<Station, Long>, JpaSpecificationExecutor<Station> { // added JpaSpecificationExecutor
-    List<Station> findByIsApprovedFalse();
-    List<Station> findByIsApprovedTrue();
-    List<Station> findByOwnerId(Long ownerId);
+    // list queries fetch the ports in the same query so rendering a list costs one round trip
+    @EntityGraph(attributePaths = "ports")
+    List<Station> findAllWithPortsBy();
+
+    @EntityGraph(attributePaths = "ports")
+    List<Station> findWithPortsByIsApprovedFalse();
+
+    // approved stations with their ports in one query, also used to build the geo index
+    @EntityGraph(attributePaths = "ports")
+    List<Station> findWithPortsByIsApprovedTrue();
+
+    @EntityGraph(attributePaths = "ports")
+    List<Station> findWithPortsByOwnerId(Long ownerId);
+
+    // stations with their ports in one query, used to render a page of search results
+    @EntityGraph(attributePaths = "ports")
+    List<Station> findWithPortsByIdIn(Collection<Long> ids);
+
+    // bulk lookup resolved with a single IN query, projected straight into DTOs
+    @Query("SELECT new com.charginghive.station.dto.StationSummaryDto(s.id, s.name, s.address, s.city, s.state, " +
+           "s.postalCode, s.latitude, s.longitude, s.isApproved, s.ownerId) " +
+           "FROM Station s WHERE s.id IN :ids")
+    List<StationSummaryDto> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // bounding-box prefilter served by the SPATIAL index on location (x = longitude, y = latitude),
+    // approved stations only like the geo index
+    @Query(value = "SELECT * FROM stations s " +
+                   "WHERE MBRIntersects(ST_MakeEnvelope(POINT(:minLng, :minLat), POINT(:maxLng, :maxLat)), s.location) " +
+                   "AND s.is_approved = TRUE",
+           nativeQuery = true)
+    List<Station> findInBoundingBox(@Param("minLat") double minLat,
+                                    @Param("minLng") double minLng,
+                                    @Param("maxLat") double maxLat,
+                                    @Param("maxLng") double maxLng);
 }
@@ -0,0 +1,47 @@
+package com.charginghive.station.repository;
+
+import com.charginghive.station.model.Station;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+/**
+ * Reusable station filters for search queries
+ */
+public final class StationSpecifications {
+
+    private StationSpecifications() {
+    }
+
+    public static Specification<Station> all() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+
+    public static Specification<Station> inCity(String city) {
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("city")), city.toLowerCase());
+    }
+
+    // EXISTS sub-select on the ports table, the ports themselves are never loaded
+    public static Specification<Station> hasPorts() {
+        return (root, query, cb) -> cb.isNotEmpty(root.get("ports"));
+    }
+
+    public static Specification<Station> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Combine optional filters, null arguments are ignored.
+     * available=false keeps every station, as the search endpoint always did.
+     */
+    public static Specification<Station> matching(String city, Boolean available) {
+        Specification<Station> spec = all();
+        if (city != null) {
+            spec = spec.and(inCity(city));
+        }
+        if (Boolean.TRUE.equals(available)) {
+            spec = spec.and(hasPorts());
+        }
+        return spec;
+    }
+}
@@ -0,0 +1,169 @@
+package com.charginghive.station.service;
+
+import com.charginghive.station.dto.RouteStationDto;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Finds stations inside a corridor around a route given as an encoded polyline.
+ * The route's segments are put in a JTS STRtree keyed by their lat/lng envelope
+ * grown by the corridor width, the same boxes the geo index walks for candidates.
+ * Each candidate is measured only against the segments whose box holds it, on the
+ * sphere: cross-track distance from the segment's great circle, clamped to its ends,
+ * gives its distance from the route and along-track distance its position along it.
+ */
+@Component
+public class RouteCorridorSearch {
+
+    static final int MAX_ROUTE_POINTS = 5000;
+    static final double MAX_CORRIDOR_KM = 50;
+
+    private final StationGeoIndex stationGeoIndex;
+
+    public RouteCorridorSearch(StationGeoIndex stationGeoIndex) {
+        this.stationGeoIndex = stationGeoIndex;
+    }
+
+    public List<RouteStationDto> search(String encodedPolyline, double corridorKm) {
+        if (!(corridorKm > 0 && corridorKm <= MAX_CORRIDOR_KM)) {
+            throw new IllegalArgumentException("Corridor width must be positive and at most " + MAX_CORRIDOR_KM + " km");
+        }
+        double[][] route = decodePolyline(encodedPolyline);
+        double[] lats = route[0];
+        double[] lngs = route[1];
+        if (lats.length == 0) {
+            throw new IllegalArgumentException("Route must have at least one point");
+        }
+
+        // a single point is a segment of length zero
+        int segments = Math.max(1, lats.length - 1);
+        double[] segmentKm = new double[segments];
+        double[] lengthBefore = new double[segments];
+        double dLat = Math.toDegrees(corridorKm / StationGeoIndex.EARTH_RADIUS_KM);
+        STRtree segmentTree = new STRtree();
+        double length = 0;
+        for (int i = 0; i < segments; i++) {
+            int j = Math.min(i + 1, lats.length - 1);
+            segmentKm[i] = StationGeoIndex.distanceKm(lats[i], lngs[i], lats[j], lngs[j]);
+            lengthBefore[i] = length;
+            length += segmentKm[i];
+            Envelope envelope = new Envelope(lngs[i], lngs[j], lats[i], lats[j]);
+            double maxAbsLat = Math.min(90, Math.max(Math.abs(lats[i]), Math.abs(lats[j])) + dLat);
+            double dLng = maxAbsLat < 90
+                    ? Math.toDegrees(corridorKm / (StationGeoIndex.EARTH_RADIUS_KM * Math.cos(Math.toRadians(maxAbsLat))))
+                    : 360;
+            envelope.expandBy(dLng, dLat);
+            segmentTree.insert(envelope, i);
+        }
+        segmentTree.build();
+
+        List<RouteStationDto> result = new ArrayList<>();
+        stationGeoIndex.forEachNearRoute(lats, lngs, corridorKm, (id, lat, lng, station) -> {
+            double[] nearest = {Double.MAX_VALUE, 0};
+            segmentTree.query(new Envelope(lng, lng, lat, lat), item -> {
+                int i = (Integer) item;
+                int j = Math.min(i + 1, lats.length - 1);
+                double[] onSegment = nearestOnSegment(lats[i], lngs[i], lats[j], lngs[j], segmentKm[i], lat, lng);
+                if (onSegment[0] < nearest[0]) {
+                    nearest[0] = onSegment[0];
+                    nearest[1] = lengthBefore[i] + onSegment[1];
+                }
+            });
+            if (nearest[0] <= corridorKm) {
+                result.add(new RouteStationDto(station, nearest[1], nearest[0]));
+            }
+        });
+        result.sort(Comparator.comparingDouble(RouteStationDto::getDistanceAlongRouteKm));
+        return result;
+    }
+
+    /**
+     * Distance in km from the point to the great-circle segment a-b, and how far along
+     * the segment from a the closest point lies
+     */
+    static double[] nearestOnSegment(double aLat, double aLng, double bLat, double bLng, double segmentKm,
+                                     double lat, double lng) {
+        double fromA = StationGeoIndex.distanceKm(aLat, aLng, lat, lng);
+        if (segmentKm == 0) {
+            return new double[]{fromA, 0};
+        }
+        double angle = fromA / StationGeoIndex.EARTH_RADIUS_KM;
+        double bearingDifference = bearing(aLat, aLng, lat, lng) - bearing(aLat, aLng, bLat, bLng);
+        double alongKm = StationGeoIndex.EARTH_RADIUS_KM
+                * Math.atan2(Math.sin(angle) * Math.cos(bearingDifference), Math.cos(angle));
+        if (alongKm <= 0) {
+            return new double[]{fromA, 0};
+        }
+        if (alongKm >= segmentKm) {
+            return new double[]{StationGeoIndex.distanceKm(bLat, bLng, lat, lng), segmentKm};
+        }
+        double crossKm = StationGeoIndex.EARTH_RADIUS_KM
+                * Math.abs(Math.asin(Math.sin(angle) * Math.sin(bearingDifference)));
+        return new double[]{crossKm, alongKm};
+    }
+
+    // initial bearing from the first point to the second, radians
+    private static double bearing(double fromLat, double fromLng, double toLat, double toLng) {
+        double phi1 = Math.toRadians(fromLat);
+        double phi2 = Math.toRadians(toLat);
+        double dLng = Math.toRadians(toLng - fromLng);
+        return Math.atan2(Math.sin(dLng) * Math.cos(phi2),
+                Math.cos(phi1) * Math.sin(phi2) - Math.sin(phi1) * Math.cos(phi2) * Math.cos(dLng));
+    }
+
+    /**
+     * Decode a polyline in the Google encoded polyline format (precision 1e-5)
+     * into {latitudes, longitudes}
+     */
+    static double[][] decodePolyline(String encoded) {
+        if (encoded == null || encoded.isBlank()) {
+            throw new IllegalArgumentException("Polyline is required");
+        }
+        double[] lats = new double[Math.min(MAX_ROUTE_POINTS, encoded.length() / 2 + 1)];
+        double[] lngs = new double[lats.length];
+        int count = 0;
+        int index = 0;
+        int lat = 0;
+        int lng = 0;
+        while (index < encoded.length()) {
+            if (count == lats.length) {
+                throw new IllegalArgumentException("Route must not have more than " + MAX_ROUTE_POINTS + " points");
+            }
+            int[] next = {index};
+            lat += decodeValue(encoded, next);
+            lng += decodeValue(encoded, next);
+            index = next[0];
+            lats[count] = lat / 1e5;
+            lngs[count] = lng / 1e5;
+            if (Math.abs(lats[count]) > 90 || Math.abs(lngs[count]) > 180) {
+                throw new IllegalArgumentException("Polyline contains coordinates out of range");
+            }
+            count++;
+        }
+        return new double[][]{Arrays.copyOf(lats, count), Arrays.copyOf(lngs, count)};
+    }
+
+    private static int decodeValue(String encoded, int[] position) {
+        int result = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (position[0] >= encoded.length() || shift > 30) {
+                throw new IllegalArgumentException("Malformed polyline");
+            }
+            b = encoded.charAt(position[0]++) - 63;
+            if (b < 0 || b > 63) {
+                throw new IllegalArgumentException("Malformed polyline");
+            }
+            result |= (b & 0x1f) << shift;
+            shift += 5;
+        } while (b >= 0x20);
+        return (result & 1) != 0 ? ~(result >> 1) : (result >> 1);
+    }
+}
@@ -0,0 +1,176 @@
+package com.charginghive.station.service;
+
+import com.charginghive.station.customException.NotFoundException;
+import com.charginghive.station.dto.BookedIntervalDto;
+import com.charginghive.station.dto.PortAvailabilityDto;
+import com.charginghive.station.dto.StationAvailabilityDto;
+import com.charginghive.station.model.StationPort;
+import com.charginghive.station.repository.StationPortRepository;
+import com.charginghive.station.repository.StationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Slot availability of every port of a station for one day.
+ * The BOOKED intervals of all the station's ports come from booking service in one
+ * call and are rasterized into a busy bitset per port; the resulting port x slot
+ * matrix is cached per (station, day). Booking service evicts the days a booking
+ * change touches, port changes evict the station, and entries also expire on their own
+ * so a missed eviction only leaves a matrix stale for a short while.
+ */
+@Component
+@Slf4j
+public class StationAvailability {
+
+    private final StationRepository stationRepository;
+    private final StationPortRepository stationPortRepository;
+    private final RestClient bookingClient;
+    private final LocalTime opening;
+    private final LocalTime closing;
+    private final int slotMinutes;
+    private final int slotCount;
+    private final Cache<Key, StationAvailabilityDto> cache;
+
+    public StationAvailability(StationRepository stationRepository,
+                               StationPortRepository stationPortRepository,
+                               RestClient.Builder restClientBuilder,
+                               @Value("${station.availability.opening:08:00}") String opening,
+                               @Value("${station.availability.closing:20:00}") String closing,
+                               @Value("${station.availability.slot-minutes:30}") int slotMinutes,
+                               @Value("${station.availability.cache.expire-after:60s}") Duration expireAfter,
+                               @Value("${station.availability.cache.max-size:10000}") long maxSize) {
+        this.stationRepository = stationRepository;
+        this.stationPortRepository = stationPortRepository;
+        this.bookingClient = restClientBuilder.baseUrl("http://BOOKING-SERVICE").build();
+        this.opening = LocalTime.parse(opening);
+        this.closing = LocalTime.parse(closing);
+        this.slotMinutes = slotMinutes;
+        long openMinutes = Duration.between(this.opening, this.closing).toMinutes();
+        if (slotMinutes <= 0 || openMinutes <= 0 || openMinutes % slotMinutes != 0) {
+            throw new IllegalStateException("Opening hours must be a positive whole number of slots");
+        }
+        this.slotCount = (int) (openMinutes / slotMinutes);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfter)
+                .build();
+    }
+
+    public StationAvailabilityDto get(Long stationId, LocalDate date) {
+        return cache.get(new Key(stationId, date), this::compute);
+    }
+
+    /**
+     * Drop the cached matrix of one day, or of every day when date is null
+     */
+    public void evict(Long stationId, LocalDate date) {
+        if (date != null) {
+            cache.invalidate(new Key(stationId, date));
+        } else {
+            cache.asMap().keySet().removeIf(key -> key.stationId().equals(stationId));
+        }
+    }
+
+    /**
+     * Drop every cached day of a station once the port changes of the current transaction commit
+     */
+    public void evictAfterCommit(Long stationId) {
+        AfterCommit.run(() -> evict(stationId, null));
+    }
+
+    private StationAvailabilityDto compute(Key key) {
+        List<StationPort> ports = stationPortRepository.findByStationIdOrderById(key.stationId());
+        if (ports.isEmpty() && !stationRepository.existsById(key.stationId())) {
+            throw new NotFoundException("Station not found with id=" + key.stationId());
+        }
+        LocalDateTime dayStart = key.date().atTime(opening);
+        LocalDateTime dayEnd = key.date().atTime(closing);
+
+        Map<Long, Integer> rowByPort = new HashMap<>();
+        BitSet[] busy = new BitSet[ports.size()];
+        for (int row = 0; row < busy.length; row++) {
+            rowByPort.put(ports.get(row).getId(), row);
+            busy[row] = new BitSet(slotCount);
+        }
+        if (!ports.isEmpty()) {
+            long slotSeconds = slotMinutes * 60L;
+            for (BookedIntervalDto interval : fetchBookedIntervals(key.stationId(), dayStart, dayEnd)) {
+                Integer row = rowByPort.get(interval.getPortId());
+                if (row == null || interval.getStartTime() == null || interval.getEndTime() == null) {
+                    continue;
+                }
+                // every slot the interval touches, even partly, is busy
+                long from = secondsFrom(dayStart, interval.getStartTime(), dayEnd) / slotSeconds;
+                long to = (secondsFrom(dayStart, interval.getEndTime(), dayEnd) + slotSeconds - 1) / slotSeconds;
+                if (from < to) {
+                    busy[row].set((int) from, (int) to);
+                }
+            }
+        }
+
+        List<LocalDateTime> slots = new ArrayList<>(slotCount);
+        for (int slot = 0; slot < slotCount; slot++) {
+            slots.add(dayStart.plusMinutes((long) slot * slotMinutes));
+        }
+        // a slot is free for the station unless every port is busy in it
+        BitSet allBusy = new BitSet(slotCount);
+        if (busy.length > 0) {
+            allBusy.set(0, slotCount);
+        }
+        List<PortAvailabilityDto> rows = new ArrayList<>(ports.size());
+        for (int row = 0; row < busy.length; row++) {
+            allBusy.and(busy[row]);
+            StationPort port = ports.get(row);
+            rows.add(new PortAvailabilityDto(port.getId(), port.getConnectorType(), port.getMaxPowerKw(), freeRow(busy[row])));
+        }
+        List<LocalDateTime> freeSlots = new ArrayList<>();
+        if (busy.length > 0) {
+            for (int slot = allBusy.nextClearBit(0); slot < slotCount; slot = allBusy.nextClearBit(slot + 1)) {
+                freeSlots.add(slots.get(slot));
+            }
+        }
+        return new StationAvailabilityDto(key.stationId(), key.date(), slotMinutes, slots, rows, freeSlots);
+    }
+
+    private List<BookedIntervalDto> fetchBookedIntervals(Long stationId, LocalDateTime from, LocalDateTime to) {
+        BookedIntervalDto[] intervals = bookingClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/bookings/station/{stationId}/booked-intervals")
+                        .queryParam("from", from)
+                        .queryParam("to", to)
+                        .build(stationId))
+                .retrieve()
+                .body(BookedIntervalDto[].class);
+        return intervals == null ? List.of() : List.of(intervals);
+    }
+
+    // seconds from dayStart to time, clamped to the opening hours
+    private static long secondsFrom(LocalDateTime dayStart, LocalDateTime time, LocalDateTime dayEnd) {
+        LocalDateTime clamped = time.isBefore(dayStart) ? dayStart : time.isAfter(dayEnd) ? dayEnd : time;
+        return Duration.between(dayStart, clamped).getSeconds();
+    }
+
+    private String freeRow(BitSet busy) {
+        char[] row = new char[slotCount];
+        for (int slot = 0; slot < slotCount; slot++) {
+            row[slot] = busy.get(slot) ? '0' : '1';
+        }
+        return new String(row);
+    }
+
+    private record Key(Long stationId, LocalDate date) {
+    }
+}
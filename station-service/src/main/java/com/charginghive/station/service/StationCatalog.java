@@ -0,0 +1,115 @@
+package com.charginghive.station.service;
+
+import com.charginghive.station.model.StationCatalogVersion;
+import com.charginghive.station.model.StationChange;
+import com.charginghive.station.repository.StationCatalogVersionRepository;
+import com.charginghive.station.repository.StationChangeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Monotonic version of the station catalog plus the version each station was last
+ * written at. Station and port writes record themselves here in their own transaction,
+ * which both drives the ETags of the list endpoints and lets clients pull only what
+ * changed since the version they hold.
+ */
+@Component
+@Slf4j
+public class StationCatalog {
+
+    private final StationCatalogVersionRepository versionRepository;
+    private final StationChangeRepository changeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public StationCatalog(StationCatalogVersionRepository versionRepository,
+                          StationChangeRepository changeRepository,
+                          PlatformTransactionManager transactionManager) {
+        this.versionRepository = versionRepository;
+        this.changeRepository = changeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Create the version counter and give stations that predate change tracking a
+     * version so a full sync includes them
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        // up front, so writes only ever increment it: creating it inside a write would need a
+        // second connection while the first is held, which deadlocks the pool under concurrent writes
+        createCounter();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (changeRepository.countUntracked() == 0) {
+                return;
+            }
+            int tracked = changeRepository.backfill(nextVersion());
+            log.info("Recorded {} existing stations in the catalog change log", tracked);
+        });
+    }
+
+    public long currentVersion() {
+        return versionRepository.currentVersion().orElse(0L);
+    }
+
+    /**
+     * Record that a station or one of its ports was written in the current transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(Long stationId) {
+        record(stationId, false);
+    }
+
+    /**
+     * Record a deleted station, its row stays as a tombstone
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDelete(Long stationId) {
+        record(stationId, true);
+    }
+
+    /**
+     * Station changes after the given version, oldest first
+     */
+    public List<StationChange> changesSince(long version, int limit) {
+        return changeRepository.findByVersionGreaterThanOrderByVersionAsc(version, Limit.of(limit));
+    }
+
+    private void record(Long stationId, boolean deleted) {
+        long version = nextVersion();
+        StationChange change = changeRepository.findById(stationId)
+                .orElseGet(() -> new StationChange(stationId, version, deleted));
+        change.setVersion(version);
+        change.setDeleted(deleted);
+        changeRepository.save(change);
+    }
+
+    // the UPDATE holds the counter row lock until commit, serialising catalog writes
+    private long nextVersion() {
+        if (versionRepository.increment() == 0) {
+            throw new IllegalStateException("Station catalog version counter is missing, it is created on startup");
+        }
+        return currentVersion();
+    }
+
+    private void createCounter() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!versionRepository.existsById(StationCatalogVersion.ID)) {
+                    versionRepository.saveAndFlush(new StationCatalogVersion(StationCatalogVersion.ID, 0));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Catalog version row created concurrently");
+        }
+    }
+}
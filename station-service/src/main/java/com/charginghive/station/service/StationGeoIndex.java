@@ -0,0 +1,601 @@
+package com.charginghive.station.service;
+
+import com.charginghive.station.dto.StationDto;
+import com.charginghive.station.mapper.StationMapper;
+import com.charginghive.station.model.Station;
+import com.charginghive.station.model.StationPort;
+import com.charginghive.station.repository.StationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory grid of approved stations for geo queries.
+ * Stations live in slots of parallel primitive arrays (coordinates, ids, port
+ * summaries); each grid cell is a linked list threaded through {@code nextInCell}.
+ * Radius and k-nearest queries walk cells and slots only, so they neither hit the
+ * database nor allocate per station. Writes made inside a transaction are applied
+ * after it commits.
+ */
+@Component
+@Slf4j
+public class StationGeoIndex {
+
+    static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE = Math.toRadians(1) * EARTH_RADIUS_KM;
+    private static final int MAX_CELLS = 16_000_000;
+    private static final int NONE = -1;
+
+    private final StationRepository stationRepository;
+    private final StationMapper stationMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final double cellDegrees;
+    private final int latCells;
+    private final int lngCells;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // grid: first slot of every cell, NONE when empty
+    private final int[] cellHead;
+
+    // slot storage
+    private int capacity = 0;
+    private int highWater = 0;
+    private long[] ids = new long[0];
+    private double[] lats = new double[0];
+    private double[] lngs = new double[0];
+    private int[] cellOf = new int[0];
+    private int[] nextInCell = new int[0];
+    // bit n set when the station has a port whose connector code is n (codes above 63 share bit 63)
+    private long[] connectorMasks = new long[0];
+    private int[][] portConnectors = new int[0][];
+    private double[][] portPowerKw = new double[0][];
+    private StationDto[] stations = new StationDto[0];
+
+    private int[] freeSlots = new int[0];
+    private int freeCount = 0;
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final Map<String, Integer> connectorCodes = new HashMap<>();
+
+    private volatile boolean ready = false;
+
+    public StationGeoIndex(StationRepository stationRepository,
+                           StationMapper stationMapper,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${station.geo-index.cell-degrees:0.25}") double cellDegrees) {
+        this.latCells = (int) Math.ceil(180 / cellDegrees);
+        this.lngCells = (int) Math.ceil(360 / cellDegrees);
+        if (cellDegrees <= 0 || (long) latCells * lngCells > MAX_CELLS) {
+            throw new IllegalArgumentException("station.geo-index.cell-degrees is out of range: " + cellDegrees);
+        }
+        this.stationRepository = stationRepository;
+        this.stationMapper = stationMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.cellDegrees = cellDegrees;
+        this.cellHead = new int[latCells * lngCells];
+        Arrays.fill(cellHead, NONE);
+    }
+
+    /**
+     * Load all approved stations; repeated periodically to pick up writes made by other instances
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${station.geo-index.refresh-ms:300000}",
+            initialDelayString = "${station.geo-index.refresh-ms:300000}")
+    public void load() {
+        long started = System.currentTimeMillis();
+        List<Entry> entries = transactionTemplate.execute(status ->
+                stationRepository.findWithPortsByIsApprovedTrue().stream().map(this::entryOf).toList());
+        lock.writeLock().lock();
+        try {
+            clear();
+            entries.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("Station geo index loaded {} stations in {} ms", entries.size(), System.currentTimeMillis() - started);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Load the index now if a request arrives before the startup load finished
+     */
+    public synchronized void ensureLoaded() {
+        if (!ready) {
+            load();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Index the current state of a station: kept while approved, dropped otherwise.
+     * Must be called while the station's ports can still be loaded.
+     */
+    public void update(Station station) {
+        Entry entry = entryOf(station);
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                removeSlot(entry.id());
+                if (entry.approved()) {
+                    put(entry);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long stationId) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                removeSlot(stationId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Stations within radiusKm of the point, nearest first
+     */
+    public Hits withinRadius(double lat, double lng, double radiusKm) {
+        Hits hits = new Hits(16);
+        lock.readLock().lock();
+        try {
+            double dLat = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+            int laFrom = latIndex(Math.max(-90, lat - dLat));
+            int laTo = latIndex(Math.min(90, lat + dLat));
+            double maxAbsLat = Math.max(Math.abs(lat - dLat), Math.abs(lat + dLat));
+            int loFrom = 0;
+            int loCount = lngCells;
+            if (maxAbsLat < 90) {
+                double dLng = Math.toDegrees(radiusKm / (EARTH_RADIUS_KM * Math.cos(Math.toRadians(maxAbsLat))));
+                // unwrapped column range, folded back with floorMod when it crosses the antimeridian
+                int first = (int) Math.floor((lng - dLng + 180) / cellDegrees);
+                int last = (int) Math.floor((lng + dLng + 180) / cellDegrees);
+                if (last - first + 1 < lngCells) {
+                    loFrom = first;
+                    loCount = last - first + 1;
+                }
+            }
+            for (int la = laFrom; la <= laTo; la++) {
+                for (int i = 0; i < loCount; i++) {
+                    int lo = Math.floorMod(loFrom + i, lngCells);
+                    for (int slot = cellHead[la * lngCells + lo]; slot != NONE; slot = nextInCell[slot]) {
+                        double distance = distanceKm(lat, lng, lats[slot], lngs[slot]);
+                        if (distance <= radiusKm) {
+                            hits.add(ids[slot], distance, stations[slot]);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sortByDistance();
+        return hits;
+    }
+
+    public Hits nearest(double lat, double lng, int k) {
+        return nearest(lat, lng, k, PortFilter.ANY);
+    }
+
+    /**
+     * The k stations nearest to the point that have a port matching the filter, nearest first.
+     * Cells are visited in rings around the point's cell; the search stops once no
+     * unvisited cell can hold anything closer than the current k-th best. The port
+     * filter is checked on the slot arrays before any distance is computed.
+     */
+    public Hits nearest(double lat, double lng, int k, PortFilter filter) {
+        Hits best = new Hits(k);
+        if (k <= 0) {
+            return best;
+        }
+        lock.readLock().lock();
+        try {
+            int connector = NONE;
+            if (filter.connector() != null) {
+                Integer code = connectorCodes.get(normalizeConnector(filter.connector()));
+                if (code == null) {
+                    // no station has ever had this connector
+                    return best;
+                }
+                connector = code;
+            }
+            long connectorBit = connector == NONE ? 0 : 1L << Math.min(connector, 63);
+            int la0 = latIndex(lat);
+            int lo0 = lngIndex(lng);
+            int westCols = (lngCells - 1) / 2;
+            int eastCols = lngCells - 1 - westCols;
+            int maxRing = Math.max(Math.max(la0, latCells - 1 - la0), eastCols);
+            for (int r = 0; r <= maxRing; r++) {
+                for (int dla = -r; dla <= r; dla++) {
+                    int la = la0 + dla;
+                    if (la < 0 || la >= latCells) {
+                        continue;
+                    }
+                    if (dla == -r || dla == r) {
+                        // full row of the ring
+                        for (int dlo = -Math.min(r, westCols); dlo <= Math.min(r, eastCols); dlo++) {
+                            offerCell(best, k, lat, lng, la, lo0 + dlo, connector, connectorBit, filter.minKw());
+                        }
+                    } else {
+                        // only the two side columns
+                        if (r <= westCols) {
+                            offerCell(best, k, lat, lng, la, lo0 - r, connector, connectorBit, filter.minKw());
+                        }
+                        if (r <= eastCols) {
+                            offerCell(best, k, lat, lng, la, lo0 + r, connector, connectorBit, filter.minKw());
+                        }
+                    }
+                }
+                if (best.size() == k && best.worstDistance() <= unvisitedLowerBoundKm(lat, lng, la0, lo0, r, westCols, eastCols)) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        best.sortByDistance();
+        return best;
+    }
+
+    /**
+     * Visit every indexed station in the grid cells within widthKm of any segment of
+     * the route. Cells are visited once each; the visitor runs under the read lock.
+     * Routes are assumed not to cross the antimeridian.
+     */
+    public void forEachNearRoute(double[] routeLats, double[] routeLngs, double widthKm, StationVisitor visitor) {
+        BitSet visited = new BitSet(latCells * lngCells);
+        double dLat = Math.toDegrees(widthKm / EARTH_RADIUS_KM);
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < routeLats.length; i++) {
+                int j = Math.min(i + 1, routeLats.length - 1);
+                double minLat = Math.max(-90, Math.min(routeLats[i], routeLats[j]) - dLat);
+                double maxLat = Math.min(90, Math.max(routeLats[i], routeLats[j]) + dLat);
+                double maxAbsLat = Math.max(Math.abs(minLat), Math.abs(maxLat));
+                double dLng = maxAbsLat < 90
+                        ? Math.toDegrees(widthKm / (EARTH_RADIUS_KM * Math.cos(Math.toRadians(maxAbsLat))))
+                        : 180;
+                int loFrom = lngIndex(Math.max(-180, Math.min(routeLngs[i], routeLngs[j]) - dLng));
+                int loTo = lngIndex(Math.min(180 - 1e-9, Math.max(routeLngs[i], routeLngs[j]) + dLng));
+                for (int la = latIndex(minLat); la <= latIndex(maxLat); la++) {
+                    for (int lo = loFrom; lo <= loTo; lo++) {
+                        int cell = la * lngCells + lo;
+                        if (visited.get(cell)) {
+                            continue;
+                        }
+                        visited.set(cell);
+                        for (int slot = cellHead[cell]; slot != NONE; slot = nextInCell[slot]) {
+                            visitor.visit(ids[slot], lats[slot], lngs[slot], stations[slot]);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @FunctionalInterface
+    public interface StationVisitor {
+        void visit(long id, double lat, double lng, StationDto station);
+    }
+
+    private void offerCell(Hits best, int k, double lat, double lng, int la, int loUnwrapped,
+                           int connector, long connectorBit, double minKw) {
+        int lo = Math.floorMod(loUnwrapped, lngCells);
+        for (int slot = cellHead[la * lngCells + lo]; slot != NONE; slot = nextInCell[slot]) {
+            if ((connectorMasks[slot] & connectorBit) != connectorBit || !hasPort(slot, connector, minKw)) {
+                continue;
+            }
+            double distance = distanceKm(lat, lng, lats[slot], lngs[slot]);
+            if (best.size() < k) {
+                best.add(ids[slot], distance, stations[slot]);
+            } else if (distance < best.worstDistance()) {
+                best.replaceWorst(ids[slot], distance, stations[slot]);
+            }
+        }
+    }
+
+    private boolean hasPort(int slot, int connector, double minKw) {
+        if (connector == NONE && minKw <= 0) {
+            return true;
+        }
+        int[] connectors = portConnectors[slot];
+        double[] powerKw = portPowerKw[slot];
+        for (int i = 0; i < connectors.length; i++) {
+            if ((connector == NONE || connectors[i] == connector) && powerKw[i] >= minKw) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // smallest distance from the point to any cell outside rings 0..r
+    private double unvisitedLowerBoundKm(double lat, double lng, int la0, int lo0, int r, int westCols, int eastCols) {
+        double bound = Double.MAX_VALUE;
+        if (la0 - r > 0) {
+            bound = Math.min(bound, (lat - ((la0 - r) * cellDegrees - 90)) * KM_PER_DEGREE);
+        }
+        if (la0 + r < latCells - 1) {
+            bound = Math.min(bound, (((la0 + r + 1) * cellDegrees - 90) - lat) * KM_PER_DEGREE);
+        }
+        double cosLat = Math.cos(Math.toRadians(lat));
+        if (r < westCols) {
+            double dLng = lng - ((lo0 - r) * cellDegrees - 180);
+            bound = Math.min(bound, crossTrackKm(cosLat, dLng));
+        }
+        if (r < eastCols) {
+            double dLng = ((lo0 + r + 1) * cellDegrees - 180) - lng;
+            bound = Math.min(bound, crossTrackKm(cosLat, dLng));
+        }
+        return bound;
+    }
+
+    // distance from the point to the meridian dLngDegrees away, a lower bound for anything beyond it
+    private static double crossTrackKm(double cosLat, double dLngDegrees) {
+        if (dLngDegrees >= 90) {
+            return EARTH_RADIUS_KM * Math.asin(Math.min(1, cosLat));
+        }
+        return EARTH_RADIUS_KM * Math.asin(Math.min(1, cosLat * Math.sin(Math.toRadians(dLngDegrees))));
+    }
+
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    private int latIndex(double lat) {
+        return Math.min(latCells - 1, Math.max(0, (int) Math.floor((lat + 90) / cellDegrees)));
+    }
+
+    private int lngIndex(double lng) {
+        return Math.floorMod((int) Math.floor((lng + 180) / cellDegrees), lngCells);
+    }
+
+    // --- slot management, callers hold the write lock ---
+
+    private void put(Entry entry) {
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : nextSlot();
+        int cell = latIndex(entry.lat()) * lngCells + lngIndex(entry.lng());
+        ids[slot] = entry.id();
+        lats[slot] = entry.lat();
+        lngs[slot] = entry.lng();
+        cellOf[slot] = cell;
+        nextInCell[slot] = cellHead[cell];
+        cellHead[cell] = slot;
+
+        int[] codes = new int[entry.connectors().length];
+        long mask = 0;
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = connectorCode(entry.connectors()[i]);
+            mask |= 1L << Math.min(codes[i], 63);
+        }
+        connectorMasks[slot] = mask;
+        portConnectors[slot] = codes;
+        portPowerKw[slot] = entry.powerKw();
+        stations[slot] = entry.station();
+        slotById.put(entry.id(), slot);
+    }
+
+    private void removeSlot(Long stationId) {
+        Integer slot = slotById.remove(stationId);
+        if (slot == null) {
+            return;
+        }
+        int cell = cellOf[slot];
+        if (cellHead[cell] == slot) {
+            cellHead[cell] = nextInCell[slot];
+        } else {
+            int previous = cellHead[cell];
+            while (nextInCell[previous] != slot) {
+                previous = nextInCell[previous];
+            }
+            nextInCell[previous] = nextInCell[slot];
+        }
+        portConnectors[slot] = null;
+        portPowerKw[slot] = null;
+        stations[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, Math.max(16, freeSlots.length * 2));
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private int nextSlot() {
+        if (highWater == capacity) {
+            capacity = Math.max(1024, capacity * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            lats = Arrays.copyOf(lats, capacity);
+            lngs = Arrays.copyOf(lngs, capacity);
+            cellOf = Arrays.copyOf(cellOf, capacity);
+            nextInCell = Arrays.copyOf(nextInCell, capacity);
+            connectorMasks = Arrays.copyOf(connectorMasks, capacity);
+            portConnectors = Arrays.copyOf(portConnectors, capacity);
+            portPowerKw = Arrays.copyOf(portPowerKw, capacity);
+            stations = Arrays.copyOf(stations, capacity);
+        }
+        return highWater++;
+    }
+
+    private void clear() {
+        Arrays.fill(cellHead, NONE);
+        Arrays.fill(portConnectors, null);
+        Arrays.fill(portPowerKw, null);
+        Arrays.fill(stations, null);
+        highWater = 0;
+        freeCount = 0;
+        slotById.clear();
+    }
+
+    int connectorCode(String connectorType) {
+        return connectorCodes.computeIfAbsent(normalizeConnector(connectorType), key -> connectorCodes.size());
+    }
+
+    static String normalizeConnector(String connectorType) {
+        return connectorType == null ? "" : connectorType.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private Entry entryOf(Station station) {
+        List<StationPort> ports = List.copyOf(station.getPorts());
+        String[] connectors = new String[ports.size()];
+        double[] powerKw = new double[ports.size()];
+        for (int i = 0; i < ports.size(); i++) {
+            connectors[i] = ports.get(i).getConnectorType();
+            powerKw[i] = ports.get(i).getMaxPowerKw();
+        }
+        boolean indexable = station.isApproved() && station.getLatitude() != null && station.getLongitude() != null;
+        return new Entry(station.getId(),
+                indexable ? station.getLatitude() : 0,
+                indexable ? station.getLongitude() : 0,
+                indexable, connectors, powerKw,
+                indexable ? stationMapper.toDto(station) : null);
+    }
+
+    /**
+     * Port requirement of a nearest query: connector type (null for any) and minimum power
+     */
+    public record PortFilter(String connector, double minKw) {
+        public static final PortFilter ANY = new PortFilter(null, 0);
+    }
+
+    // station state captured inside the writing transaction
+    private record Entry(long id, double lat, double lng, boolean approved,
+                         String[] connectors, double[] powerKw, StationDto station) {
+    }
+
+    /**
+     * Query result as parallel arrays; also serves as the bounded max-heap of kNN
+     */
+    public static final class Hits {
+        private long[] ids;
+        private double[] distances;
+        private StationDto[] stations;
+        private int size;
+
+        Hits(int initialCapacity) {
+            int capacity = Math.max(1, initialCapacity);
+            ids = new long[capacity];
+            distances = new double[capacity];
+            stations = new StationDto[capacity];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public long id(int i) {
+            return ids[i];
+        }
+
+        public double distanceKm(int i) {
+            return distances[i];
+        }
+
+        public StationDto station(int i) {
+            return stations[i];
+        }
+
+        void add(long id, double distance, StationDto station) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                distances = Arrays.copyOf(distances, capacity);
+                stations = Arrays.copyOf(stations, capacity);
+            }
+            ids[size] = id;
+            distances[size] = distance;
+            stations[size] = station;
+            siftUp(size++);
+        }
+
+        double worstDistance() {
+            return distances[0];
+        }
+
+        void replaceWorst(long id, double distance, StationDto station) {
+            ids[0] = id;
+            distances[0] = distance;
+            stations[0] = station;
+            siftDown(0, size);
+        }
+
+        // entries are kept as a max-heap on distance while collecting; heap sort leaves them ascending
+        void sortByDistance() {
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (distances[parent] >= distances[i]) {
+                    return;
+                }
+                swap(parent, i);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i, int end) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= end) {
+                    return;
+                }
+                int largest = left + 1 < end && distances[left + 1] > distances[left] ? left + 1 : left;
+                if (distances[i] >= distances[largest]) {
+                    return;
+                }
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            double distance = distances[a];
+            distances[a] = distances[b];
+            distances[b] = distance;
+            StationDto station = stations[a];
+            stations[a] = stations[b];
+            stations[b] = station;
+        }
+    }
+}
@@ -4,22 +4,30 @@ import com.charginghive.station.customException.NotFoundException;
 import com.charginghive.station.customException.OwnerIdMissMatchException;
 import com.charginghive.station.customException.UserNotFoundException;
 import com.charginghive.station.dto.*;
+import com.charginghive.station.mapper.StationMapper;
 import com.charginghive.station.model.Station;
+import com.charginghive.station.model.StationChange;
 import com.charginghive.station.model.StationPort;
 import com.charginghive.station.repository.StationPortRepository;
 import com.charginghive.station.repository.StationRepository;
+import com.charginghive.station.repository.StationSpecifications;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import java.time.LocalDate;
-import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -28,16 +36,38 @@ import java.util.stream.Collectors;
 @Slf4j
 public class StationService {
 
+    // upper bound for a single bulk lookup request
+    private static final int MAX_LOOKUP_SIZE = 1000;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final int MAX_NEAREST = 100;
+    // ranked text matches considered per search, and the largest page handed out
+    private static final int MAX_SEARCH_RESULTS = 1000;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_CHANGES = 1000;
+
     private final StationRepository stationRepository;
     private final StationPortRepository stationPortRepository;
-    private final ModelMapper modelMapper;
+    private final StationMapper stationMapper;
+    private final StationGeoIndex stationGeoIndex;
+    private final StationTextIndex stationTextIndex;
+    private final StationCatalog stationCatalog;
+    private final StationAvailability stationAvailability;
+    private final RouteCorridorSearch routeCorridorSearch;
     private final RestClient userClient;
     private final RestClient bookingClient;
 
-    public StationService(StationRepository repository, StationPortRepository repositoryPort, ModelMapper modelMapper, RestClient.Builder Client) {
+    public StationService(StationRepository repository, StationPortRepository repositoryPort, StationMapper stationMapper,
+                          StationGeoIndex stationGeoIndex, StationTextIndex stationTextIndex,
+                          StationCatalog stationCatalog, StationAvailability stationAvailability,
+                          RouteCorridorSearch routeCorridorSearch, RestClient.Builder Client) {
         this.stationRepository = repository;
         this.stationPortRepository = repositoryPort;
-        this.modelMapper = modelMapper;
+        this.stationMapper = stationMapper;
+        this.stationGeoIndex = stationGeoIndex;
+        this.stationTextIndex = stationTextIndex;
+        this.stationCatalog = stationCatalog;
+        this.stationAvailability = stationAvailability;
+        this.routeCorridorSearch = routeCorridorSearch;
         this.userClient = Client
                 .baseUrl("http://AUTH-SERVICE")
                 .build();
@@ -53,22 +83,23 @@ public class StationService {
             throw new UserNotFoundException("Owner not found with id "+ownerId);
         }
         log.info("Station info {}.", requestDto);
-        //Use ModelMapper to map the basic properties
-        Station station = modelMapper.map(requestDto, Station.class);
+        //Map the basic properties, ports are handled below
+        Station station = stationMapper.toEntity(requestDto);
         station.setOwnerId(ownerId);
         station.setApproved(false); // New stations must always unapproved by default.
 
         //Manually handle the nested list of ports to set the bidirectional relationship
         if (requestDto.getPorts() != null && !requestDto.getPorts().isEmpty()) {
             requestDto.getPorts().forEach(portDto -> {
-                StationPort port = modelMapper.map(portDto, StationPort.class);
+                StationPort port = stationMapper.toEntity(portDto);
                 port.setStation(station); // Link the port to its parent station
                 station.getPorts().add(port);
             });
         }
 
         Station savedStation = stationRepository.save(station);
-        return modelMapper.map(savedStation, StationDto.class);
+        stationChanged(savedStation);
+        return stationMapper.toDto(savedStation);
     }
 
     // fetch a station by id
@@ -84,8 +115,9 @@ public class StationService {
     public StationDto updateStation(Long id, @Valid UpdateStationRequestDto update) {
         Station station = stationRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Station not found with id=" + id));
-        modelMapper.map(update, station); // only non-null fields copied due to global config
+        stationMapper.update(update, station); // only non-null fields copied
         Station saved = stationRepository.save(station);
+        stationChanged(saved);
         return toDto(saved);
     }
 
@@ -96,6 +128,7 @@ public class StationService {
 
         station.setApproved(approvalDto.isApproved());
         stationRepository.save(station);
+        stationChanged(station);
     }
 
     @Transactional
@@ -103,17 +136,18 @@ public class StationService {
         Station station = stationRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Station not found with id=" + id));
         stationRepository.delete(station);
+        stationRemoved(id);
     }
 
     public List<StationDto> getAllStations() {
-        return stationRepository.findAll().stream()
-                .map(station -> modelMapper.map(station, StationDto.class)).toList();
+        return stationRepository.findAllWithPortsBy().stream()
+                .map(stationMapper::toDto).toList();
     }
 
 
     @Transactional
     public List<StationDto> getByOwner(Long ownerId) {
-        return stationRepository.findByOwnerId(ownerId).stream().map(this::toDto).toList();
+        return stationRepository.findWithPortsByOwnerId(ownerId).stream().map(this::toDto).toList();
     }
 
     @Transactional
@@ -128,19 +162,20 @@ public class StationService {
         StationPort saved = stationPortRepository.save(port);
         // maintain the relationship on the owner side
         station.getPorts().add(saved);
-        return modelMapper.map(saved, StationPortDto.class);
+        stationChanged(station);
+        return stationMapper.toDto(saved);
     }
 
     @Transactional
     public List<StationPortDto> listPorts(Long stationId) {
         Station station = stationRepository.findById(stationId)
                 .orElseThrow(() -> new NotFoundException("Station not found with id=" + stationId));
-        return station.getPorts().stream().map(p -> modelMapper.map(p, StationPortDto.class)).toList();
+        return station.getPorts().stream().map(stationMapper::toDto).toList();
     }
 
     public List<StationDto> getUnapprovedStations() {
-        return stationRepository.findByIsApprovedFalse().stream()
-                .map(station -> modelMapper.map(station, StationDto.class)).toList();
+        return stationRepository.findWithPortsByIsApprovedFalse().stream()
+                .map(stationMapper::toDto).toList();
     }
 
 
@@ -158,6 +193,7 @@ public class StationService {
 
         station.getPorts().remove(port);
         stationPortRepository.delete(port);
+        stationChanged(station);
     }
 
 
@@ -172,32 +208,200 @@ public class StationService {
         port.setConnectorType(dto.getConnectorType());
         port.setMaxPowerKw(dto.getMaxPowerKw());
         stationPortRepository.save(port);
-        return modelMapper.map(station, StationDto.class);
+        stationChanged(station);
+        return stationMapper.toDto(station);
     }
 
 
 
-    public List<StationDto> searchStations(String query, String city,Boolean available) {
-        return stationRepository.findAll().stream()
-                .filter(s -> query == null || s.getName().toLowerCase().contains(query.toLowerCase()))
-                .filter(s -> city == null || s.getCity().equalsIgnoreCase(city))
-                // available flag could check ports size > 0 for now
-                .filter(s -> available == null || (available && !s.getPorts().isEmpty()) || (!available))
-                .map(s -> modelMapper.map(s, StationDto.class))
-                .toList();
+    /**
+     * Full-text search over name, city, address and postal code, best matches first.
+     * Without a query the filtered stations come back in id order. page and size are
+     * optional; when both are missing every match is returned.
+     */
+    public Page<StationDto> searchStations(String query, String city, Boolean available, Integer page, Integer size) {
+        Pageable pageable = toPageable(page, size);
+        Specification<Station> filters = StationSpecifications.matching(city, available);
+
+        if (query == null || query.isBlank()) {
+            if (pageable.isUnpaged()) {
+                List<Station> stations = stationRepository.findAll(filters, Sort.by("id"));
+                return new PageImpl<>(withPorts(stations.stream().map(Station::getId).toList()));
+            }
+            Page<Station> stations = stationRepository.findAll(filters,
+                    PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("id")));
+            return new PageImpl<>(withPorts(stations.map(Station::getId).getContent()), pageable, stations.getTotalElements());
+        }
+
+        stationTextIndex.ensureLoaded();
+        boolean filtered = city != null || Boolean.TRUE.equals(available);
+        List<Long> ranked = stationTextIndex.search(query, filtered ? Integer.MAX_VALUE : MAX_SEARCH_RESULTS);
+        if (filtered) {
+            // ranked ids are checked against the filters a batch at a time until enough pass, rank order is kept
+            List<Long> kept = new ArrayList<>();
+            for (int i = 0; i < ranked.size() && kept.size() < MAX_SEARCH_RESULTS; i += MAX_SEARCH_RESULTS) {
+                List<Long> batch = ranked.subList(i, Math.min(i + MAX_SEARCH_RESULTS, ranked.size()));
+                Set<Long> passing = new HashSet<>();
+                stationRepository.findAll(filters.and(StationSpecifications.idIn(batch)))
+                        .forEach(station -> passing.add(station.getId()));
+                batch.stream().filter(passing::contains).forEach(kept::add);
+            }
+            ranked = kept.subList(0, Math.min(kept.size(), MAX_SEARCH_RESULTS));
+        }
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(withPorts(ranked));
+        }
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        return new PageImpl<>(withPorts(ranked.subList(from, to)), pageable, ranked.size());
+    }
+
+    /**
+     * Current catalog version, changes with every station or port write
+     */
+    public long getCatalogVersion() {
+        return stationCatalog.currentVersion();
+    }
+
+    /**
+     * Stations written or deleted after the given catalog version, at most limit of them
+     */
+    @Transactional(readOnly = true)
+    public StationChangesDto getChangesSince(long since, int limit) {
+        if (since < 0) {
+            throw new IllegalArgumentException("since must not be negative");
+        }
+        if (limit < 1 || limit > MAX_CHANGES) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_CHANGES);
+        }
+        List<StationChange> changes = stationCatalog.changesSince(since, limit + 1);
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+        List<Long> written = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        for (StationChange change : changes) {
+            (change.isDeleted() ? deleted : written).add(change.getStationId());
+        }
+        // the last version handed out, never the live counter, so a write committing meanwhile is not skipped
+        long version = changes.isEmpty() ? since : changes.get(changes.size() - 1).getVersion();
+        return new StationChangesDto(version, hasMore, withPorts(written), deleted);
+    }
+
+    private Pageable toPageable(Integer page, Integer size) {
+        if (page == null && size == null) {
+            return Pageable.unpaged();
+        }
+        int pageNumber = page == null ? 0 : page;
+        int pageSize = size == null ? 20 : size;
+        if (pageNumber < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return PageRequest.of(pageNumber, pageSize);
+    }
+
+    // stations with their ports fetched in batched IN queries, returned in the order of the ids
+    private List<StationDto> withPorts(List<Long> ids) {
+        Map<Long, StationDto> byId = new HashMap<>();
+        for (int i = 0; i < ids.size(); i += MAX_LOOKUP_SIZE) {
+            List<Long> batch = ids.subList(i, Math.min(i + MAX_LOOKUP_SIZE, ids.size()));
+            stationRepository.findWithPortsByIdIn(batch).forEach(station -> byId.put(station.getId(), toDto(station)));
+        }
+        List<StationDto> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            StationDto dto = byId.get(id);
+            if (dto != null) {
+                result.add(dto);
+            }
+        }
+        return result;
     }
 
     public List<StationDto> findNearby(double lat, double lng, double radiusKm) {
-        List<StationDto> filterStations =  stationRepository.findAll().stream()
-                .map(s -> new Object[]{s, distanceKm(lat, lng, s.getLatitude(), s.getLongitude())})
-                .filter(arr -> (double) arr[1] <= radiusKm)
-                .sorted(Comparator.comparingDouble(a -> (double) a[1]))
-                .map(arr -> modelMapper.map((Station) arr[0], StationDto.class))
-                .collect(Collectors.toList());
+        if (radiusKm < 0) {
+            throw new IllegalArgumentException("Radius must not be negative");
+        }
+        if (stationGeoIndex.isReady()) {
+            StationGeoIndex.Hits hits = stationGeoIndex.withinRadius(lat, lng, radiusKm);
+            List<StationDto> result = new ArrayList<>(hits.size());
+            for (int i = 0; i < hits.size(); i++) {
+                result.add(hits.station(i));
+            }
+            log.info("Found {} stations in range of {} km from the geo index", result.size(), radiusKm);
+            return result;
+        }
+        // the index narrows the search to a lat/lng box around the circle; exact distances only for those
+        double dLat = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        double minLat = Math.max(-90, lat - dLat);
+        double maxLat = Math.min(90, lat + dLat);
+        double minLng = -180;
+        double maxLng = 180;
+        double maxAbsLat = Math.max(Math.abs(minLat), Math.abs(maxLat));
+        if (maxAbsLat < 90) {
+            double dLng = Math.toDegrees(radiusKm / (EARTH_RADIUS_KM * Math.cos(Math.toRadians(maxAbsLat))));
+            // a box crossing the antimeridian falls back to every longitude
+            if (lng - dLng >= -180 && lng + dLng <= 180) {
+                minLng = lng - dLng;
+                maxLng = lng + dLng;
+            }
+        }
+
+        List<Station> candidates = stationRepository.findInBoundingBox(minLat, minLng, maxLat, maxLng);
+        List<NearbyStation> inRange = new ArrayList<>(candidates.size());
+        for (Station station : candidates) {
+            double distance = distanceKm(lat, lng, station.getLatitude(), station.getLongitude());
+            if (distance <= radiusKm) {
+                inRange.add(new NearbyStation(station, distance));
+            }
+        }
+        inRange.sort(Comparator.comparingDouble(NearbyStation::distanceKm));
+
+        log.info("Found {} stations in range of {} km out of {} candidates", inRange.size(), radiusKm, candidates.size());
+
+        return inRange.stream()
+                .map(nearby -> stationMapper.toDto(nearby.station()))
+                .toList();
+    }
 
-        log.info("Found {} stations in range of {} km", filterStations, radiusKm);
+    private record NearbyStation(Station station, double distanceKm) {
+    }
+
+    /**
+     * The k nearest approved stations having a port of the given connector type
+     * (any when null) delivering at least minKw
+     */
+    public List<NearestStationDto> findNearest(double lat, double lng, int k, String connector, Double minKw) {
+        if (k < 1 || k > MAX_NEAREST) {
+            throw new IllegalArgumentException("k must be between 1 and " + MAX_NEAREST);
+        }
+        if (minKw != null && minKw < 0) {
+            throw new IllegalArgumentException("minKw must not be negative");
+        }
+        String connectorType = connector == null || connector.isBlank() ? null : connector;
+        stationGeoIndex.ensureLoaded();
+        StationGeoIndex.Hits hits = stationGeoIndex.nearest(lat, lng, k,
+                new StationGeoIndex.PortFilter(connectorType, minKw == null ? 0 : minKw));
+        List<NearestStationDto> result = new ArrayList<>(hits.size());
+        for (int i = 0; i < hits.size(); i++) {
+            result.add(new NearestStationDto(hits.station(i), hits.distanceKm(i)));
+        }
+        return result;
+    }
 
-        return filterStations;
+    /**
+     * Approved stations within corridorKm of the route, ordered by distance along it
+     */
+    public List<RouteStationDto> findAlongRoute(String polyline, double corridorKm) {
+        stationGeoIndex.ensureLoaded();
+        long started = System.nanoTime();
+        List<RouteStationDto> stations = routeCorridorSearch.search(polyline, corridorKm);
+        log.info("Found {} stations within {} km of the route in {} ms",
+                stations.size(), corridorKm, (System.nanoTime() - started) / 1_000_000);
+        return stations;
     }
 
     private double distanceKm(double lat1, double lon1, Double lat2, Double lon2) {
@@ -208,34 +412,53 @@ public class StationService {
                 + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
                 * Math.sin(dLon / 2) * Math.sin(dLon / 2);
         double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return 6371.0 * c;
+        return EARTH_RADIUS_KM * c;
     }
 
-    public List<String> getAvailability(Long stationId, String dateIso) {
-        LocalDate date = LocalDate.parse(dateIso, DateTimeFormatter.ISO_DATE);
-        List<String> slots = new ArrayList<>();
-        LocalTime t = LocalTime.of(8, 0);
-        LocalTime end = LocalTime.of(20, 0);
-        while (!t.isAfter(end.minusMinutes(30))) {
-            slots.add(date.atTime(t).toString());
-            t = t.plusMinutes(30);
+    /**
+     * Port x slot availability of a station on the given ISO date
+     */
+    public StationAvailabilityDto getAvailability(Long stationId, String dateIso) {
+        return stationAvailability.get(stationId, parseDate(dateIso));
+    }
+
+    /**
+     * Forget the cached availability of a station for one day, or all days when dateIso is null
+     */
+    public void evictAvailability(Long stationId, String dateIso) {
+        stationAvailability.evict(stationId, dateIso == null ? null : parseDate(dateIso));
+    }
+
+    private LocalDate parseDate(String dateIso) {
+        try {
+            return LocalDate.parse(dateIso, DateTimeFormatter.ISO_DATE);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + dateIso);
         }
-        return slots;
     }
 
 
 
 
 
+    // keep the catalog version and the in-memory indexes in step with a station written in this transaction
+    private void stationChanged(Station station) {
+        stationCatalog.recordChange(station.getId());
+        stationGeoIndex.update(station);
+        stationTextIndex.update(station);
+        stationAvailability.evictAfterCommit(station.getId());
+    }
+
+    private void stationRemoved(Long stationId) {
+        stationCatalog.recordDelete(stationId);
+        stationGeoIndex.remove(stationId);
+        stationTextIndex.remove(stationId);
+        stationAvailability.evictAfterCommit(stationId);
+    }
+
     // added: helper mapping to StationDto including ports
     private StationDto toDto(Station station) {
-        StationDto dto = modelMapper.map(station, StationDto.class);
-        if (station.getPorts() != null) {
-            dto.setPorts(station.getPorts().stream()
-                    .map(p -> modelMapper.map(p, StationPortDto.class))
-                    .toList());
-        }
-        return dto;
+        return stationMapper.toDto(station);
     }
     private boolean verifyUserExists(Long ownerId) {
 
@@ -270,17 +493,63 @@ public class StationService {
      * Get specific port information for booking service
      */
     public StationPortDto getPortInfo(Long stationId, Long portId) {
-        // First check if station exists
-        Station station = stationRepository.findById(stationId)
-                .orElseThrow(() -> new EntityNotFoundException("Station not found with id: " + stationId));
+        // Load just the port, scoped to its station
+        StationPort port = stationPortRepository.findByIdAndStationId(portId, stationId)
+                .orElseThrow(() -> stationRepository.existsById(stationId)
+                        ? new EntityNotFoundException("Port not found with id: " + portId + " in station: " + stationId)
+                        : new EntityNotFoundException("Station not found with id: " + stationId));
 
-        // Find the port in this station
-        StationPort port = station.getPorts().stream()
-                .filter(p -> p.getId().equals(portId))
-                .findFirst()
-                .orElseThrow(() -> new EntityNotFoundException("Port not found with id: " + portId + " in station: " + stationId));
+        return stationMapper.toDto(port);
+    }
+
+    /**
+     * Resolve many stations in one query - for booking and admin service
+     */
+    public List<StationSummaryDto> lookupStations(List<Long> stationIds) {
+        Set<Long> ids = distinctIds(stationIds);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return stationRepository.findSummariesByIdIn(ids);
+    }
+
+    /**
+     * Resolve many (stationId, portId) pairs in one query - for booking and admin service.
+     * Pairs whose port does not belong to the given station are left out.
+     */
+    public List<PortSummaryDto> lookupPorts(List<PortRefDto> portRefs) {
+        if (portRefs == null || portRefs.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Long> stationByPort = new HashMap<>();
+        for (PortRefDto ref : portRefs) {
+            if (ref != null && ref.getPortId() != null && ref.getStationId() != null) {
+                stationByPort.put(ref.getPortId(), ref.getStationId());
+            }
+        }
+        Set<Long> ids = distinctIds(stationByPort.keySet());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return stationPortRepository.findSummariesByIdIn(ids).stream()
+                .filter(p -> p.getStationId().equals(stationByPort.get(p.getId())))
+                .toList();
+    }
 
-        return modelMapper.map(port, StationPortDto.class);
+    private Set<Long> distinctIds(Collection<Long> ids) {
+        if (ids == null) {
+            return Set.of();
+        }
+        Set<Long> distinct = new HashSet<>();
+        for (Long id : ids) {
+            if (id != null) {
+                distinct.add(id);
+            }
+        }
+        if (distinct.size() > MAX_LOOKUP_SIZE) {
+            throw new IllegalArgumentException("Cannot look up more than " + MAX_LOOKUP_SIZE + " ids at once");
+        }
+        return distinct;
     }
 
     /**
@@ -291,7 +560,7 @@ public class StationService {
                 .orElseThrow(() -> new EntityNotFoundException("Station not found with id: " + stationId));
 
         return station.getPorts().stream()
-                .map(port -> modelMapper.map(port, StationPortDto.class))
+                .map(stationMapper::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -299,15 +568,15 @@ public class StationService {
      * Get only approved stations
      */
     public List<StationDto> getApprovedStations() {
-        return stationRepository.findByIsApprovedTrue().stream()
-                .map(station -> modelMapper.map(station, StationDto.class))
+        return stationRepository.findWithPortsByIsApprovedTrue().stream()
+                .map(stationMapper::toDto)
                 .collect(Collectors.toList());
     }
 
     public TotalEarningRespDto getTotalEarningsFromAStaion(Long stationId) {
         TotalEarningRespDto totalEarning = null;
         try{
-            totalEarning = bookingClient.get().uri("/bookings/earnings/"+stationId)
+            totalEarning = bookingClient.get().uri("/bookings/admin/earnings/{stationId}", stationId)
                     .retrieve()
                     .body(TotalEarningRespDto.class);
         }
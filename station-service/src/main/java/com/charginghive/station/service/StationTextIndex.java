@@ -0,0 +1,329 @@
+package com.charginghive.station.service;
+
+import com.charginghive.station.model.Station;
+import com.charginghive.station.repository.StationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process trigram inverted index over station name, city, address and postal code.
+ * Every token is padded ("$token$") and cut into trigrams, so a query still matches
+ * when a few characters are wrong, missing or swapped. A station scores the weighted
+ * share of query trigrams found in each field, plus bonuses for query words found whole
+ * and for a name starting with the query. Writes made inside a transaction are applied
+ * after it commits.
+ */
+@Component
+@Slf4j
+public class StationTextIndex {
+
+    private static final int NAME = 0;
+    private static final int CITY = 1;
+    private static final int ADDRESS = 2;
+    private static final int POSTAL_CODE = 3;
+    private static final double[] FIELD_WEIGHTS = {3.0, 1.5, 1.0, 1.5};
+    private static final double PREFIX_BONUS = 1.0;
+    // per query word found whole in a field, times the field weight
+    private static final double EXACT_WORD_BONUS = 1.0;
+    // share of the query trigrams a field must contain for a station to match
+    private static final double MIN_SIMILARITY = 0.4;
+    // per-field hit counters are packed into one int, 8 bits each
+    private static final int MAX_QUERY_TRIGRAMS = 255;
+
+    private final StationRepository stationRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @SuppressWarnings("unchecked")
+    private final Map<String, IntBag>[] postings = new Map[]{new HashMap<>(), new HashMap<>(), new HashMap<>(), new HashMap<>()};
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private long[] ids = new long[0];
+    // normalized field texts padded with spaces, for whole-word checks on candidates
+    private String[][] textsBySlot = new String[0][];
+    private String[][][] trigramsBySlot = new String[0][][];
+    private int highWater = 0;
+    private final IntBag freeSlots = new IntBag();
+
+    private volatile boolean ready = false;
+
+    public StationTextIndex(StationRepository stationRepository) {
+        this.stationRepository = stationRepository;
+    }
+
+    /**
+     * Load all stations; repeated periodically to pick up writes made by other instances
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${station.text-index.refresh-ms:300000}",
+            initialDelayString = "${station.text-index.refresh-ms:300000}")
+    public void load() {
+        long started = System.currentTimeMillis();
+        List<Entry> entries = stationRepository.findAll().stream().map(StationTextIndex::entryOf).toList();
+        lock.writeLock().lock();
+        try {
+            for (Map<String, IntBag> field : postings) {
+                field.clear();
+            }
+            slotById.clear();
+            Arrays.fill(trigramsBySlot, null);
+            Arrays.fill(textsBySlot, null);
+            highWater = 0;
+            freeSlots.size = 0;
+            entries.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("Station text index loaded {} stations in {} ms", entries.size(), System.currentTimeMillis() - started);
+    }
+
+    public synchronized void ensureLoaded() {
+        if (!ready) {
+            load();
+        }
+    }
+
+    public void update(Station station) {
+        Entry entry = entryOf(station);
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                removeSlot(entry.id());
+                put(entry);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long stationId) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                removeSlot(stationId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Ids of the stations matching the query, best first, at most limit of them
+     */
+    public List<Long> search(String query, int limit) {
+        String normalizedQuery = normalize(query);
+        Set<String> queryTrigrams = trigrams(normalizedQuery);
+        if (queryTrigrams.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        List<String> trigrams = new ArrayList<>(queryTrigrams);
+        if (trigrams.size() > MAX_QUERY_TRIGRAMS) {
+            trigrams = trigrams.subList(0, MAX_QUERY_TRIGRAMS);
+        }
+        int queryCount = trigrams.size();
+        String[] words = normalizedQuery.split(" ");
+        for (int i = 0; i < words.length; i++) {
+            words[i] = " " + words[i] + " ";
+        }
+        String namePrefix = " " + normalizedQuery;
+
+        lock.readLock().lock();
+        try {
+            int[] hits = new int[highWater];
+            IntBag touched = new IntBag();
+            for (int field = 0; field < postings.length; field++) {
+                int shift = field * 8;
+                for (String trigram : trigrams) {
+                    IntBag docs = postings[field].get(trigram);
+                    if (docs == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < docs.size; i++) {
+                        int slot = docs.values[i];
+                        if (hits[slot] == 0) {
+                            touched.add(slot);
+                        }
+                        hits[slot] += 1 << shift;
+                    }
+                }
+            }
+
+            // score candidates, keeping the best `limit` in a heap whose head is the weakest
+            double[] scores = new double[touched.size];
+            int[] slots = new int[touched.size];
+            int matched = 0;
+            PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(limit, touched.size) + 1,
+                    (a, b) -> compare(scores, slots, b, a));
+            for (int i = 0; i < touched.size; i++) {
+                int slot = touched.values[i];
+                double score = 0;
+                double bestSimilarity = 0;
+                for (int field = 0; field < FIELD_WEIGHTS.length; field++) {
+                    double similarity = ((hits[slot] >>> (field * 8)) & 0xff) / (double) queryCount;
+                    bestSimilarity = Math.max(bestSimilarity, similarity);
+                    score += FIELD_WEIGHTS[field] * similarity;
+                }
+                if (bestSimilarity < MIN_SIMILARITY) {
+                    continue;
+                }
+                String[] texts = textsBySlot[slot];
+                for (String word : words) {
+                    for (int field = 0; field < texts.length; field++) {
+                        if (texts[field].contains(word)) {
+                            score += EXACT_WORD_BONUS * FIELD_WEIGHTS[field];
+                            break;
+                        }
+                    }
+                }
+                if (texts[NAME].startsWith(namePrefix)) {
+                    score += PREFIX_BONUS;
+                }
+                scores[matched] = score;
+                slots[matched] = slot;
+                best.add(matched);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+                matched++;
+            }
+
+            Long[] result = new Long[best.size()];
+            for (int i = result.length - 1; i >= 0; i--) {
+                result[i] = ids[slots[best.poll()]];
+            }
+            return Arrays.asList(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // higher score first; ties keep the lower station id first so pages stay stable
+    private int compare(double[] scores, int[] slots, int a, int b) {
+        return scores[a] != scores[b]
+                ? Double.compare(scores[b], scores[a])
+                : Long.compare(ids[slots[a]], ids[slots[b]]);
+    }
+
+    // --- index maintenance, callers hold the write lock ---
+
+    private void put(Entry entry) {
+        int slot = freeSlots.size > 0 ? freeSlots.values[--freeSlots.size] : nextSlot();
+        ids[slot] = entry.id();
+        textsBySlot[slot] = entry.texts();
+        trigramsBySlot[slot] = entry.trigrams();
+        for (int field = 0; field < entry.trigrams().length; field++) {
+            for (String trigram : entry.trigrams()[field]) {
+                postings[field].computeIfAbsent(trigram, key -> new IntBag()).add(slot);
+            }
+        }
+        slotById.put(entry.id(), slot);
+    }
+
+    private void removeSlot(Long stationId) {
+        Integer slot = slotById.remove(stationId);
+        if (slot == null) {
+            return;
+        }
+        String[][] fields = trigramsBySlot[slot];
+        for (int field = 0; field < fields.length; field++) {
+            for (String trigram : fields[field]) {
+                IntBag docs = postings[field].get(trigram);
+                if (docs != null) {
+                    docs.remove(slot);
+                    if (docs.size == 0) {
+                        postings[field].remove(trigram);
+                    }
+                }
+            }
+        }
+        trigramsBySlot[slot] = null;
+        textsBySlot[slot] = null;
+        freeSlots.add(slot);
+    }
+
+    private int nextSlot() {
+        if (highWater == ids.length) {
+            int capacity = Math.max(1024, ids.length * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            textsBySlot = Arrays.copyOf(textsBySlot, capacity);
+            trigramsBySlot = Arrays.copyOf(trigramsBySlot, capacity);
+        }
+        return highWater++;
+    }
+
+    private static Entry entryOf(Station station) {
+        String[] texts = new String[4];
+        texts[NAME] = normalize(station.getName());
+        texts[CITY] = normalize(station.getCity());
+        texts[ADDRESS] = normalize(station.getAddress());
+        texts[POSTAL_CODE] = normalize(station.getPostalCode());
+        String[][] fields = new String[texts.length][];
+        for (int field = 0; field < texts.length; field++) {
+            fields[field] = trigrams(texts[field]).toArray(String[]::new);
+            texts[field] = " " + texts[field] + " ";
+        }
+        return new Entry(station.getId(), texts, fields);
+    }
+
+    // lower case, accents stripped, anything but letters and digits turned into single spaces
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+        return decomposed.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    static Set<String> trigrams(String normalized) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        if (normalized.isEmpty()) {
+            return trigrams;
+        }
+        for (String token : normalized.split(" ")) {
+            String padded = "$" + token + "$";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    private record Entry(long id, String[] texts, String[][] trigrams) {
+    }
+
+    // growable int list; removal swaps the last element in
+    private static final class IntBag {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+    }
+}
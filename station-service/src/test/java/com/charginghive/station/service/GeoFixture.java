@@ -0,0 +1,83 @@
+package com.charginghive.station.service;
+
+import com.charginghive.station.dto.StationDto;
+import com.charginghive.station.mapper.StationMapper;
+import com.charginghive.station.model.Station;
+import com.charginghive.station.model.StationPort;
+import com.charginghive.station.repository.StationRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Random approved stations and a geo index loaded with them, for checking the index
+ * against brute-force scans
+ */
+final class GeoFixture {
+
+    static final String[] CONNECTORS = {"CCS2", "CHAdeMO", "Type2", "GB/T"};
+    static final double[] POWER_KW = {7.4, 22, 50, 150};
+
+    private GeoFixture() {
+    }
+
+    /**
+     * count stations with one to three ports each, spread uniformly over the box
+     */
+    static List<Station> stations(SplittableRandom random, int count, long firstId,
+                                  double minLat, double maxLat, double minLng, double maxLng) {
+        List<Station> stations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Station station = new Station();
+            station.setId(firstId + i);
+            station.setApproved(true);
+            station.setLatitude(random.nextDouble(minLat, maxLat));
+            station.setLongitude(random.nextDouble(minLng, maxLng));
+            int ports = 1 + random.nextInt(3);
+            for (int p = 0; p < ports; p++) {
+                StationPort port = new StationPort();
+                port.setConnectorType(CONNECTORS[random.nextInt(CONNECTORS.length)]);
+                port.setMaxPowerKw(POWER_KW[random.nextInt(POWER_KW.length)]);
+                port.setStation(station);
+                station.getPorts().add(port);
+            }
+            stations.add(station);
+        }
+        return stations;
+    }
+
+    static StationGeoIndex index(List<Station> stations, double cellDegrees) {
+        StationRepository repository = mock(StationRepository.class);
+        when(repository.findWithPortsByIsApprovedTrue()).thenReturn(stations);
+        // only the id is needed to tell the results apart
+        StationMapper mapper = mock(StationMapper.class);
+        when(mapper.toDto(any(Station.class))).thenAnswer(invocation -> {
+            StationDto dto = new StationDto();
+            dto.setId(invocation.<Station>getArgument(0).getId());
+            return dto;
+        });
+        StationGeoIndex index = new StationGeoIndex(repository, mapper,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), cellDegrees);
+        index.load();
+        return index;
+    }
+
+    static double distanceKm(Station station, double lat, double lng) {
+        return StationGeoIndex.distanceKm(lat, lng, station.getLatitude(), station.getLongitude());
+    }
+
+    static List<Long> ids(StationGeoIndex.Hits hits) {
+        List<Long> ids = new ArrayList<>(hits.size());
+        for (int i = 0; i < hits.size(); i++) {
+            ids.add(hits.id(i));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,236 @@
+package com.charginghive.station.service;
+
+import com.charginghive.station.dto.RouteStationDto;
+import com.charginghive.station.model.Station;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks corridor membership and placement along the route against a brute-force
+ * search of each station's closest point on every great-circle segment
+ */
+class RouteCorridorSearchTest {
+
+    // stations this close to the corridor edge may fall either side of it through rounding
+    private static final double EDGE_KM = 0.001;
+    private static final double TOLERANCE_KM = 0.005;
+
+    @Test
+    void corridorMatchesBruteForce() {
+        SplittableRandom random = new SplittableRandom(21);
+        List<Station> stations = GeoFixture.stations(random, 2000, 1, 10, 30, 70, 90);
+        RouteCorridorSearch search = new RouteCorridorSearch(GeoFixture.index(stations, 0.25));
+        for (int route = 0; route < 15; route++) {
+            int points = 1 + random.nextInt(25);
+            double[][] waypoints = new double[points][];
+            double lat = random.nextDouble(12, 28);
+            double lng = random.nextDouble(72, 88);
+            for (int i = 0; i < points; i++) {
+                waypoints[i] = new double[]{lat, lng};
+                // legs of up to ~150 km in any direction, so some routes double back
+                lat = Math.max(10, Math.min(30, lat + random.nextDouble(-1, 1)));
+                lng = Math.max(70, Math.min(90, lng + random.nextDouble(-1, 1)));
+            }
+            assertCorridor(search, stations, encode(waypoints), random.nextDouble(0.5, 50));
+        }
+    }
+
+    @Test
+    void corridorOfALongLegAtHighLatitude() {
+        // a 1000 km leg near 60 degrees, where a flat lat/lng projection goes furthest wrong
+        SplittableRandom random = new SplittableRandom(22);
+        List<Station> stations = GeoFixture.stations(random, 4000, 1, 55, 66, 0, 30);
+        RouteCorridorSearch search = new RouteCorridorSearch(GeoFixture.index(stations, 0.25));
+        assertCorridor(search, stations, encode(new double[][]{{60, 5}, {61, 23}}), 25);
+        assertCorridor(search, stations, encode(new double[][]{{58, 5}, {64, 25}, {57, 20}}), 40);
+    }
+
+    @Test
+    void singlePointRouteIsARadius() {
+        List<Station> stations = GeoFixture.stations(new SplittableRandom(23), 1000, 1, 18, 19, 73, 74);
+        RouteCorridorSearch search = new RouteCorridorSearch(GeoFixture.index(stations, 0.25));
+        List<RouteStationDto> found = search.search(encode(new double[][]{{18.5, 73.5}}), 10);
+        assertFalse(found.isEmpty());
+        for (RouteStationDto hit : found) {
+            assertEquals(0, hit.getDistanceAlongRouteKm());
+            assertTrue(hit.getDistanceFromRouteKm() <= 10);
+        }
+        long inside = stations.stream().filter(station -> GeoFixture.distanceKm(station, 18.5, 73.5) <= 10).count();
+        assertEquals(inside, found.size());
+    }
+
+    @Test
+    void rejectsCorridorsOutOfRange() {
+        RouteCorridorSearch search = new RouteCorridorSearch(GeoFixture.index(List.of(), 1));
+        String route = encode(new double[][]{{18.5, 73.5}, {19, 74}});
+        assertThrows(IllegalArgumentException.class, () -> search.search(route, 0));
+        assertThrows(IllegalArgumentException.class, () -> search.search(route, RouteCorridorSearch.MAX_CORRIDOR_KM + 1));
+        assertThrows(IllegalArgumentException.class, () -> search.search(route, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> search.search("~", 5));
+    }
+
+    @Test
+    void decodesWhatItEncodes() {
+        double[][] decoded = RouteCorridorSearch.decodePolyline("_p~iF~ps|U_ulLnnqC_mqNvxq`@");
+        assertArrayEquals(new double[]{38.5, 40.7, 43.252}, decoded[0], 1e-9);
+        assertArrayEquals(new double[]{-120.2, -120.95, -126.453}, decoded[1], 1e-9);
+    }
+
+    private static void assertCorridor(RouteCorridorSearch search, List<Station> stations,
+                                       String polyline, double corridorKm) {
+        double[][] route = RouteCorridorSearch.decodePolyline(polyline);
+        Map<Long, RouteStationDto> found = new HashMap<>();
+        double previousAlong = -1;
+        for (RouteStationDto hit : search.search(polyline, corridorKm)) {
+            found.put(hit.getStation().getId(), hit);
+            assertTrue(hit.getDistanceAlongRouteKm() >= previousAlong, "ordered along the route");
+            previousAlong = hit.getDistanceAlongRouteKm();
+        }
+        for (Station station : stations) {
+            double[] nearest = bruteForce(route[0], route[1], station.getLatitude(), station.getLongitude());
+            RouteStationDto hit = found.get(station.getId());
+            if (Math.abs(nearest[0] - corridorKm) < EDGE_KM) {
+                continue;
+            }
+            if (nearest[0] > corridorKm) {
+                assertNull(hit, () -> "station " + station.getId() + " is " + nearest[0] + " km from the route");
+                continue;
+            }
+            assertNotNull(hit, () -> "station " + station.getId() + " is " + nearest[0] + " km from the route");
+            assertEquals(nearest[0], hit.getDistanceFromRouteKm(), TOLERANCE_KM);
+            // a route that doubles back can pass a station twice at the same distance
+            if (!passesTwice(route[0], route[1], station, nearest)) {
+                assertEquals(nearest[1], hit.getDistanceAlongRouteKm(), TOLERANCE_KM);
+            }
+        }
+    }
+
+    // closest distance to the route and the route length up to that point
+    private static double[] bruteForce(double[] lats, double[] lngs, double lat, double lng) {
+        double[] best = {StationGeoIndex.distanceKm(lats[0], lngs[0], lat, lng), 0};
+        double before = 0;
+        for (int i = 0; i + 1 < lats.length; i++) {
+            double segmentKm = StationGeoIndex.distanceKm(lats[i], lngs[i], lats[i + 1], lngs[i + 1]);
+            // every point of the arc is within half its length of an end, so this arc cannot be closer
+            double lowerBound = Math.min(StationGeoIndex.distanceKm(lats[i], lngs[i], lat, lng),
+                    StationGeoIndex.distanceKm(lats[i + 1], lngs[i + 1], lat, lng)) - segmentKm / 2;
+            if (lowerBound < best[0]) {
+                double[] onSegment = closestOnArc(lats[i], lngs[i], lats[i + 1], lngs[i + 1], lat, lng);
+                if (onSegment[0] < best[0]) {
+                    best = new double[]{onSegment[0], before + onSegment[1] * segmentKm};
+                }
+            }
+            before += segmentKm;
+        }
+        return best;
+    }
+
+    private static boolean passesTwice(double[] lats, double[] lngs, Station station, double[] nearest) {
+        int close = 0;
+        for (int i = 0; i + 1 < lats.length; i++) {
+            double segmentKm = StationGeoIndex.distanceKm(lats[i], lngs[i], lats[i + 1], lngs[i + 1]);
+            double lowerBound = Math.min(GeoFixture.distanceKm(station, lats[i], lngs[i]),
+                    GeoFixture.distanceKm(station, lats[i + 1], lngs[i + 1])) - segmentKm / 2;
+            if (lowerBound - nearest[0] >= TOLERANCE_KM) {
+                continue;
+            }
+            double[] onSegment = closestOnArc(lats[i], lngs[i], lats[i + 1], lngs[i + 1],
+                    station.getLatitude(), station.getLongitude());
+            if (onSegment[0] - nearest[0] < TOLERANCE_KM) {
+                close++;
+            }
+        }
+        return close > 1;
+    }
+
+    // {distance, fraction of the arc}: a coarse scan of points along the arc, then golden-section refinement
+    private static double[] closestOnArc(double aLat, double aLng, double bLat, double bLng, double lat, double lng) {
+        int samples = 16;
+        int bestSample = 0;
+        double bestDistance = Double.MAX_VALUE;
+        for (int s = 0; s <= samples; s++) {
+            double distance = distanceToArcPoint(aLat, aLng, bLat, bLng, (double) s / samples, lat, lng);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestSample = s;
+            }
+        }
+        double lo = Math.max(0, (bestSample - 1.0) / samples);
+        double hi = Math.min(1, (bestSample + 1.0) / samples);
+        double ratio = (Math.sqrt(5) - 1) / 2;
+        double m1 = hi - ratio * (hi - lo);
+        double m2 = lo + ratio * (hi - lo);
+        double d1 = distanceToArcPoint(aLat, aLng, bLat, bLng, m1, lat, lng);
+        double d2 = distanceToArcPoint(aLat, aLng, bLat, bLng, m2, lat, lng);
+        for (int iteration = 0; iteration < 40; iteration++) {
+            if (d1 <= d2) {
+                hi = m2;
+                m2 = m1;
+                d2 = d1;
+                m1 = hi - ratio * (hi - lo);
+                d1 = distanceToArcPoint(aLat, aLng, bLat, bLng, m1, lat, lng);
+            } else {
+                lo = m1;
+                m1 = m2;
+                d1 = d2;
+                m2 = lo + ratio * (hi - lo);
+                d2 = distanceToArcPoint(aLat, aLng, bLat, bLng, m2, lat, lng);
+            }
+        }
+        double t = (lo + hi) / 2;
+        return new double[]{distanceToArcPoint(aLat, aLng, bLat, bLng, t, lat, lng), t};
+    }
+
+    // haversine distance to the point a fraction t of the way along the great circle from a to b
+    private static double distanceToArcPoint(double aLat, double aLng, double bLat, double bLng, double t,
+                                             double lat, double lng) {
+        double[] a = unit(aLat, aLng);
+        double[] b = unit(bLat, bLng);
+        double omega = Math.acos(Math.max(-1, Math.min(1, a[0] * b[0] + a[1] * b[1] + a[2] * b[2])));
+        double[] p = new double[3];
+        for (int i = 0; i < 3; i++) {
+            p[i] = omega < 1e-12 ? a[i]
+                    : (Math.sin((1 - t) * omega) * a[i] + Math.sin(t * omega) * b[i]) / Math.sin(omega);
+        }
+        double pLat = Math.toDegrees(Math.asin(Math.max(-1, Math.min(1, p[2]))));
+        double pLng = Math.toDegrees(Math.atan2(p[1], p[0]));
+        return StationGeoIndex.distanceKm(pLat, pLng, lat, lng);
+    }
+
+    private static double[] unit(double lat, double lng) {
+        double phi = Math.toRadians(lat);
+        double lambda = Math.toRadians(lng);
+        return new double[]{Math.cos(phi) * Math.cos(lambda), Math.cos(phi) * Math.sin(lambda), Math.sin(phi)};
+    }
+
+    // Google encoded polyline, precision 1e-5
+    private static String encode(double[][] points) {
+        StringBuilder encoded = new StringBuilder();
+        long lat = 0;
+        long lng = 0;
+        for (double[] point : points) {
+            long nextLat = Math.round(point[0] * 1e5);
+            long nextLng = Math.round(point[1] * 1e5);
+            encodeValue(nextLat - lat, encoded);
+            encodeValue(nextLng - lng, encoded);
+            lat = nextLat;
+            lng = nextLng;
+        }
+        return encoded.toString();
+    }
+
+    private static void encodeValue(long value, StringBuilder encoded) {
+        long shifted = value < 0 ? ~(value << 1) : value << 1;
+        while (shifted >= 0x20) {
+            encoded.append((char) ((0x20 | (shifted & 0x1f)) + 63));
+            shifted >>= 5;
+        }
+        encoded.append((char) (shifted + 63));
+    }
+}
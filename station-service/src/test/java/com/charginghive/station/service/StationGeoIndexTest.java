@@ -0,0 +1,150 @@
+package com.charginghive.station.service;
+
+import com.charginghive.station.model.Station;
+import com.charginghive.station.model.StationPort;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the geo index against a brute-force haversine scan over the same stations
+ */
+class StationGeoIndexTest {
+
+    private static final int QUERIES = 200;
+
+    @Test
+    void radiusMatchesBruteForce() {
+        SplittableRandom random = new SplittableRandom(12);
+        List<Station> stations = GeoFixture.stations(random, 3000, 1, 10, 30, 70, 90);
+        StationGeoIndex index = GeoFixture.index(stations, 0.25);
+        for (int q = 0; q < QUERIES; q++) {
+            double lat = random.nextDouble(9, 31);
+            double lng = random.nextDouble(69, 91);
+            double radiusKm = random.nextDouble(0.5, 300);
+            assertRadius(index, stations, lat, lng, radiusKm);
+        }
+    }
+
+    @Test
+    void radiusCrossesTheAntimeridian() {
+        SplittableRandom random = new SplittableRandom(13);
+        List<Station> stations = new ArrayList<>(GeoFixture.stations(random, 500, 1, -20, 20, 178, 180));
+        stations.addAll(GeoFixture.stations(random, 500, 501, -20, 20, -180, -178));
+        StationGeoIndex index = GeoFixture.index(stations, 0.25);
+        for (int q = 0; q < QUERIES; q++) {
+            double lng = random.nextBoolean() ? random.nextDouble(179, 180) : random.nextDouble(-180, -179);
+            assertRadius(index, stations, random.nextDouble(-20, 20), lng, random.nextDouble(1, 200));
+        }
+    }
+
+    @Test
+    void radiusNearThePoles() {
+        SplittableRandom random = new SplittableRandom(14);
+        List<Station> stations = new ArrayList<>(GeoFixture.stations(random, 500, 1, 85, 90, -180, 180));
+        stations.addAll(GeoFixture.stations(random, 500, 501, -90, -85, -180, 180));
+        StationGeoIndex index = GeoFixture.index(stations, 1);
+        for (int q = 0; q < QUERIES; q++) {
+            double lat = random.nextBoolean() ? random.nextDouble(84, 90) : random.nextDouble(-90, -84);
+            assertRadius(index, stations, lat, random.nextDouble(-180, 180), random.nextDouble(1, 600));
+        }
+    }
+
+    @Test
+    void removedStationsLeaveTheResults() {
+        List<Station> stations = GeoFixture.stations(new SplittableRandom(15), 100, 1, 18, 19, 73, 74);
+        StationGeoIndex index = GeoFixture.index(stations, 0.25);
+        Station removed = stations.get(0);
+        index.remove(removed.getId());
+        assertEquals(99, index.size());
+        assertFalse(GeoFixture.ids(index.withinRadius(removed.getLatitude(), removed.getLongitude(), 500))
+                .contains(removed.getId()));
+    }
+
+    @Test
+    void nearestMatchesBruteForceWithFilters() {
+        SplittableRandom random = new SplittableRandom(16);
+        List<Station> stations = GeoFixture.stations(random, 3000, 1, 10, 30, 70, 90);
+        StationGeoIndex index = GeoFixture.index(stations, 0.25);
+        List<StationGeoIndex.PortFilter> filters = List.of(
+                StationGeoIndex.PortFilter.ANY,
+                new StationGeoIndex.PortFilter("CCS2", 0),
+                new StationGeoIndex.PortFilter(" chademo ", 0),
+                new StationGeoIndex.PortFilter(null, 50),
+                new StationGeoIndex.PortFilter("Type2", 150),
+                new StationGeoIndex.PortFilter("GB/T", 22));
+        for (int q = 0; q < QUERIES; q++) {
+            // some points far outside the fixture, so the search has to widen many rings
+            double lat = random.nextDouble(-10, 50);
+            double lng = random.nextDouble(50, 110);
+            int k = 1 + random.nextInt(40);
+            assertNearest(index, stations, lat, lng, k, filters.get(random.nextInt(filters.size())));
+        }
+    }
+
+    @Test
+    void nearestWrapsAroundTheGlobe() {
+        SplittableRandom random = new SplittableRandom(17);
+        List<Station> stations = new ArrayList<>(GeoFixture.stations(random, 20, 1, -60, 60, 175, 180));
+        stations.addAll(GeoFixture.stations(random, 20, 21, 80, 90, -180, 180));
+        StationGeoIndex index = GeoFixture.index(stations, 0.5);
+        for (int q = 0; q < QUERIES; q++) {
+            double lat = random.nextDouble(-90, 90);
+            double lng = random.nextDouble(-180, 180);
+            assertNearest(index, stations, lat, lng, 1 + random.nextInt(10), StationGeoIndex.PortFilter.ANY);
+        }
+        // more than there are: every station, nearest first
+        assertNearest(index, stations, 0, -170, 100, StationGeoIndex.PortFilter.ANY);
+    }
+
+    @Test
+    void nearestWithAnUnknownConnectorFindsNothing() {
+        List<Station> stations = GeoFixture.stations(new SplittableRandom(18), 100, 1, 18, 19, 73, 74);
+        StationGeoIndex index = GeoFixture.index(stations, 0.25);
+        assertEquals(0, index.nearest(18.5, 73.5, 5, new StationGeoIndex.PortFilter("Tesla", 0)).size());
+        assertEquals(0, index.nearest(18.5, 73.5, 0).size());
+        assertEquals(0, index.nearest(18.5, 73.5, 5, new StationGeoIndex.PortFilter(null, 1000)).size());
+    }
+
+    private static void assertNearest(StationGeoIndex index, List<Station> stations,
+                                      double lat, double lng, int k, StationGeoIndex.PortFilter filter) {
+        List<Long> expected = stations.stream()
+                .filter(station -> matches(station, filter))
+                .sorted(Comparator.comparingDouble(station -> GeoFixture.distanceKm(station, lat, lng)))
+                .limit(k)
+                .map(Station::getId)
+                .toList();
+        assertEquals(expected, GeoFixture.ids(index.nearest(lat, lng, k, filter)),
+                () -> k + " nearest to " + lat + "," + lng + " with " + filter);
+    }
+
+    private static boolean matches(Station station, StationGeoIndex.PortFilter filter) {
+        for (StationPort port : station.getPorts()) {
+            boolean connector = filter.connector() == null
+                    || port.getConnectorType().equalsIgnoreCase(filter.connector().trim());
+            if (connector && port.getMaxPowerKw() >= filter.minKw()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void assertRadius(StationGeoIndex index, List<Station> stations,
+                                     double lat, double lng, double radiusKm) {
+        List<Long> expected = stations.stream()
+                .filter(station -> GeoFixture.distanceKm(station, lat, lng) <= radiusKm)
+                .sorted(Comparator.comparingDouble(station -> GeoFixture.distanceKm(station, lat, lng)))
+                .map(Station::getId)
+                .toList();
+        StationGeoIndex.Hits hits = index.withinRadius(lat, lng, radiusKm);
+        assertEquals(expected, GeoFixture.ids(hits), () -> "radius " + radiusKm + " km around " + lat + "," + lng);
+        for (int i = 0; i < hits.size(); i++) {
+            assertEquals(GeoFixture.distanceKm(stations.get((int) hits.id(i) - 1), lat, lng), hits.distanceKm(i));
+        }
+    }
+}
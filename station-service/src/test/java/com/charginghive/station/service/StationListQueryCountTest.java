@@ -0,0 +1,103 @@
+package com.charginghive.station.service;
+
+import com.charginghive.station.dto.StationDto;
+import com.charginghive.station.model.Station;
+import com.charginghive.station.model.StationPort;
+import com.charginghive.station.repository.StationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Guards the station list endpoints against loading ports one station at a time
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StationListQueryCountTest {
+
+    private static final int STATIONS = 20;
+    private static final int PORTS_PER_STATION = 3;
+    private static final long OWNER_ID = 7L;
+
+    @Autowired
+    private StationService stationService;
+
+    @Autowired
+    private StationRepository stationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < STATIONS; i++) {
+            Station station = new Station();
+            station.setName("Station " + i);
+            station.setAddress("Road " + i);
+            station.setCity("Pune");
+            station.setState("MH");
+            station.setPostalCode("4110" + (10 + i));
+            station.setLatitude(18.5 + i * 0.01);
+            station.setLongitude(73.8);
+            station.setOwnerId(i % 2 == 0 ? OWNER_ID : OWNER_ID + 1);
+            station.setApproved(i % 2 == 0);
+            for (int p = 0; p < PORTS_PER_STATION; p++) {
+                StationPort port = new StationPort();
+                port.setConnectorType("CCS2");
+                port.setMaxPowerKw(50);
+                port.setPricePerHour(100.0);
+                port.setStation(station);
+                station.getPorts().add(port);
+            }
+            stationRepository.save(station);
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stationRepository.deleteAll();
+    }
+
+    @Test
+    void getAllStationsUsesOneQuery() {
+        assertSingleQuery(STATIONS, stationService::getAllStations);
+    }
+
+    @Test
+    void getApprovedStationsUsesOneQuery() {
+        assertSingleQuery(STATIONS / 2, stationService::getApprovedStations);
+    }
+
+    @Test
+    void getUnapprovedStationsUsesOneQuery() {
+        assertSingleQuery(STATIONS / 2, stationService::getUnapprovedStations);
+    }
+
+    @Test
+    void getByOwnerUsesOneQuery() {
+        assertSingleQuery(STATIONS / 2, () -> stationService.getByOwner(OWNER_ID));
+    }
+
+    private void assertSingleQuery(int expectedStations, Supplier<List<StationDto>> call) {
+        statistics.clear();
+        List<StationDto> stations = call.get();
+        assertEquals(1, statistics.getPrepareStatementCount(), "statements executed");
+        assertEquals(expectedStations, stations.size());
+        stations.forEach(station -> assertEquals(PORTS_PER_STATION, station.getPorts().size()));
+    }
+}
@@ -0,0 +1,34 @@
+CREATE TABLE stations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    address VARCHAR(255) NOT NULL,
+    city VARCHAR(255) NOT NULL,
+    state VARCHAR(255) NOT NULL,
+    latitude DOUBLE,
+    longitude DOUBLE,
+    location GEOMETRY,
+    postal_code VARCHAR(255) NOT NULL,
+    is_approved BOOLEAN NOT NULL,
+    owner_id BIGINT NOT NULL
+);
+
+CREATE TABLE station_ports (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    connector_type VARCHAR(255) NOT NULL,
+    price_per_hour DOUBLE,
+    max_power_kw DOUBLE NOT NULL,
+    station_id BIGINT NOT NULL REFERENCES stations (id)
+);
+
+CREATE TABLE station_catalog_version (
+    id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+CREATE TABLE station_changes (
+    station_id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL,
+    deleted BOOLEAN NOT NULL
+);
+
+CREATE INDEX idx_station_changes_version ON station_changes (version);